@@ -0,0 +1,204 @@
+package application.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import application.BackendApplication;
+import application.sessions.Session;
+import application.sessions.SessionRepository;
+import application.tools.embeddables.Location;
+import application.tools.embeddables.Token;
+import application.tools.services.SessionService;
+import application.tools.services.UserService;
+import application.users.User;
+import application.users.UserInterface;
+import application.users.UserRepository;
+
+/**
+ * Application context on an in-memory H2 database, seeded with a few {@code Item}s, a moderator and one {@code Session} of {@code players} {@code User}s
+ * spread around its {@code center}. More {@code Session}s can be seeded with {@code seed}
+ * The web server, {@code data.sql} and the periodic game checkpoint are left out so only the measured calls touch the database
+ *
+ * @author Sean Griffen
+ */
+public class BenchmarkFixture {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Center of the seeded {@code Session}
+	 */
+	public static final Location CENTER = new Location(42.0267, -93.6465, 5);
+	
+	/**
+	 * Meters from {@code CENTER} that {@code User}s are placed within
+	 */
+	public static final double SPREAD = 200.0;
+	
+	/**
+	 * Running application
+	 */
+	private final ConfigurableApplicationContext context;
+	
+	/**
+	 * {@code Token} of the seeded {@code Session}
+	 */
+	private final Token session;
+	
+	/**
+	 * {@code Token} of a {@code User} allowed to start {@code Session}s
+	 */
+	private final Token moderator;
+	
+	/**
+	 * Seeded {@code User}s in insertion order
+	 */
+	private final List<UserInterface> users;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Starts the application and seeds it
+	 * @param players
+	 * 		Number of {@code User}s in the {@code Session}
+	 * @param started
+	 * 		{@code true} to seed a started {@code Session}, which is served by the {@code GameEngine}
+	 */
+	public BenchmarkFixture(int players, boolean started) {
+		
+		//Passed as arguments so they override application.properties
+		context = new SpringApplicationBuilder(BackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(
+						"--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=bench",
+						"--spring.datasource.initialization-mode=never",
+						"--spring.jpa.hibernate.ddl-auto=create-drop",
+						"--logging.file=target/benchmark.log",
+						"--logging.level.root=WARN",
+						"--logging.level.org.springframework=WARN",
+						"--knockout.games.checkpoint-interval=3600000",
+						"--knockout.locations.flush-interval=3600000");
+						
+		//Spawned on the map when a Session starts. Inserted like data.sql does, since a new Item has no id for the repository to read
+		context.getBean(JdbcTemplate.class).batchUpdate(
+				"INSERT INTO items (id, name, des, cost, own, sess, typ, effect_type, effect) VALUES (?, ?, ?, ?, -1, -1, ?, ?, ?)",
+				Arrays.asList(
+						new Object[] { 1, "Binoculars", "View range", 5.0, 0, 0, 10.0 },
+						new Object[] { 2, "Sword", "Kill range", 10.0, 0, 1, 1.0 },
+						new Object[] { 3, "Camera", "Target finder", 20.0, 1, 0, 20.0 }));
+		
+		User mod = new User("moderator", "moderator", 1, new Location(CENTER.getLatitude(), CENTER.getLongitude(), 5));
+		moderator = context.getBean(UserRepository.class).save(mod).getToken();
+		
+		users = new ArrayList<>();
+		session = seed("bench", players, started, users);
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GETTERS/SETTERS *****************************************************************/
+	
+	public UserService getUserService() { return context.getBean(UserService.class); }
+	
+	public SessionService getSessionService() { return context.getBean(SessionService.class); }
+	
+	public JdbcTemplate getJdbcTemplate() { return context.getBean(JdbcTemplate.class); }
+	
+	public Token getSession() { return session; }
+	
+	public Token getModerator() { return moderator; }
+	
+	public List<UserInterface> getUsers() { return users; }
+	
+	/****************************************************************** END GETTERS/SETTERS ******************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Seeds another {@code Session} of {@code players} new {@code User}s
+	 * @param name
+	 * 		Unique name of the {@code Session}
+	 * @param players
+	 * 		Number of {@code User}s in the {@code Session}
+	 * @param started
+	 * 		{@code true} to seed a started {@code Session}, which is served by the {@code GameEngine}
+	 * @param seededUsers
+	 * 		Receives the seeded {@code User}s in insertion order
+	 * @return
+	 * 		{@code Token} of the new {@code Session}
+	 */
+	public Token seed(String name, int players, boolean started, List<UserInterface> seededUsers) {
+		
+		UserRepository uRepo = context.getBean(UserRepository.class);
+		SessionRepository sRepo = context.getBean(SessionRepository.class);
+		Random rand = new Random(309);
+		
+		Session sess = new Session(name, new Location(CENTER.getLatitude(), CENTER.getLongitude(), CENTER.getAccuracy()), SPREAD);
+		String[] s = { sess.getName() };
+		sess.setToken(new Token(s, 8760));
+		
+		List<User> seeded = new ArrayList<>();
+		for (int i = 0; i < players; i++) {
+			
+			User u = new User(name + "-player" + i, "password" + i, 0, randomLocation(rand));
+			u.getSession().add(sess.getToken());
+			seeded.add(u);
+		}
+		seeded = uRepo.saveAll(seeded);
+		
+		//A started Session needs a ring of targets
+		if (started) {
+			
+			for (int i = 0; i < seeded.size(); i++) {
+				
+				List<UserInterface> target = new ArrayList<>();
+				target.add(seeded.get((i + 1) % seeded.size()));
+				seeded.get(i).setTargets(target);
+			}
+			seeded = uRepo.saveAll(seeded);
+			sess.setStarted(1);
+			sess.setPasscode(-1);
+		}
+		
+		seededUsers.addAll(seeded);
+		sess.setUsers(new ArrayList<>(seeded));
+		sRepo.save(sess);
+		
+		return sess.getToken();
+	}
+	
+	/**
+	 * Picks a {@code Location} within {@code SPREAD} meters of {@code CENTER}
+	 * @param rand
+	 * 		Source of randomness
+	 * @return
+	 * 		New {@code Location}
+	 */
+	public static Location randomLocation(Random rand) {
+		
+		double r = SPREAD * Math.sqrt(rand.nextDouble());
+		double theta = 2 * Math.PI * rand.nextDouble();
+		double dLat = r * Math.cos(theta) / 111320.0;
+		double dLon = r * Math.sin(theta) / (111320.0 * Math.cos(Math.toRadians(CENTER.getLatitude())));
+		
+		return new Location(CENTER.getLatitude() + dLat, CENTER.getLongitude() + dLon, 5);
+	}
+	
+	/**
+	 * Stops the application and drops the database
+	 */
+	public void close() { context.close(); }
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
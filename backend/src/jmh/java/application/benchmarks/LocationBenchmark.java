@@ -0,0 +1,107 @@
+package application.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import application.tools.embeddables.Location;
+import application.tools.geometry.PackedLocations;
+
+/**
+ * Cost of {@code Location.getDistance}, alone and as the all-pairs scan a view radius query did before the spatial grid.
+ * The {@code haversine} benchmarks keep the formula {@code Location} used before the equirectangular fast path as a baseline
+ *
+ * @author Sean Griffen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationBenchmark {
+	
+	/**
+	 * Number of {@code Location}s scanned
+	 */
+	@Param({ "10", "100", "1000", "10000" })
+	private int players;
+	
+	private Location[] locations;
+	private Location from;
+	private PackedLocations packed;
+	private double[] distances;
+	private int[] found;
+	
+	@Setup
+	public void setup() {
+		
+		Random rand = new Random(309);
+		locations = new Location[players];
+		for (int i = 0; i < players; i++) { locations[i] = BenchmarkFixture.randomLocation(rand); }
+		from = BenchmarkFixture.randomLocation(rand);
+		
+		packed = new PackedLocations(players);
+		for (Location l : locations) { packed.add(l.getLatitude(), l.getLongitude()); }
+		distances = new double[players];
+		found = new int[players];
+	}
+	
+	/**
+	 * Haversine as {@code Location.getDistance} computed it before the fast path
+	 */
+	private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+		
+		double a = Math.pow(Math.sin((Math.toRadians(lat2 - lat1)) / 2), 2) + 
+				Math.cos(Math.toRadians(lat1))* Math.cos(Math.toRadians(lat2)) * 
+				Math.pow((Math.sin((Math.toRadians(lon2 - lon1)) / 2)), 2);
+				
+		return 6371000 * 2 * (Math.atan2(Math.sqrt(a), Math.sqrt(1 - a)));
+	}
+	
+	@Benchmark
+	public double haversine() { return haversine(from.getLatitude(), from.getLongitude(), locations[0].getLatitude(), locations[0].getLongitude()); }
+	
+	@Benchmark
+	public void haversineScan(Blackhole bh) {
+		
+		for (Location l : locations) { bh.consume(haversine(from.getLatitude(), from.getLongitude(), l.getLatitude(), l.getLongitude()) <= 30.0); }
+	}
+	
+	@Benchmark
+	public double distance() { return from.getDistance(locations[0]); }
+	
+	@Benchmark
+	public void scan(Blackhole bh) {
+		
+		for (Location l : locations) { bh.consume(from.getDistance(l) <= 30.0); }
+	}
+	
+	@Benchmark
+	public void withinScan(Blackhole bh) {
+		
+		for (Location l : locations) { bh.consume(from.isWithin(l, 30.0)); }
+	}
+	
+	@Benchmark
+	public double[] packedDistances() {
+		
+		packed.distancesFrom(from.getLatitude(), from.getLongitude(), distances);
+		return distances;
+	}
+	
+	@Benchmark
+	public int packedWithin() { return packed.within(from.getLatitude(), from.getLongitude(), 30.0, found); }
+}
@@ -0,0 +1,77 @@
+package application.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import application.users.User;
+import application.users.UserInterface;
+import application.webSocket.messages.LeaderboardMessage;
+import application.webSocket.messages.MessageWriter;
+import application.webSocket.messages.PlayersInRadiusMessage;
+import application.webSocket.messages.SessionPlayersMessage;
+
+/**
+ * Cost of building the websocket messages {@code Endpoint} sends, for {@code players} {@code User}s.
+ * Uses the same {@code MessageWriter} and message classes as {@code Endpoint}, without a database or a socket
+ *
+ * @author Sean Griffen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBenchmark {
+	
+	/**
+	 * Number of {@code User}s in each message
+	 */
+	@Param({ "10", "100", "1000", "10000" })
+	private int players;
+	
+	private MessageWriter writer;
+	private List<UserInterface> users;
+	
+	@Setup
+	public void setup() {
+		
+		writer = new MessageWriter(new JsonFactory());
+		
+		Random rand = new Random(309);
+		users = new ArrayList<>(players);
+		for (int i = 0; i < players; i++) {
+			
+			User u = new User("player" + i, "password" + i, 0, BenchmarkFixture.randomLocation(rand));
+			u.setKills(rand.nextInt(20));
+			u.setDeaths(rand.nextInt(20) + 1);
+			users.add(u);
+		}
+	}
+	
+	@Benchmark
+	public String sessionPlayers() { return writer.write(new SessionPlayersMessage(users, 1234)); }
+	
+	@Benchmark
+	public String playersInRadius() { return writer.write(new PlayersInRadiusMessage(users, new HashMap<>())); }
+	
+	@Benchmark
+	public String leaderboard() { return writer.write(new LeaderboardMessage(users)); }
+}
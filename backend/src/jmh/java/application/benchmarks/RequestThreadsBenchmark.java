@@ -0,0 +1,123 @@
+package application.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import application.ServerThreadsConfig;
+import application.tools.embeddables.Token;
+import application.tools.services.UserService;
+import application.users.UserInterface;
+
+/**
+ * Time to serve a burst of {@code clients} simultaneous requests, as when every player logs in at the start of a game.
+ * Each request looks up its {@code User} and then holds a pooled connection for {@code latency} milliseconds, standing in for a MySQL round trip.
+ * They are served on {@code threads} request workers from {@code ServerThreadsConfig}, 200 being Tomcat's default pool and 64 the configured one,
+ * sharing the bounded connection pool from application.properties
+ *
+ * @author Sean Griffen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RequestThreadsBenchmark {
+	
+	/**
+	 * Concurrent requests per burst
+	 */
+	@Param({ "1000", "10000" })
+	private int clients;
+	
+	/**
+	 * Milliseconds each request holds its connection
+	 */
+	@Param({ "2" })
+	private int latency;
+	
+	/**
+	 * Request workers, {@code knockout.requests.threads}
+	 */
+	@Param({ "64", "200" })
+	private int threads;
+	
+	private BenchmarkFixture fixture;
+	private UserService uService;
+	private JdbcTemplate jdbc;
+	private Token[] tokens;
+	private ThreadPoolExecutor executor;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		
+		//Queue sized to the burst, so every request is served and only the number of workers differs
+		executor = ServerThreadsConfig.requestThreads(threads, clients);
+		
+		fixture = new BenchmarkFixture(100, false);
+		uService = fixture.getUserService();
+		jdbc = fixture.getJdbcTemplate();
+		
+		List<UserInterface> users = fixture.getUsers();
+		tokens = new Token[users.size()];
+		for (int i = 0; i < tokens.length; i++) { tokens[i] = users.get(i).getToken(); }
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		
+		if (executor != null) { executor.shutdownNow(); }
+		if (fixture != null) { fixture.close(); }
+	}
+	
+	@Benchmark
+	public int burst() throws InterruptedException {
+		
+		CountDownLatch done = new CountDownLatch(clients);
+		AtomicInteger served = new AtomicInteger();
+		for (int i = 0; i < clients; i++) {
+			
+			Token t = tokens[i % tokens.length];
+			executor.execute(() -> {
+				
+				try {
+					uService.getUser(t);
+					jdbc.execute((ConnectionCallback<Void>) c -> {
+						
+						try { Thread.sleep(latency); }
+						catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+						return null;
+					});
+					served.incrementAndGet();
+				} catch (Exception e) {
+					//Counted as unserved, like a request that timed out waiting for a connection
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		done.await();
+		
+		if (served.get() != clients) { throw new IllegalStateException((clients - served.get()) + " of " + clients + " requests failed"); }
+		return served.get();
+	}
+}
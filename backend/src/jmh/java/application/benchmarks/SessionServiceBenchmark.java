@@ -0,0 +1,92 @@
+package application.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import application.exceptions.BackendException;
+import application.tools.embeddables.Token;
+import application.tools.services.SessionService;
+import application.tools.wrappers.ListMapReturnWrapper;
+import application.tools.wrappers.OnTapUpdateWrapper;
+
+/**
+ * Latency of {@code SessionService.getOnTap} and {@code updateOnTap} against a {@code Session} of {@code players} {@code User}s,
+ * both before it is started (answered from the database) and after (answered by the {@code GameEngine}).
+ * Taps land where nobody stands, so the game state is the same for every invocation
+ *
+ * @author Sean Griffen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionServiceBenchmark {
+	
+	/**
+	 * Number of {@code User}s in the {@code Session}
+	 */
+	@Param({ "10", "100", "1000", "10000" })
+	private int players;
+	
+	/**
+	 * Whether the {@code Session} is started
+	 */
+	@Param({ "false", "true" })
+	private boolean started;
+	
+	private BenchmarkFixture fixture;
+	private SessionService sService;
+	private List<Token> onTap;
+	private OnTapUpdateWrapper miss;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		
+		fixture = new BenchmarkFixture(players, started);
+		sService = fixture.getSessionService();
+		
+		Token tapper = fixture.getUsers().get(0).getToken();
+		onTap = new ArrayList<>();
+		onTap.add(fixture.getSession());
+		onTap.add(tapper);
+		
+		miss = new OnTapUpdateWrapper();
+		miss.setToUpdate(fixture.getSession());
+		miss.setTapper(tapper);
+		miss.setTapped(BenchmarkFixture.randomLocation(new Random(8)));
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() { fixture.close(); }
+	
+	@Benchmark
+	public ListMapReturnWrapper<?, ?, ?> getOnTap() throws BackendException { return sService.getOnTap(onTap); }
+	
+	@Benchmark
+	public int updateOnTap() {
+		
+		try {
+			return sService.updateOnTap(miss);
+		} catch (BackendException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package application.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import application.exceptions.BackendException;
+import application.tools.services.SessionService;
+import application.tools.wrappers.SessionStartUpdateWrapper;
+
+/**
+ * Latency of {@code SessionService.startSession} for a {@code Session} of {@code players} {@code User}s.
+ * Every invocation starts a freshly seeded {@code Session}, so each one measures a cold start
+ *
+ * @author Sean Griffen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SessionStartBenchmark {
+	
+	/**
+	 * Number of {@code User}s in the {@code Session}
+	 */
+	@Param({ "10", "100", "500" })
+	private int players;
+	
+	private BenchmarkFixture fixture;
+	private SessionService sService;
+	private SessionStartUpdateWrapper start;
+	private int seeded;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		
+		fixture = new BenchmarkFixture(1, false);
+		sService = fixture.getSessionService();
+	}
+	
+	@Setup(Level.Invocation)
+	public void seed() {
+		
+		start = new SessionStartUpdateWrapper();
+		start.setUser(fixture.getModerator());
+		start.setSession(fixture.seed("start" + seeded++, players, false, new ArrayList<>()));
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() { fixture.close(); }
+	
+	@Benchmark
+	public String startSession() throws BackendException { return sService.startSession(start); }
+}
@@ -0,0 +1,229 @@
+package application.benchmarks;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import application.tools.security.AuthenticatorKey;
+import application.tools.security.Authenticators;
+
+/**
+ * Cost of generating a {@code Token} {@code authenticator}, alone and with four threads logging in at once, and of hashing one into a set.
+ * The {@code legacy} benchmarks keep the generator {@code Token} used before {@code Authenticators} as a baseline
+ *
+ * @author Sean Griffen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+	
+	private static final String[] DETAILS = { "player1234", "password1234" };
+	
+	private String[] authenticators;
+	private Set<String> strings;
+	private Set<AuthenticatorKey> keys;
+	private int next;
+	
+	@Setup
+	public void setup() {
+		
+		authenticators = new String[1024];
+		strings = new HashSet<>();
+		keys = new HashSet<>();
+		for (int i = 0; i < authenticators.length; i++) {
+			
+			authenticators[i] = Authenticators.next();
+			strings.add(authenticators[i]);
+			keys.add(AuthenticatorKey.of(authenticators[i]));
+		}
+	}
+	
+	@Benchmark
+	public String legacy() { return Legacy.generateAuthenticator(DETAILS); }
+	
+	@Benchmark
+	public String secureRandom() { return Authenticators.next(); }
+	
+	@Benchmark
+	@Threads(4)
+	public String legacyContended() { return Legacy.generateAuthenticator(DETAILS); }
+	
+	@Benchmark
+	@Threads(4)
+	public String secureRandomContended() { return Authenticators.next(); }
+	
+	/**
+	 * Looks up a freshly built {@code String}, so its hash is not cached, as for an incoming request
+	 */
+	@Benchmark
+	public boolean lookupString() { return strings.contains(new String(authenticators[next++ & 1023])); }
+	
+	@Benchmark
+	public boolean lookupKey() { return keys.contains(AuthenticatorKey.of(authenticators[next++ & 1023])); }
+	
+	/**
+	 * {@code Token.generateAuthenticator} and its helpers before {@code Authenticators}
+	 */
+	private static class Legacy {
+		
+		/**
+		 * Generates a random {@code authenticator} for the {@code Token}
+		 * @param s
+		 * 		{@code String[]} to base the {@code authenticator} off of
+		 * @return
+		 * 		{@code authenticator} for the {@code Token}
+		 */
+		static String generateAuthenticator(String[] s) {
+			
+			int pow = 0;
+			
+			int parts[] = new int[s.length];
+			for (int i = 0; i < s.length; i++) { parts[i] = stringToInt(s[i]); }
+			
+			if (s.length > 1) {
+				
+				for (int i = 1; i < s.length - 1; i++) { pow += Math.pow(parts[i - 1], parts[i]); }
+			} else { pow = (int) Math.pow(parts[0], 2); }
+			
+			//Get a random int value for the authenticator
+			long keyValue =  pow * randNum(Integer.MAX_VALUE);
+			//Create the random string of characters
+			String authenticator = createAuthenticator(keyValue);
+			while (authenticator.contains("#") || authenticator.contains("%") || authenticator.contains(",") || authenticator.contains("/") || 
+					authenticator.contains("?") || authenticator.contains("[") || authenticator.contains("\\") || authenticator.contains("]") || 
+					authenticator.contains("{") || authenticator.contains("}") || authenticator.contains(";"))
+						{ authenticator = createAuthenticator(keyValue); }
+			//Check the length
+			String prev = authenticator;
+			authenticator = checkAuthenticator(authenticator);
+			while (authenticator.contains("#") || authenticator.contains("%") || authenticator.contains(",") || authenticator.contains("/") || 
+					authenticator.contains("?") || authenticator.contains("[") || authenticator.contains("\\") || authenticator.contains("]") || 
+					authenticator.contains("{") || authenticator.contains("}") || authenticator.contains(";"))
+						{ authenticator = checkAuthenticator(prev); }
+			
+			return authenticator;
+		}
+		
+		/**
+		 * Helper method for {@code generateAuthenticator}. Generates a random {@code int} given a range
+		 * @param range
+		 * 		Range to generate {@code int} between
+		 * @return
+		 * 		Random {@code int}
+		 */
+		private static int randNum(int range) {
+			
+			Random rand = new Random();
+			//Generate random number between 0 (inclusive) and range (exclusive)
+			return rand.nextInt(range);
+		}
+		
+		/**
+		 * Helper method for {@code generateAuthenticator}. Converts a {@code String} to an {@code int}
+		 * @param toInt
+		 * 		{@code String} to convert to int
+		 * @return
+		 * 		{@code int} version of {@code toInt}
+		 */
+		private static int stringToInt(String toInt) {
+			
+			//Convert string to char[]
+			char[] string = toInt.toCharArray();
+			int result = 1;
+			
+			//Convert char[] to a double value
+			for (int i = 0; i < string.length; i++) { result += (int) string[i]; }
+			
+			return result;
+		}
+		
+		/**
+		 * Helper method for {@code generateAuthenticator}. Creates a {@code Token.authenticator} based on an inputed {@code int}
+		 * @param keyInt
+		 * 		{@code int} value of the {@code Token.authenticator}
+		 * @return
+		 * 		{@code Token.authenticator}
+		 */
+		private static String createAuthenticator(long keyInt) {
+			
+			//Convert int to string
+			String keyLength = String.valueOf(keyInt);
+			//Get highest power of 10 in keyInt
+			int power = keyLength.length();
+			
+			String authenticator = "";
+			
+			for (int i = power; i > 0; i--) {
+				
+				//Get number at 10^i
+				int num = (int) ((keyInt % Math.pow(10, i)) / Math.pow(10, i - 1));
+				//ASCII value of character to add to authenticator from 33 to 117 + number at 10^i of keyInt
+				int asciiValue = randNum(85) + 33 + num;
+				//Char to add to authenticator cannot be a period, back slash, question mark, forward slash, left bracket, right bracket, left curly brace, right curly brace, or a percent sign
+				while ( asciiValue == 35 || asciiValue == 37 || asciiValue == 44 || asciiValue == 46 || asciiValue == 47 || asciiValue == 59 || 
+						asciiValue == 63 || asciiValue == 91 || asciiValue == 92 || asciiValue == 93 || asciiValue == 123 || asciiValue == 125)
+							{ asciiValue = randNum(85) + 33 + num; }
+				
+				//Append random character to authenticator
+				authenticator += (char) asciiValue;
+			}
+			authenticator += '.';
+			return authenticator;
+		}
+		
+		/**
+		 * Helper method for {@code generateAuthenticator}. Checks if the {@code Token.authenticator} length is at least 20. If not, appends {@code char}s until it is
+		 * @param authenticator
+		 * 		{@code Token.authenticator} to check
+		 * @return
+		 * 		{@code Token.authenticator} with a length of at least 20
+		 */
+		private static String checkAuthenticator(String authenticator) {
+			
+			//If authenticator.length() is less than to, append characters
+			while (authenticator.length() < 20) {
+				
+				//Generate random ascii value of char
+				int toAdd = randNum(94) + 33;
+				//Char to add to authenticator cannot be a period, back slash, question mark, forward slash, left bracket, right bracket, left curly brace, right curly brace, or a percent
+				while ( toAdd == 35 || toAdd == 37 || toAdd == 44 || toAdd == 46 || toAdd == 47 || toAdd == 59 || toAdd == 63 ||  toAdd == 91 || 
+						toAdd == 92 || toAdd == 93 || toAdd == 123 || toAdd == 125) 
+							{ toAdd = randNum(94) + 33; }
+				
+				authenticator += (char) toAdd;
+			}
+			
+			//If authenticator.length() is not divisible by 10
+			while (authenticator.length() % 10 != 0) {
+				
+				//Generate random ascii value of char
+				int toAdd = randNum(94) + 33;
+				//Char to add to authenticator cannot be a period, back slash, question mark, forward slash, left bracket, right bracket, left curly brace, right curly brace, or a percent
+				while ( toAdd == 35 || toAdd == 37 || toAdd == 44 || toAdd == 46 || toAdd == 47|| toAdd == 59 || toAdd == 63 ||  toAdd == 91 || 
+						toAdd == 92 || toAdd == 93 || toAdd == 123 || toAdd == 125)
+							{ toAdd = randNum(94) + 33; }
+				
+				authenticator += (char) toAdd;
+			}
+			
+			return authenticator;
+		}
+	}
+}
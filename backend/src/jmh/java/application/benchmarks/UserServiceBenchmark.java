@@ -0,0 +1,82 @@
+package application.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import application.exceptions.InvalidTokenException;
+import application.tools.embeddables.Token;
+import application.tools.services.UserService;
+import application.users.UserInterface;
+
+/**
+ * Throughput of the {@code Token} lookup every websocket message and REST call starts with, {@code UserService.getUser}, with {@code players} {@code User}s stored
+ *
+ * @author Sean Griffen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+	
+	/**
+	 * Number of {@code User}s stored
+	 */
+	@Param({ "10", "100", "1000", "10000" })
+	private int players;
+	
+	private BenchmarkFixture fixture;
+	private UserService uService;
+	private Token[] tokens;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		
+		fixture = new BenchmarkFixture(players, false);
+		uService = fixture.getUserService();
+		
+		List<UserInterface> users = fixture.getUsers();
+		tokens = new Token[users.size()];
+		for (int i = 0; i < tokens.length; i++) { tokens[i] = users.get(i).getToken(); }
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() { fixture.close(); }
+	
+	/**
+	 * Per-thread cursor over the stored {@code Token}s, so lookups do not all hit one row
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		
+		private int next;
+	}
+	
+	@Benchmark
+	public UserInterface getUser(Cursor cursor) throws InvalidTokenException {
+		
+		Token t = tokens[cursor.next++ % tokens.length];
+		return uService.getUser(t);
+	}
+	
+	@Benchmark
+	@Threads(4)
+	public UserInterface getUserContended(Cursor cursor) throws InvalidTokenException { return getUser(cursor); }
+}
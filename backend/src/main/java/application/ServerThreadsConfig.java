@@ -0,0 +1,129 @@
+package application;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Threads that Tomcat runs requests on. REST calls and websocket messages to {@code Endpoint} are both dispatched by the connector's
+ * {@code Executor}, so one bounded pool of {@code knockout.requests.threads} workers serves both. Requests past the workers wait in a queue
+ * of {@code knockout.requests.queue-capacity}, and Tomcat drops the connection of any past that instead of letting a burst pile up threads
+ * that would only wait on the {@code spring.datasource.hikari.maximum-pool-size} database connections
+ *
+ * @author Sean Griffen
+ */
+@ConditionalOnWebApplication
+@Configuration
+public class ServerThreadsConfig {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Workers that run requests
+	 */
+	private final int threads;
+	
+	/**
+	 * Requests that may wait for a worker
+	 */
+	private final int queueCapacity;
+	
+	/**
+	 * Executor handed to Tomcat, {@code null} until the connector is customized
+	 */
+	private volatile ThreadPoolExecutor executor;
+	
+	/**
+	 * Logger object
+	 */
+	private static final Logger log = LoggerFactory.getLogger(ServerThreadsConfig.class);
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code ServerThreadsConfig}
+	 * @param threads
+	 * 		Workers that run requests
+	 * @param queueCapacity
+	 * 		Requests that may wait for a worker
+	 */
+	public ServerThreadsConfig(@Value("${knockout.requests.threads:64}") int threads, @Value("${knockout.requests.queue-capacity:512}") int queueCapacity) {
+		
+		this.threads = Math.max(1, threads);
+		this.queueCapacity = Math.max(1, queueCapacity);
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Hands the connector the bounded request executor
+	 * @return
+	 * 		Customizer of the embedded Tomcat
+	 */
+	@Bean
+	public WebServerFactoryCustomizer<TomcatServletWebServerFactory> serverThreads() {
+		
+		return factory -> factory.addConnectorCustomizers(connectorThreads());
+	}
+	
+	/**
+	 * Sets the executor of a single connector
+	 * @return
+	 * 		Customizer of the connector
+	 */
+	public TomcatConnectorCustomizer connectorThreads() {
+		
+		return (Connector connector) -> {
+			
+			executor = requestThreads(threads, queueCapacity);
+			connector.getProtocolHandler().setExecutor(executor);
+			log.info("System: requests run on " + threads + " threads with " + queueCapacity + " queued");
+		};
+	}
+	
+	/**
+	 * Creates a fixed pool of daemon workers with a bounded queue, which rejects tasks once both are full
+	 * @param threads
+	 * 		Number of workers
+	 * @param queueCapacity
+	 * 		Tasks that may wait for a worker
+	 * @return
+	 * 		New executor
+	 */
+	public static ThreadPoolExecutor requestThreads(int threads, int queueCapacity) {
+		
+		TaskQueue queue = new TaskQueue(queueCapacity);
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue, new TaskThreadFactory("request-", true, Thread.NORM_PRIORITY));
+		queue.setParent(pool);
+		return pool;
+	}
+	
+	/**
+	 * Stops the executor handed to Tomcat, which Tomcat does not stop itself
+	 */
+	@PreDestroy
+	public void shutdown() {
+		
+		if (executor != null) { executor.shutdown(); }
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
@@ -59,6 +59,14 @@ public class MainController {
 		return Collections.singletonMap("Result", "Welcome to the backend division of 007:Knockout");
 	}
 	
+	/**
+	 * Second-level cache statistics
+	 * @return
+	 * 		Hit, miss and put counts and size by cache region
+	 */
+	@GetMapping(path = "/cache")
+	public @ResponseBody Map<String, Map<String, Long>> cacheStatistics() { return mService.getCacheStatistics(); }
+	
 	/******************************************************************* END GET MAPPINGS ********************************************************************/
 	
 	/***************************************************************** END MAIN CONTROLLER *******************************************************************/
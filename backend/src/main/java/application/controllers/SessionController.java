@@ -60,7 +60,7 @@ public class SessionController {
 	 */
 	private final Logger log = LoggerFactory.getLogger(MainController.class);
 	
-	Endpoint endpoint = new Endpoint(null, sService);
+	Endpoint endpoint = new Endpoint(null, sService, null, null, null);
 	
 	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
 	
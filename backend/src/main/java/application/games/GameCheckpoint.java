@@ -0,0 +1,67 @@
+package application.games;
+
+import java.util.List;
+
+/**
+ * Snapshot of everything that changed in a {@code GameState} since its last checkpoint
+ *
+ * @author Sean Griffen
+ */
+public class GameCheckpoint {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * {@code id} of the {@code Session}
+	 */
+	private final int sessionId;
+	
+	/**
+	 * Copies of the players that changed
+	 */
+	private final List<PlayerState> players;
+	
+	/**
+	 * Copy of the remaining {@code Item} drops, or {@code null} if they did not change
+	 */
+	private final List<ItemDrop> drops;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code GameCheckpoint}
+	 * @param sessionId
+	 * 		{@code id} of the {@code Session}
+	 * @param players
+	 * 		Copies of the players that changed
+	 * @param drops
+	 * 		Copy of the remaining {@code Item} drops, or {@code null} if they did not change
+	 */
+	public GameCheckpoint(int sessionId, List<PlayerState> players, List<ItemDrop> drops) {
+		
+		this.sessionId = sessionId;
+		this.players = players;
+		this.drops = drops;
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GETTERS/SETTERS *****************************************************************/
+	
+	public int getSessionId() { return sessionId; }
+	
+	public List<PlayerState> getPlayers() { return players; }
+	
+	public List<ItemDrop> getDrops() { return drops; }
+	
+	/**
+	 * Checks if there is anything to write
+	 * @return
+	 * 		{@code true} if nothing changed, {@code false} otherwise
+	 */
+	public boolean isEmpty() { return players.isEmpty() && drops == null; }
+	
+	/****************************************************************** END GETTERS/SETTERS ******************************************************************/
+}
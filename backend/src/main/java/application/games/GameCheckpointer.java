@@ -0,0 +1,172 @@
+package application.games;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import application.items.Item;
+import application.sessions.Session;
+import application.sessions.SessionRepository;
+import application.users.User;
+import application.users.UserInterface;
+import application.users.UserRepository;
+
+/**
+ * Writes the changes of running games in {@code GameEngine} back to the database in the background
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class GameCheckpointer {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * {@code GameEngine} to checkpoint
+	 */
+	private final GameEngine engine;
+	
+	/**
+	 * {@code UserRepository} written to
+	 */
+	private final UserRepository uRepo;
+	
+	/**
+	 * {@code SessionRepository} written to
+	 */
+	private final SessionRepository sRepo;
+	
+	/**
+	 * Runs each checkpoint in one transaction
+	 */
+	private final TransactionTemplate transaction;
+	
+	/**
+	 * Logger object
+	 */
+	private final Logger log = LoggerFactory.getLogger(GameCheckpointer.class);
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code GameCheckpointer}
+	 * @param engine
+	 * 		{@code GameEngine} to checkpoint
+	 * @param uRepo
+	 * 		{@code UserRepository} to write to
+	 * @param sRepo
+	 * 		{@code SessionRepository} to write to
+	 * @param transactionManager
+	 * 		Transaction manager of the database
+	 */
+	public GameCheckpointer(GameEngine engine, UserRepository uRepo, SessionRepository sRepo, PlatformTransactionManager transactionManager) {
+		
+		this.engine = engine;
+		this.uRepo = uRepo;
+		this.sRepo = sRepo;
+		this.transaction = new TransactionTemplate(transactionManager);
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Checkpoints every running game
+	 */
+	@Scheduled(fixedDelayString = "${knockout.games.checkpoint-interval:5000}")
+	public void checkpointAll() {
+		
+		for (GameState game : engine.getGames()) { checkpoint(game); }
+	}
+	
+	/**
+	 * Writes everything that changed in a game since its last checkpoint to the database. If the write fails the changes are kept for the next checkpoint
+	 * @param game
+	 * 		Game to checkpoint
+	 */
+	public void checkpoint(GameState game) {
+		
+		//Taken on the game's Mailbox, written on this thread so the game is not held up by the database
+		GameCheckpoint checkpoint = game.getMailbox().call(game::takeCheckpoint);
+		
+		if (checkpoint.isEmpty()) { return; }
+		
+		try {
+			transaction.execute(status -> {
+				
+				write(checkpoint);
+				return null;
+			});
+		} catch (RuntimeException e) {
+			
+			log.info("Error:  checkpoint of Session #" + checkpoint.getSessionId() + " failed: " + e.getMessage());
+			
+			game.getMailbox().execute(() -> {
+				
+				for (PlayerState p : checkpoint.getPlayers()) { game.markDirty(p.getUserId()); }
+				if (checkpoint.getDrops() != null) { game.markDropsDirty(); }
+			});
+		}
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Applies a checkpoint to the {@code User} and {@code Session} rows. Runs inside a transaction
+	 * @param checkpoint
+	 * 		Changes to write
+	 */
+	private void write(GameCheckpoint checkpoint) {
+		
+		Session session = sRepo.findById(checkpoint.getSessionId()).orElse(null);
+		
+		for (PlayerState p : checkpoint.getPlayers()) {
+			
+			Optional<User> found = uRepo.findById(p.getUserId());
+			if (!found.isPresent()) { continue; }
+			
+			User user = found.get();
+			user.setLocation(p.getLocation());
+			user.setTimeUpdated(p.getTimeUpdated());
+			user.setKills(p.getKills());
+			user.setDeaths(p.getDeaths());
+			user.setLevel(p.getLevel());
+			user.setItems(new HashSet<>(p.getItems()));
+			
+			List<UserInterface> targets = new ArrayList<>();
+			if (p.getTargetId() != -1) { uRepo.findById(p.getTargetId()).ifPresent(targets::add); }
+			user.setTargets(targets);
+			
+			//Eliminated players leave the Session
+			if (!p.isAlive() && session != null) {
+				
+				session.getUsers().removeIf(u -> u.getId() == user.getId());
+				user.getSession().clear();
+			}
+			
+			uRepo.save(user);
+		}
+		
+		if (session != null && checkpoint.getDrops() != null) {
+			
+			session.getILoc().clear();
+			for (ItemDrop d : checkpoint.getDrops()) { session.getILoc().put(d.getLocation(), (Item) d.getItem()); }
+		}
+		if (session != null) { sRepo.save(session); }
+	}
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+}
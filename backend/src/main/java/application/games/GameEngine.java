@@ -0,0 +1,546 @@
+package application.games;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.stereotype.Component;
+
+import application.exceptions.BackendException;
+import application.exceptions.InvalidLocationException;
+import application.exceptions.InvalidUserException;
+import application.items.ItemInterface;
+import application.sessions.SessionInterface;
+import application.tools.embeddables.Location;
+import application.tools.geometry.Distance;
+import application.tools.wrappers.ListMapReturnWrapper;
+import application.users.UserInterface;
+
+/**
+ * Holds the authoritative state of every started {@code Session} in memory, so in-game actions never wait on the database.
+ * Every action on a game runs as a task on the game's {@code Mailbox}, so two taps on one game are resolved one after the other
+ * while other games keep running on the other workers. Changes are written back by {@code GameCheckpointer}.
+ * Players are found by their current {@code Token}, which {@code updateToken} keeps in step with logins and logouts, so actions by an
+ * {@code authenticator} it knows need no other authentication
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class GameEngine {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Running games by {@code Session} {@code Token} {@code authenticator}
+	 */
+	private final Map<String, GameState> games = new ConcurrentHashMap<>();
+	
+	/**
+	 * Running game of each playing {@code User} by {@code id}
+	 */
+	private final Map<Integer, GameState> playerGames = new ConcurrentHashMap<>();
+	
+	/**
+	 * {@code id} of each playing {@code User} by {@code Token} {@code authenticator}
+	 */
+	private final Map<String, Integer> playerIds = new ConcurrentHashMap<>();
+	
+	/**
+	 * Receivers of visibility changes
+	 */
+	private final List<ProximityListener> listeners = new CopyOnWriteArrayList<>();
+	
+	/**
+	 * Workers and {@code Mailbox}es of the games
+	 */
+	private final GameExecutors executors;
+	
+	/**
+	 * Ranks the players of each running game
+	 */
+	private final Leaderboard leaderboard;
+	
+	/**
+	 * Logger object
+	 */
+	private final Logger log = LoggerFactory.getLogger(GameEngine.class);
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code GameEngine}
+	 * @param executors
+	 * 		{@code GameExecutors} whose {@code Mailbox}es run the games
+	 * @param leaderboard
+	 * 		{@code Leaderboard} told about each game's kills
+	 */
+	public GameEngine(GameExecutors executors, Leaderboard leaderboard) {
+		
+		this.executors = executors;
+		this.leaderboard = leaderboard;
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GAME LIFECYCLE ******************************************************************/
+	
+	/**
+	 * Loads a started {@code Session} into the engine. Does nothing if it is already running
+	 * @param session
+	 * 		Started {@code Session} to load
+	 * @return
+	 * 		{@code GameState} of {@code session}
+	 */
+	public GameState start(SessionInterface session) {
+		
+		return games.computeIfAbsent(session.getToken().getAuthenticator(), a -> {
+			
+			GameState game = new GameState(session, executors.game(session.getId()));
+			List<Standing> standings = new ArrayList<>();
+			for (PlayerState p : game.getPlayers()) {
+				
+				playerGames.put(p.getUserId(), game);
+				if (p.getAuthenticator() != null) { playerIds.put(p.getAuthenticator(), p.getUserId()); }
+				standings.add(Standing.of(p));
+			}
+			leaderboard.track(a, standings);
+			return game;
+		});
+	}
+	
+	/**
+	 * Removes a game from the engine. The caller is responsible for a final checkpoint
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @return
+	 * 		Removed {@code GameState}, or {@code null} if it was not running
+	 */
+	public GameState stop(String authenticator) {
+		
+		if (authenticator == null) { return null; }
+		
+		GameState game = games.remove(authenticator);
+		if (game == null) { return null; }
+		
+		leaderboard.forget(authenticator);
+		game.getMailbox().call(() -> {
+			for (PlayerState p : game.getPlayers()) {
+				
+				playerGames.remove(p.getUserId(), game);
+				if (p.getAuthenticator() != null) { playerIds.remove(p.getAuthenticator(), p.getUserId()); }
+			}
+			return null;
+		});
+		return game;
+	}
+	
+	/**
+	 * Gets a running game
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @return
+	 * 		{@code GameState}, or {@code null} if not running
+	 */
+	public GameState find(String authenticator) { return authenticator == null ? null : games.get(authenticator); }
+	
+	/**
+	 * Gets every running game
+	 * @return
+	 * 		{@code Collection} of running {@code GameState}s
+	 */
+	public Collection<GameState> getGames() { return games.values(); }
+	
+	/**
+	 * Follows a playing {@code User}'s {@code Token} change (login or logout)
+	 * @param userId
+	 * 		{@code id} of the {@code User}
+	 * @param authenticator
+	 * 		New {@code authenticator}, or {@code null} if logged out
+	 * @param expiration
+	 * 		New {@code expiration}
+	 */
+	public void updateToken(int userId, String authenticator, long expiration) {
+		
+		GameState game = playerGames.get(userId);
+		if (game == null) { return; }
+		
+		String old = game.getMailbox().call(() -> {
+			
+			PlayerState p = game.getPlayer(userId);
+			String previous = p.getAuthenticator();
+			p.setAuthenticator(authenticator);
+			p.setExpiration(expiration);
+			return previous;
+		});
+		
+		if (old != null) { playerIds.remove(old, userId); }
+		if (authenticator != null) { playerIds.put(authenticator, userId); }
+	}
+	
+	/**
+	 * Registers a receiver of the visibility changes of every running game
+	 * @param listener
+	 * 		{@code ProximityListener} to add
+	 */
+	public void addProximityListener(ProximityListener listener) { listeners.add(listener); }
+	
+	/****************************************************************** END GAME LIFECYCLE *******************************************************************/
+	
+	/***************************************************************** START PLAYER ACTIONS ******************************************************************/
+	
+	/**
+	 * Updates the {@code Location} of a {@code User} if they are playing in a running game
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code User}'s {@code Token}
+	 * @param location
+	 * 		New {@code Location}
+	 * @return
+	 * 		{@code username} of the {@code User}, or {@code null} if they are not in a running game
+	 */
+	public String updateLocation(String authenticator, Location location) {
+		
+		GameState game = findByPlayer(authenticator);
+		if (game == null) { return null; }
+		
+		Map<Integer, VisibilityDelta> deltas = new HashMap<>();
+		String username = game.getMailbox().call(() -> {
+			
+			PlayerState p = player(game, authenticator);
+			if (p == null) { return null; }
+			
+			game.movePlayer(p, location);
+			Proximity.moved(game, p, deltas);
+			game.markDirty(p.getUserId());
+			return p.getUsername();
+		});
+		
+		publish(deltas);
+		return username;
+	}
+	
+	/**
+	 * Updates the {@code timeUpdated} of a {@code User} if they are playing in a running game
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code User}'s {@code Token}
+	 * @param timeUpdated
+	 * 		New {@code timeUpdated}
+	 * @return
+	 * 		{@code true} if updated, {@code false} if they are not in a running game
+	 */
+	public boolean touch(String authenticator, long timeUpdated) {
+		
+		GameState game = findByPlayer(authenticator);
+		if (game == null) { return false; }
+		
+		return game.getMailbox().call(() -> {
+			
+			PlayerState p = player(game, authenticator);
+			if (p == null) { return false; }
+			
+			p.setTimeUpdated(timeUpdated);
+			game.markDirty(p.getUserId());
+			return true;
+		});
+	}
+	
+	/**
+	 * Gets the {@code User}s and {@code Item}s inside the view radius of a player
+	 * @param game
+	 * 		Game to look in
+	 * @param authenticator
+	 * 		{@code authenticator} of the viewing {@code User}'s {@code Token}
+	 * @return
+	 * 		See {@code ListMapReturnWrapper}. {@code User}s are detached snapshots
+	 * @throws InvalidUserException
+	 * 		Throws if the {@code User} is not playing in {@code game}
+	 */
+	public ListMapReturnWrapper<UserInterface, Location, ItemInterface> getOnTap(GameState game, String authenticator) throws InvalidUserException {
+		
+		return game.getMailbox().call(() -> {
+			
+			PlayerState viewer = alivePlayer(game, authenticator);
+			
+			double view = viewer.getViewRadius();
+			
+			List<UserInterface> users = new ArrayList<>();
+			game.forEachPlayerNear(viewer.getLatitude(), viewer.getLongitude(), view, p -> {
+				
+				if (p != viewer && within(viewer, p.getLatitude(), p.getLongitude(), view)) { users.add(p.toUser()); }
+			});
+			
+			Map<Location, ItemInterface> items = new HashMap<>();
+			game.forEachDropNear(viewer.getLatitude(), viewer.getLongitude(), view, d -> {
+				
+				if (within(viewer, d.getLatitude(), d.getLongitude(), view)) { items.put(d.getLocation(), d.getItem()); }
+			});
+			
+			return new ListMapReturnWrapper<UserInterface, Location, ItemInterface>(users, items);
+		});
+	}
+	
+	/**
+	 * Resolves a tap: eliminates the tapper's {@code target} if in reach, otherwise picks up the closest {@code Item} in reach
+	 * @param game
+	 * 		Game the tap happened in
+	 * @param authenticator
+	 * 		{@code authenticator} of the tapping {@code User}'s {@code Token}
+	 * @param tapped
+	 * 		{@code Location} that was tapped
+	 * @return
+	 * 		{@code 1} if the tap won the game, {@code 2} if an {@code Item} was picked up, {@code 0} if the {@code target} was eliminated
+	 * @throws InvalidUserException
+	 * 		Throws if the {@code User} is not playing in {@code game}
+	 * @throws InvalidLocationException
+	 * 		Throws if {@code tapped} is outside the kill radius, or nothing was in reach
+	 */
+	public int tap(GameState game, String authenticator, Location tapped) throws InvalidUserException, InvalidLocationException {
+		
+		Map<Integer, VisibilityDelta> deltas = new HashMap<>();
+		try {
+			return game.getMailbox().call(() -> tap(game, authenticator, tapped, deltas));
+		} catch (InvalidUserException | InvalidLocationException e) {
+			throw e;
+		} catch (BackendException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			publish(deltas);
+		}
+	}
+	
+	/**
+	 * Body of {@code tap}, collecting the visibility changes it causes. Runs on the game's {@code Mailbox}
+	 */
+	private int tap(GameState game, String authenticator, Location tapped, Map<Integer, VisibilityDelta> deltas) throws InvalidUserException, InvalidLocationException {
+		
+		PlayerState tapper = alivePlayer(game, authenticator);
+		
+		if (!within(tapper, tapped.getLatitude(), tapped.getLongitude(), tapper.getKillRadius() / (tapper.getKillRadius() / tapper.getAccuracy())))
+			{ throw new InvalidLocationException("Tapped outside of kill radius"); }
+		
+		PlayerState target = game.getPlayer(tapper.getTargetId());
+		if (target != null && target != tapper && target.isAlive() && inReach(tapper, target.getLatitude(), target.getLongitude(), target.getAccuracy())) {
+			
+			killConfirmed(game, tapper, target);
+			Proximity.removed(game, target, deltas);
+			return game.countAlive() == 1 ? 1 : 0;
+		}
+		
+		//No drop can be further than this, whatever its accuracy
+		double maxReach = tapper.getKillRadius() * tapper.getKillRadius() * tapper.getAccuracy() * 2.718282;
+		
+		List<ItemDrop> candidates = new ArrayList<>();
+		game.forEachDropNear(tapper.getLatitude(), tapper.getLongitude(), maxReach, candidates::add);
+		
+		ItemDrop closest = null;
+		double best = Double.MAX_VALUE;
+		for (ItemDrop d : candidates) {
+			
+			if (inReach(tapper, d.getLatitude(), d.getLongitude(), d.getAccuracy())) {
+				
+				double toTap = Location.getDistance(tapped.getLatitude(), tapped.getLongitude(), d.getLatitude(), d.getLongitude());
+				if (toTap < best) {
+					
+					best = toTap;
+					closest = d;
+				}
+			}
+		}
+		if (closest == null) { throw new InvalidLocationException("Target not located"); }
+		
+		tapper.addItem(closest.getItem());
+		game.removeDrop(closest);
+		//A view buff changes what the tapper sees
+		Proximity.moved(game, tapper, deltas);
+		game.markDirty(tapper.getUserId());
+		game.markDropsDirty();
+		
+		return game.countAlive() == 1 ? 1 : 2;
+	}
+	
+	/**
+	 * Gets every player still alive in a game
+	 * @param game
+	 * 		Game to look in
+	 * @return
+	 * 		Detached snapshot {@code User}s
+	 */
+	public List<UserInterface> getPlayers(GameState game) {
+		
+		return game.getMailbox().call(() -> {
+			
+			List<UserInterface> result = new ArrayList<>();
+			for (PlayerState p : game.getPlayers()) { if (p.isAlive()) { result.add(p.toUser()); } }
+			return result;
+		});
+	}
+	
+	/**
+	 * Gets every player still alive and inside the play area of a game
+	 * @param game
+	 * 		Game to look in
+	 * @return
+	 * 		Detached snapshot {@code User}s
+	 */
+	public List<UserInterface> getPlayersInPlayArea(GameState game) {
+		
+		return game.getMailbox().call(() -> {
+			
+			Location center = game.getCenter();
+			
+			List<UserInterface> result = new ArrayList<>();
+			game.forEachPlayerNear(center.getLatitude(), center.getLongitude(), game.getRadius(), p -> {
+				
+				if (game.inPlayArea(p.getLatitude(), p.getLongitude())) { result.add(p.toUser()); }
+			});
+			return result;
+		});
+	}
+	
+	/****************************************************************** END PLAYER ACTIONS *******************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Gets the running game of a playing {@code User}
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code User}'s {@code Token}
+	 * @return
+	 * 		{@code GameState}, or {@code null} if not in a running game
+	 */
+	private GameState findByPlayer(String authenticator) {
+		
+		if (authenticator == null) { return null; }
+		
+		Integer id = playerIds.get(authenticator);
+		return id == null ? null : playerGames.get(id);
+	}
+	
+	/**
+	 * Gets a player, eliminated or not. Must run on the game's {@code Mailbox}
+	 * @param game
+	 * 		Game to look in
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code User}'s {@code Token}
+	 * @return
+	 * 		{@code PlayerState} of the {@code User}, or {@code null} if not in {@code game} or their {@code Token} has expired
+	 */
+	private PlayerState player(GameState game, String authenticator) {
+		
+		Integer id = authenticator == null ? null : playerIds.get(authenticator);
+		PlayerState p = id == null ? null : game.getPlayer(id);
+		return p == null || p.getExpiration() < System.currentTimeMillis() ? null : p;
+	}
+	
+	/**
+	 * Gets a player that has not been eliminated. Must run on the game's {@code Mailbox}
+	 * @param game
+	 * 		Game to look in
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code User}'s {@code Token}
+	 * @return
+	 * 		{@code PlayerState} of the {@code User}
+	 * @throws InvalidUserException
+	 * 		Throws if the {@code User} is not alive in {@code game}
+	 */
+	private PlayerState alivePlayer(GameState game, String authenticator) throws InvalidUserException {
+		
+		PlayerState p = player(game, authenticator);
+		
+		if (p == null || !p.isAlive()) { throw new InvalidUserException("User does not exist in Session #" + game.getSessionId()); }
+		return p;
+	}
+	
+	/**
+	 * Exchanges {@code target}s and updates stats when a player eliminates their {@code target}. Must run on the game's {@code Mailbox}
+	 * @param game
+	 * 		Game this happened in
+	 * @param tapper
+	 * 		Player who eliminated their {@code target}
+	 * @param tapped
+	 * 		Player who was eliminated
+	 */
+	private void killConfirmed(GameState game, PlayerState tapper, PlayerState tapped) {
+		
+		//Exchange targets
+		tapper.setTargetId(tapped.getTargetId());
+		tapped.setTargetId(-1);
+		
+		//Update kills and deaths
+		tapper.setKills(tapper.getKills() + 1);
+		tapped.setDeaths(tapped.getDeaths() + 1);
+		game.eliminate(tapped);
+		
+		//Increase level if won
+		if (tapper.getTargetId() == tapper.getUserId()) { tapper.setLevel(tapper.getLevel() + 1); }
+		
+		game.markDirty(tapper.getUserId());
+		game.markDirty(tapped.getUserId());
+		
+		leaderboard.update(Standing.of(tapper));
+		leaderboard.update(Standing.of(tapped));
+	}
+	
+	/**
+	 * Checks if a point is within {@code radius} meters of a player, comparing squared distances
+	 */
+	static boolean within(PlayerState p, double latitude, double longitude, double radius) {
+		
+		return Distance.within(p.getLatitude(), p.getLongitude(), latitude, longitude, radius);
+	}
+	
+	/**
+	 * Checks if a point is within the accuracy-weighted kill reach of a player
+	 * @param tapper
+	 * 		Player reaching
+	 * @param latitude
+	 * 		Latitude of the point
+	 * @param longitude
+	 * 		Longitude of the point
+	 * @param accuracy
+	 * 		Accuracy of the point
+	 * @return
+	 * 		{@code true} if in reach, {@code false} otherwise
+	 */
+	private static boolean inReach(PlayerState tapper, double latitude, double longitude, int accuracy) {
+		
+		double killRadius = tapper.getKillRadius();
+		double reach = killRadius * (killRadius * (Math.exp(((double) tapper.getAccuracy() / accuracy) * -1) * Math.min(tapper.getAccuracy(), accuracy) * 2.718282));
+		
+		return within(tapper, latitude, longitude, reach);
+	}
+	
+	/**
+	 * Hands visibility changes to the listeners. Called after the game's task finished, so listeners never run on a {@code Mailbox}
+	 * @param deltas
+	 * 		Changes by viewer {@code id}
+	 */
+	private void publish(Map<Integer, VisibilityDelta> deltas) {
+		
+		if (deltas.isEmpty() || listeners.isEmpty()) { return; }
+		
+		List<VisibilityDelta> changed = new ArrayList<>(deltas.size());
+		for (VisibilityDelta d : deltas.values()) { if (!d.isEmpty()) { changed.add(d); } }
+		if (changed.isEmpty()) { return; }
+		
+		for (ProximityListener l : listeners) {
+			
+			try {
+				l.visibilityChanged(Collections.unmodifiableList(changed));
+			} catch (RuntimeException e) {
+				log.info("Error:  proximity listener failed: " + e.getMessage());
+			}
+		}
+	}
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+}
@@ -0,0 +1,135 @@
+package application.games;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Worker pools shared by every {@code Session}, and the {@code Mailbox}es that each {@code Session}'s mutations go through.
+ * Work for one {@code Session} runs one task at a time without locks, and {@code Session}s run in parallel up to the number of workers.
+ * A running game's {@code Mailbox} only touches memory, so callers may wait on it from inside a transaction. Roster changes read and write
+ * the database, so they get their own {@code Mailbox} and workers, and callers must not hold a database connection while waiting on one
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class GameExecutors {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Workers of running games, one per processor by default
+	 */
+	private final ExecutorService gameWorkers;
+	
+	/**
+	 * Workers of roster changes, which block on the database
+	 */
+	private final ExecutorService rosterWorkers;
+	
+	/**
+	 * {@code Mailbox} of each running game by {@code Session} {@code id}
+	 */
+	private final Map<Integer, Mailbox> games = new ConcurrentHashMap<>();
+	
+	/**
+	 * {@code Mailbox} of each {@code Session}'s roster by {@code id}
+	 */
+	private final Map<Integer, Mailbox> rosters = new ConcurrentHashMap<>();
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code GameExecutors}
+	 * @param gameThreads
+	 * 		Number of game workers, or {@code 0} for one per available processor
+	 * @param rosterThreads
+	 * 		Number of roster workers. Each holds one database connection while it runs a task, so a slow task stalls only its own {@code Session}
+	 * 		until every worker is stalled. Keep it well below the database connection pool size so requests still get connections
+	 */
+	public GameExecutors(@Value("${knockout.games.workers:0}") int gameThreads, @Value("${knockout.games.roster-workers:8}") int rosterThreads) {
+		
+		gameWorkers = pool(gameThreads > 0 ? gameThreads : Runtime.getRuntime().availableProcessors(), "game-worker-");
+		rosterWorkers = pool(Math.max(1, rosterThreads), "roster-worker-");
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Gets the {@code Mailbox} of a {@code Session}'s running game, creating it on first use. Its tasks must not touch the database
+	 * @param sessionId
+	 * 		{@code id} of the {@code Session}
+	 * @return
+	 * 		{@code Mailbox} of the game
+	 */
+	public Mailbox game(int sessionId) { return games.computeIfAbsent(sessionId, id -> new Mailbox(gameWorkers)); }
+	
+	/**
+	 * Gets the {@code Mailbox} of a {@code Session}'s roster, creating it on first use
+	 * @param sessionId
+	 * 		{@code id} of the {@code Session}
+	 * @return
+	 * 		{@code Mailbox} of the roster
+	 */
+	public Mailbox roster(int sessionId) { return rosters.computeIfAbsent(sessionId, id -> new Mailbox(rosterWorkers)); }
+	
+	/**
+	 * Forgets the {@code Mailbox}es of a deleted {@code Session}. Tasks already queued on them still run
+	 * @param sessionId
+	 * 		{@code id} of the {@code Session}
+	 */
+	public void retire(int sessionId) {
+		
+		games.remove(sessionId);
+		rosters.remove(sessionId);
+	}
+	
+	/**
+	 * Stops the workers with the application
+	 */
+	@PreDestroy
+	public void shutdown() {
+		
+		gameWorkers.shutdown();
+		rosterWorkers.shutdown();
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Creates a fixed pool of daemon workers
+	 * @param size
+	 * 		Number of workers
+	 * @param name
+	 * 		Prefix of the workers' names
+	 * @return
+	 * 		New pool
+	 */
+	private static ExecutorService pool(int size, String name) {
+		
+		AtomicInteger count = new AtomicInteger();
+		return new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+			
+			Thread t = new Thread(r, name + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+}
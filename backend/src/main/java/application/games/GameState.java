@@ -0,0 +1,328 @@
+package application.games;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import application.items.Item;
+import application.sessions.SessionInterface;
+import application.tools.embeddables.Location;
+import application.tools.geometry.Distance;
+import application.users.UserInterface;
+
+/**
+ * Authoritative in-memory state of a started {@code Session}.
+ * A {@code GameState} has a single writer: every read or write runs as a task on its {@code Mailbox}
+ *
+ * @author Sean Griffen
+ */
+public class GameState {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Side length in meters of the cells of the {@code SpatialGrid}s. Close to the default view radius so a view query touches few cells
+	 */
+	public static final double CELL_SIZE = 25.0;
+	
+	/**
+	 * {@code id} of the {@code Session}
+	 */
+	private final int sessionId;
+	
+	/**
+	 * {@code name} of the {@code Session}
+	 */
+	private final String name;
+	
+	/**
+	 * {@code authenticator} of the {@code Session}'s {@code Token}
+	 */
+	private final String authenticator;
+	
+	/**
+	 * Runs every read and write of this {@code GameState}
+	 */
+	private final Mailbox mailbox;
+	
+	/**
+	 * Center of the {@code Session}'s play area
+	 */
+	private final Location center;
+	
+	/**
+	 * Radius of the {@code Session}'s play area
+	 */
+	private final double radius;
+	
+	/**
+	 * Players in the game by {@code User} {@code id}, in the order of the {@code Session}'s users
+	 */
+	private final Map<Integer, PlayerState> players;
+	
+	/**
+	 * Number of {@code players}. The roster is fixed when the game starts, so this is final and safe to read from any thread
+	 */
+	private final int playerCount;
+	
+	/**
+	 * {@code Item}s on the map that have not been picked up
+	 */
+	private final List<ItemDrop> drops;
+	
+	/**
+	 * Players still alive, bucketed by {@code Location}
+	 */
+	private final SpatialGrid<PlayerState> playerGrid;
+	
+	/**
+	 * {@code drops}, bucketed by {@code Location}
+	 */
+	private final SpatialGrid<ItemDrop> dropGrid;
+	
+	/**
+	 * {@code id}s of players changed since the last checkpoint
+	 */
+	private Set<Integer> dirtyPlayers;
+	
+	/**
+	 * {@code true} if {@code drops} changed since the last checkpoint
+	 */
+	private boolean dropsDirty;
+	
+	/**
+	 * Largest view radius of any player so far. Bounds the search for players that might see a mover
+	 */
+	private double maxViewRadius;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Copies the state of a started {@code Session} entity
+	 * @param session
+	 * 		{@code Session} to copy
+	 * @param mailbox
+	 * 		{@code Mailbox} of the {@code Session}
+	 */
+	public GameState(SessionInterface session, Mailbox mailbox) {
+		
+		this.mailbox = mailbox;
+		sessionId = session.getId();
+		name = session.getName();
+		authenticator = session.getToken().getAuthenticator();
+		center = new Location(session.getCenter().getLatitude(), session.getCenter().getLongitude(), session.getCenter().getAccuracy());
+		radius = session.getRadius();
+		
+		playerGrid = new SpatialGrid<>(center, CELL_SIZE);
+		dropGrid = new SpatialGrid<>(center, CELL_SIZE);
+		
+		players = new LinkedHashMap<>();
+		for (UserInterface u : session.getUsers()) {
+			
+			PlayerState p = new PlayerState(u);
+			players.put(u.getId(), p);
+			playerGrid.put(p, p.getLatitude(), p.getLongitude());
+		}
+		playerCount = players.size();
+		
+		drops = new ArrayList<>();
+		for (Entry<Location, Item> e : session.getILoc().entrySet()) {
+			
+			ItemDrop d = new ItemDrop(e.getValue(), e.getKey());
+			drops.add(d);
+			dropGrid.put(d, d.getLatitude(), d.getLongitude());
+		}
+		
+		dirtyPlayers = new HashSet<>();
+		dropsDirty = false;
+		
+		Proximity.refreshAll(this);
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GETTERS/SETTERS *****************************************************************/
+	
+	public int getSessionId() { return sessionId; }
+	
+	public String getName() { return name; }
+	
+	public String getAuthenticator() { return authenticator; }
+	
+	public Mailbox getMailbox() { return mailbox; }
+	
+	public Location getCenter() { return center; }
+	
+	public double getRadius() { return radius; }
+	
+	public double getMaxViewRadius() { return maxViewRadius; }
+	
+	/**
+	 * Gets a player by {@code User} {@code id}
+	 * @param userId
+	 * 		{@code id} of the {@code User}
+	 * @return
+	 * 		{@code PlayerState} of the {@code User}, or {@code null} if not in this game
+	 */
+	public PlayerState getPlayer(int userId) { return players.get(userId); }
+	
+	/**
+	 * Gets every player, including eliminated ones
+	 * @return
+	 * 		{@code Collection} of all {@code PlayerState}s
+	 */
+	public Collection<PlayerState> getPlayers() { return players.values(); }
+	
+	/**
+	 * Gets the number of players, including eliminated ones. Unlike the rest of a {@code GameState}, safe to call outside its {@code Mailbox}
+	 * @return
+	 * 		Number of players
+	 */
+	public int getPlayerCount() { return playerCount; }
+	
+	public List<ItemDrop> getDrops() { return drops; }
+	
+	/****************************************************************** END GETTERS/SETTERS ******************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Counts the players that have not been eliminated
+	 * @return
+	 * 		Number of players still alive
+	 */
+	public int countAlive() {
+		
+		int alive = 0;
+		for (PlayerState p : players.values()) { if (p.isAlive()) { alive++; } }
+		return alive;
+	}
+	
+	/**
+	 * Checks if a {@code Location} is inside the play area
+	 * @param latitude
+	 * 		Latitude to check
+	 * @param longitude
+	 * 		Longitude to check
+	 * @return
+	 * 		{@code true} if inside, {@code false} otherwise
+	 */
+	public boolean inPlayArea(double latitude, double longitude) {
+		
+		return Distance.within(center.getLatitude(), center.getLongitude(), latitude, longitude, radius);
+	}
+	
+	/**
+	 * Moves a player, keeping the player grid in sync
+	 * @param p
+	 * 		Player to move
+	 * @param location
+	 * 		New {@code Location}
+	 */
+	public void movePlayer(PlayerState p, Location location) {
+		
+		p.setLocation(location);
+		if (p.isAlive()) { playerGrid.put(p, p.getLatitude(), p.getLongitude()); }
+	}
+	
+	/**
+	 * Eliminates a player, taking them off the player grid
+	 * @param p
+	 * 		Player to eliminate
+	 */
+	public void eliminate(PlayerState p) {
+		
+		p.setAlive(false);
+		playerGrid.remove(p);
+	}
+	
+	/**
+	 * Removes a picked up {@code Item} from the map
+	 * @param d
+	 * 		Drop to remove
+	 */
+	public void removeDrop(ItemDrop d) {
+		
+		drops.remove(d);
+		dropGrid.remove(d);
+	}
+	
+	/**
+	 * Passes every living player in the grid cells overlapping a circle to {@code action}. Players outside the circle may be included
+	 * @param latitude
+	 * 		Latitude of the center
+	 * @param longitude
+	 * 		Longitude of the center
+	 * @param radius
+	 * 		Radius in meters
+	 * @param action
+	 * 		Called once per candidate player
+	 */
+	public void forEachPlayerNear(double latitude, double longitude, double radius, Consumer<PlayerState> action) {
+		
+		playerGrid.forEachNear(latitude, longitude, radius, action);
+	}
+	
+	/**
+	 * Passes every {@code Item} drop in the grid cells overlapping a circle to {@code action}. Drops outside the circle may be included
+	 * @param latitude
+	 * 		Latitude of the center
+	 * @param longitude
+	 * 		Longitude of the center
+	 * @param radius
+	 * 		Radius in meters
+	 * @param action
+	 * 		Called once per candidate drop
+	 */
+	public void forEachDropNear(double latitude, double longitude, double radius, Consumer<ItemDrop> action) {
+		
+		dropGrid.forEachNear(latitude, longitude, radius, action);
+	}
+	
+	/**
+	 * Widens {@code maxViewRadius} if a player's view radius exceeds it
+	 * @param viewRadius
+	 * 		View radius of a player
+	 */
+	public void noteViewRadius(double viewRadius) { if (viewRadius > maxViewRadius) { maxViewRadius = viewRadius; } }
+	
+	/**
+	 * Marks a player as changed since the last checkpoint
+	 * @param userId
+	 * 		{@code id} of the player's {@code User}
+	 */
+	public void markDirty(int userId) { dirtyPlayers.add(userId); }
+	
+	/**
+	 * Marks the {@code Item} drops as changed since the last checkpoint
+	 */
+	public void markDropsDirty() { dropsDirty = true; }
+	
+	/**
+	 * Copies everything changed since the last checkpoint, and clears the changes
+	 * @return
+	 * 		Snapshot of the changed state
+	 */
+	public GameCheckpoint takeCheckpoint() {
+		
+		List<PlayerState> changed = new ArrayList<>(dirtyPlayers.size());
+		for (Integer id : dirtyPlayers) { changed.add(new PlayerState(players.get(id))); }
+		
+		List<ItemDrop> dropsCopy = dropsDirty ? new ArrayList<>(drops) : null;
+		
+		dirtyPlayers = new HashSet<>();
+		dropsDirty = false;
+		
+		return new GameCheckpoint(sessionId, changed, dropsCopy);
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
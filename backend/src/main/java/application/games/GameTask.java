@@ -0,0 +1,19 @@
+package application.games;
+
+/**
+ * Work handed to a {@code Mailbox}, which may throw one checked {@code Exception} back to the caller
+ *
+ * @author Sean Griffen
+ */
+@FunctionalInterface
+public interface GameTask<T, E extends Exception> {
+	
+	/**
+	 * Runs the task on the {@code Mailbox}'s worker
+	 * @return
+	 * 		Result handed back to the caller
+	 * @throws E
+	 * 		Rethrown to the caller
+	 */
+	public T run() throws E;
+}
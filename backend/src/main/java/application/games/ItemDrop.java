@@ -0,0 +1,72 @@
+package application.games;
+
+import application.items.ItemInterface;
+import application.tools.embeddables.Location;
+
+/**
+ * An {@code Item} lying on the map of a running {@code GameState}, waiting to be picked up
+ *
+ * @author Sean Griffen
+ */
+public class ItemDrop {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * {@code Item} at this drop
+	 */
+	private final ItemInterface item;
+	
+	/**
+	 * Latitude component of the drop's {@code Location}
+	 */
+	private final double latitude;
+	
+	/**
+	 * Longitude component of the drop's {@code Location}
+	 */
+	private final double longitude;
+	
+	/**
+	 * Accuracy component of the drop's {@code Location}
+	 */
+	private final int accuracy;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs an {@code ItemDrop} of {@code item} at {@code location}
+	 * @param item
+	 * 		{@code Item} at the drop
+	 * @param location
+	 * 		{@code Location} of the drop
+	 */
+	public ItemDrop(ItemInterface item, Location location) {
+		
+		this.item = item;
+		this.latitude = location.getLatitude();
+		this.longitude = location.getLongitude();
+		this.accuracy = location.getAccuracy();
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GETTERS/SETTERS *****************************************************************/
+	
+	public ItemInterface getItem() { return item; }
+	
+	public double getLatitude() { return latitude; }
+	public double getLongitude() { return longitude; }
+	public int getAccuracy() { return accuracy; }
+	
+	/**
+	 * Gets the {@code Location} of the drop
+	 * @return
+	 * 		New {@code Location} with the drop's components
+	 */
+	public Location getLocation() { return new Location(latitude, longitude, accuracy); }
+	
+	/****************************************************************** END GETTERS/SETTERS ******************************************************************/
+}
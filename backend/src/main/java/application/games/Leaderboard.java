@@ -0,0 +1,302 @@
+package application.games;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import application.users.UserRepository;
+import application.users.UserStanding;
+
+/**
+ * Rankings of every {@code User} and of the players of each tracked {@code Session}, kept sorted as {@code Standing}s change
+ * so top-N and rank-of-user queries never read the database. Each ranking is a {@code RankTree}, so a change, a rank and a lookup by rank are O(log n).
+ * The global ranking is read once when the application is ready. A {@code Session}'s ranking is tracked from when its game starts,
+ * or from the first time it is asked for, until it is forgotten. {@code LeaderboardListener}s hear about every change to a tracked {@code Session}
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class Leaderboard {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Read for the global ranking
+	 */
+	private final UserRepository uRepo;
+	
+	/**
+	 * Every {@code User}
+	 */
+	private final Board global = new Board();
+	
+	/**
+	 * Players of each tracked {@code Session} by {@code Token} {@code authenticator}
+	 */
+	private final Map<String, Board> sessions = new ConcurrentHashMap<>();
+	
+	/**
+	 * Told about changes to tracked {@code Session}s
+	 */
+	private final List<LeaderboardListener> listeners = new CopyOnWriteArrayList<>();
+	
+	/**
+	 * Logger object
+	 */
+	private final Logger log = LoggerFactory.getLogger(Leaderboard.class);
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code Leaderboard}
+	 * @param uRepo
+	 * 		{@code UserRepository} to read the global ranking from
+	 */
+	public Leaderboard(UserRepository uRepo) { this.uRepo = uRepo; }
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START TRACKING METHODS ****************************************************************/
+	
+	/**
+	 * Reads the global ranking from the database
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() { global.reset(uRepo.findAllStandings()); }
+	
+	/**
+	 * Registers a listener of ranking changes
+	 * @param listener
+	 * 		Listener to add
+	 */
+	public void addListener(LeaderboardListener listener) { listeners.add(listener); }
+	
+	/**
+	 * Starts, or restarts, tracking the ranking of a {@code Session}
+	 * @param session
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @param players
+	 * 		Every player of the {@code Session}
+	 */
+	public void track(String session, Collection<? extends UserStanding> players) {
+		
+		Board board = new Board();
+		board.reset(players);
+		sessions.put(session, board);
+		changed(session, board);
+	}
+	
+	/**
+	 * Checks if the ranking of a {@code Session} is tracked
+	 * @param session
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @return
+	 * 		{@code true} if tracked
+	 */
+	public boolean isTracked(String session) { return session != null && sessions.containsKey(session); }
+	
+	/**
+	 * Stops tracking the ranking of a {@code Session}
+	 * @param session
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 */
+	public void forget(String session) { if (session != null) { sessions.remove(session); } }
+	
+	/****************************************************************** END TRACKING METHODS *****************************************************************/
+	
+	/****************************************************************** START UPDATE METHODS *****************************************************************/
+	
+	/**
+	 * Adds a player to a tracked {@code Session}. Does nothing if the {@code Session} is not tracked
+	 * @param session
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @param player
+	 * 		Player that joined
+	 */
+	public void join(String session, UserStanding player) {
+		
+		Board board = session == null ? null : sessions.get(session);
+		if (board != null && board.put(Standing.of(player), true)) { changed(session, board); }
+	}
+	
+	/**
+	 * Removes a player from a tracked {@code Session}. Does nothing if the {@code Session} is not tracked
+	 * @param session
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @param userId
+	 * 		{@code id} of the player that left
+	 */
+	public void leave(String session, int userId) {
+		
+		Board board = session == null ? null : sessions.get(session);
+		if (board != null && board.remove(userId)) { changed(session, board); }
+	}
+	
+	/**
+	 * Records new stats of a {@code User} in the global ranking and in every tracked {@code Session} they are in
+	 * @param user
+	 * 		{@code User} whose {@code kills}, {@code deaths} or {@code level} changed
+	 */
+	public void update(UserStanding user) {
+		
+		Standing s = Standing.of(user);
+		global.put(s, true);
+		for (Map.Entry<String, Board> e : sessions.entrySet()) {
+			if (e.getValue().put(s, false)) { changed(e.getKey(), e.getValue()); }
+		}
+	}
+	
+	/**
+	 * Removes a deleted {@code User} from every ranking
+	 * @param userId
+	 * 		{@code id} of the {@code User}
+	 */
+	public void remove(int userId) {
+		
+		global.remove(userId);
+		for (Map.Entry<String, Board> e : sessions.entrySet()) {
+			if (e.getValue().remove(userId)) { changed(e.getKey(), e.getValue()); }
+		}
+	}
+	
+	/******************************************************************* END UPDATE METHODS ******************************************************************/
+	
+	/****************************************************************** START QUERY METHODS ******************************************************************/
+	
+	/**
+	 * Gets the best players of a tracked {@code Session}
+	 * @param session
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @param count
+	 * 		Most players to get
+	 * @return
+	 * 		Up to {@code count} {@code Standing}s, rank 0 first, or {@code null} if the {@code Session} is not tracked
+	 */
+	public List<Standing> top(String session, int count) {
+		
+		Board board = session == null ? null : sessions.get(session);
+		return board == null ? null : board.top(count);
+	}
+	
+	/**
+	 * Gets the rank of a player in a tracked {@code Session}
+	 * @param session
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @param userId
+	 * 		{@code id} of the player
+	 * @return
+	 * 		Number of players ranked above them, or {@code -1} if the {@code Session} is not tracked or they are not in it
+	 */
+	public int rank(String session, int userId) {
+		
+		Board board = session == null ? null : sessions.get(session);
+		return board == null ? -1 : board.rank(userId);
+	}
+	
+	/**
+	 * Gets the best {@code User}s
+	 * @param count
+	 * 		Most {@code User}s to get
+	 * @return
+	 * 		Up to {@code count} {@code Standing}s, rank 0 first
+	 */
+	public List<Standing> topGlobal(int count) { return global.top(count); }
+	
+	/**
+	 * Gets the global rank of a {@code User}
+	 * @param userId
+	 * 		{@code id} of the {@code User}
+	 * @return
+	 * 		Number of {@code User}s ranked above them, or {@code -1} if unknown
+	 */
+	public int globalRank(int userId) { return global.rank(userId); }
+	
+	/******************************************************************* END QUERY METHODS *******************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Tells the listeners about a {@code Session}'s new ranking
+	 * @param session
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @param board
+	 * 		Ranking of the {@code Session}
+	 */
+	private void changed(String session, Board board) {
+		
+		if (listeners.isEmpty()) { return; }
+		
+		List<Standing> standings = board.top(Integer.MAX_VALUE);
+		for (LeaderboardListener l : listeners) {
+			
+			try {
+				l.ranksChanged(session, standings);
+			} catch (RuntimeException e) {
+				log.info("Error:  leaderboard listener failed: " + e.getMessage());
+			}
+		}
+	}
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+	
+	/**
+	 * One ranking with the current {@code Standing} of each of its {@code User}s. Every method holds the {@code Board}'s monitor
+	 */
+	private static class Board {
+		
+		private RankTree<Standing> ranks = new RankTree<>(Standing.ORDER);
+		private final Map<Integer, Standing> byUser = new HashMap<>();
+		
+		private synchronized void reset(Collection<? extends UserStanding> users) {
+			
+			ranks = new RankTree<>(Standing.ORDER);
+			byUser.clear();
+			for (UserStanding u : users) { put(Standing.of(u), true); }
+		}
+		
+		/**
+		 * Replaces a {@code User}'s {@code Standing}, adding them if {@code add} is {@code true}
+		 * @return
+		 * 		{@code true} if the ranking changed
+		 */
+		private synchronized boolean put(Standing s, boolean add) {
+			
+			Standing old = byUser.get(s.getId());
+			if (old == null && !add) { return false; }
+			if (old != null) {
+				
+				if (old.getKills() == s.getKills() && old.getDeaths() == s.getDeaths() && old.getLevel() == s.getLevel()
+						&& old.getUsername().equals(s.getUsername())) { return false; }
+				ranks.remove(old);
+			}
+			byUser.put(s.getId(), s);
+			ranks.add(s);
+			return true;
+		}
+		
+		private synchronized boolean remove(int userId) {
+			
+			Standing old = byUser.remove(userId);
+			return old != null && ranks.remove(old);
+		}
+		
+		private synchronized int rank(int userId) {
+			
+			Standing s = byUser.get(userId);
+			return s == null ? -1 : ranks.rank(s);
+		}
+		
+		private synchronized List<Standing> top(int count) { return ranks.first(count); }
+	}
+}
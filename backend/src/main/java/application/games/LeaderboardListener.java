@@ -0,0 +1,20 @@
+package application.games;
+
+import java.util.List;
+
+/**
+ * Receives the rankings of a {@code Session} after they changed. Called on the thread that made the change, which may be a game's {@code Mailbox}, so it must not block
+ *
+ * @author Sean Griffen
+ */
+public interface LeaderboardListener {
+	
+	/**
+	 * Called when a player of a {@code Session} joined, left or had their {@code Standing} change
+	 * @param session
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @param standings
+	 * 		Every {@code Standing} of the {@code Session}, rank 0 first
+	 */
+	public void ranksChanged(String session, List<Standing> standings);
+}
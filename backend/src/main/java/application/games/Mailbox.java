@@ -0,0 +1,171 @@
+package application.games;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the tasks of one {@code Session} one at a time, in the order they were handed in, on a pool of workers shared by every {@code Session}.
+ * At most one worker drains a {@code Mailbox} at a time, so its tasks need no locks, while different {@code Session}s run in parallel.
+ * A worker hands the {@code Mailbox} back to the pool after {@code BATCH} tasks so a busy {@code Session} cannot hold a worker forever
+ *
+ * @author Sean Griffen
+ */
+public class Mailbox implements Executor {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Tasks run per turn on a worker
+	 */
+	static final int BATCH = 64;
+	
+	/**
+	 * {@code Mailbox} being drained on the current thread, if any
+	 */
+	private static final ThreadLocal<Mailbox> DRAINING = new ThreadLocal<>();
+	
+	/**
+	 * Shared workers
+	 */
+	private final Executor workers;
+	
+	/**
+	 * Tasks not yet run
+	 */
+	private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+	
+	/**
+	 * {@code true} while a turn is queued on, or running on, a worker
+	 */
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	
+	/**
+	 * Logger object
+	 */
+	private static final Logger log = LoggerFactory.getLogger(Mailbox.class);
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code Mailbox}
+	 * @param workers
+	 * 		{@code Executor} whose threads drain this {@code Mailbox}
+	 */
+	public Mailbox(Executor workers) { this.workers = workers; }
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Queues a task without waiting for it
+	 * @param task
+	 * 		Task to run. What it throws is logged by the worker and otherwise dropped
+	 */
+	@Override
+	public void execute(Runnable task) {
+		
+		queue.add(task);
+		schedule();
+	}
+	
+	/**
+	 * Runs a task after every task queued before it and waits for its result. A task already running on this {@code Mailbox} runs
+	 * {@code task} right away, so tasks can call each other
+	 * @param task
+	 * 		Task to run
+	 * @return
+	 * 		What {@code task} returned
+	 * @throws E
+	 * 		What {@code task} threw
+	 */
+	@SuppressWarnings("unchecked")
+	public <T, E extends Exception> T call(GameTask<T, E> task) throws E {
+		
+		if (DRAINING.get() == this) { return task.run(); }
+		
+		CompletableFuture<T> result = new CompletableFuture<>();
+		execute(() -> {
+			
+			try { result.complete(task.run()); }
+			catch (Throwable t) { result.completeExceptionally(t); }
+		});
+		
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting on a game task", e);
+		} catch (ExecutionException e) {
+			
+			//task only throws E or unchecked exceptions
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+			if (cause instanceof Error) { throw (Error) cause; }
+			throw (E) cause;
+		}
+	}
+	
+	/**
+	 * Number of tasks waiting to run
+	 * @return
+	 * 		Queued task count
+	 */
+	public int pendingCount() { return queue.size(); }
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Hands a turn to a worker unless one already has it
+	 */
+	private void schedule() {
+		
+		if (!scheduled.compareAndSet(false, true)) { return; }
+		
+		try {
+			workers.execute(this::drain);
+		} catch (RuntimeException e) {
+			
+			scheduled.set(false);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Runs up to {@code BATCH} tasks, then hands the turn back if more are waiting
+	 */
+	private void drain() {
+		
+		DRAINING.set(this);
+		try {
+			for (int i = 0; i < BATCH; i++) {
+				
+				Runnable task = queue.poll();
+				if (task == null) { break; }
+				
+				try { task.run(); }
+				catch (RuntimeException e) { log.info("Error:  game task failed: " + e.getMessage()); }
+			}
+		} finally {
+			
+			DRAINING.remove();
+			scheduled.set(false);
+			//A task queued after the last poll but before the flag was cleared still needs a turn
+			if (!queue.isEmpty()) { schedule(); }
+		}
+	}
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+}
@@ -0,0 +1,317 @@
+package application.games;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import application.items.ItemEffects;
+import application.items.ItemInterface;
+import application.tools.embeddables.Location;
+import application.tools.embeddables.Token;
+import application.users.User;
+import application.users.UserInterface;
+
+/**
+ * Compact, mutable copy of a {@code User} playing in a running {@code GameState}.
+ * Only read or written by tasks on its {@code GameState}'s {@code Mailbox}
+ *
+ * @author Sean Griffen
+ */
+public class PlayerState {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * {@code id} of the {@code User}
+	 */
+	private final int userId;
+	
+	/**
+	 * {@code username} of the {@code User}
+	 */
+	private final String username;
+	
+	/**
+	 * {@code authenticator} of the {@code User}'s {@code Token}. {@code null} once the {@code User} has logged out
+	 */
+	private String authenticator;
+	
+	/**
+	 * {@code expiration} of the {@code User}'s {@code Token}
+	 */
+	private long expiration;
+	
+	/**
+	 * Latitude component of the {@code User}'s {@code Location}
+	 */
+	private double latitude;
+	
+	/**
+	 * Longitude component of the {@code User}'s {@code Location}
+	 */
+	private double longitude;
+	
+	/**
+	 * Accuracy component of the {@code User}'s {@code Location}
+	 */
+	private int accuracy;
+	
+	/**
+	 * Time last updated for the {@code User}
+	 */
+	private long timeUpdated;
+	
+	/**
+	 * Total number of kills of the {@code User}
+	 */
+	private int kills;
+	
+	/**
+	 * Total number of deaths of the {@code User}
+	 */
+	private int deaths;
+	
+	/**
+	 * Current level of the {@code User}
+	 */
+	private int level;
+	
+	/**
+	 * View radius of the {@code User} without {@code Item} buffs
+	 */
+	private final double baseViewRadius;
+	
+	/**
+	 * Kill radius of the {@code User} without {@code Item} buffs
+	 */
+	private final double baseKillRadius;
+	
+	/**
+	 * View radius of the {@code User} including {@code Item} buffs
+	 */
+	private double viewRadius;
+	
+	/**
+	 * Kill radius of the {@code User} including {@code Item} buffs
+	 */
+	private double killRadius;
+	
+	/**
+	 * {@code id} of the {@code User} this player is assigned to eliminate, -1 if none
+	 */
+	private int targetId;
+	
+	/**
+	 * {@code Item}s the {@code User} holds
+	 */
+	private final List<ItemInterface> items;
+	
+	/**
+	 * Buffs of {@code items}
+	 */
+	private ItemEffects effects;
+	
+	/**
+	 * {@code false} once the player has been eliminated from the game
+	 */
+	private boolean alive;
+	
+	/**
+	 * {@code id}s of the players this player can currently see. Maintained by {@code Proximity}
+	 */
+	private final Set<Integer> visible;
+	
+	/**
+	 * {@code id}s of the players that can currently see this player. Maintained by {@code Proximity}
+	 */
+	private final Set<Integer> seenBy;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Copies the state of a {@code User} entity
+	 * @param user
+	 * 		{@code User} to copy
+	 */
+	public PlayerState(UserInterface user) {
+		
+		userId = user.getId();
+		username = user.getUsername();
+		authenticator = user.getToken().getAuthenticator();
+		expiration = user.getToken().getExpiration();
+		latitude = user.getLocation().getLatitude();
+		longitude = user.getLocation().getLongitude();
+		accuracy = user.getLocation().getAccuracy();
+		timeUpdated = user.getTimeUpdated();
+		kills = user.getKills();
+		deaths = user.getDeaths();
+		level = user.getLevel();
+		
+		//getViewRadius and getKillRadius include buffs, so take the buffs back off for the base values
+		items = new ArrayList<>(user.getItems());
+		effects = user.getEffects();
+		baseViewRadius = user.getViewRadius() - effects.getViewBuff();
+		baseKillRadius = user.getKillRadius() - effects.getKillBuff();
+		recomputeRadii();
+		
+		targetId = user.getTargets().isEmpty() ? -1 : user.getTargets().get(0).getId();
+		alive = true;
+		
+		visible = new HashSet<>();
+		seenBy = new HashSet<>();
+	}
+	
+	/**
+	 * Copy constructor, used to take snapshots for checkpointing
+	 * @param other
+	 * 		{@code PlayerState} to copy
+	 */
+	public PlayerState(PlayerState other) {
+		
+		userId = other.userId;
+		username = other.username;
+		authenticator = other.authenticator;
+		expiration = other.expiration;
+		latitude = other.latitude;
+		longitude = other.longitude;
+		accuracy = other.accuracy;
+		timeUpdated = other.timeUpdated;
+		kills = other.kills;
+		deaths = other.deaths;
+		level = other.level;
+		baseViewRadius = other.baseViewRadius;
+		baseKillRadius = other.baseKillRadius;
+		viewRadius = other.viewRadius;
+		killRadius = other.killRadius;
+		targetId = other.targetId;
+		items = new ArrayList<>(other.items);
+		effects = other.effects;
+		alive = other.alive;
+		
+		//Snapshots are only written to the database, visibility is not copied
+		visible = new HashSet<>();
+		seenBy = new HashSet<>();
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GETTERS/SETTERS *****************************************************************/
+	
+	public int getUserId() { return userId; }
+	
+	public String getUsername() { return username; }
+	
+	public String getAuthenticator() { return authenticator; }
+	public void setAuthenticator(String authenticator) { this.authenticator = authenticator; }
+	
+	public long getExpiration() { return expiration; }
+	public void setExpiration(long expiration) { this.expiration = expiration; }
+	
+	public double getLatitude() { return latitude; }
+	public double getLongitude() { return longitude; }
+	public int getAccuracy() { return accuracy; }
+	
+	/**
+	 * Set the {@code Location} components of the player
+	 * @param location
+	 * 		Desired {@code Location}
+	 */
+	public void setLocation(Location location) {
+		
+		latitude = location.getLatitude();
+		longitude = location.getLongitude();
+		accuracy = location.getAccuracy();
+	}
+	
+	public long getTimeUpdated() { return timeUpdated; }
+	public void setTimeUpdated(long timeUpdated) { this.timeUpdated = timeUpdated; }
+	
+	public int getKills() { return kills; }
+	public void setKills(int kills) { this.kills = kills; }
+	
+	public int getDeaths() { return deaths; }
+	public void setDeaths(int deaths) { this.deaths = deaths; }
+	
+	public int getLevel() { return level; }
+	public void setLevel(int level) { this.level = level; }
+	
+	public double getViewRadius() { return viewRadius; }
+	public double getKillRadius() { return killRadius; }
+	
+	public int getTargetId() { return targetId; }
+	public void setTargetId(int targetId) { this.targetId = targetId; }
+	
+	public List<ItemInterface> getItems() { return items; }
+	
+	public boolean isAlive() { return alive; }
+	public void setAlive(boolean alive) { this.alive = alive; }
+	
+	Set<Integer> getVisible() { return visible; }
+	
+	Set<Integer> getSeenBy() { return seenBy; }
+	
+	/****************************************************************** END GETTERS/SETTERS ******************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Adds an {@code Item} to the player's inventory and updates the buffed radii
+	 * @param item
+	 * 		{@code Item} to add
+	 */
+	public void addItem(ItemInterface item) {
+		
+		items.add(item);
+		effects = effects.plus(item);
+		recomputeRadii();
+	}
+	
+	/**
+	 * Gets the {@code Location} of the player
+	 * @return
+	 * 		New {@code Location} with the player's components
+	 */
+	public Location getLocation() { return new Location(latitude, longitude, accuracy); }
+	
+	/**
+	 * Builds a detached {@code User} with the player's public state, for callers that expect {@code UserInterface}s
+	 * @return
+	 * 		Snapshot {@code User}. Not managed by the database
+	 */
+	public UserInterface toUser() {
+		
+		User user = new User();
+		
+		Token token = new Token();
+		token.setAuthenticator(authenticator);
+		token.setExpiration(expiration);
+		
+		user.setId(userId);
+		user.setUsername(username);
+		user.setLocation(getLocation());
+		user.setToken(token);
+		user.setTimeUpdated(timeUpdated);
+		user.setKills(kills);
+		user.setDeaths(deaths);
+		user.setLevel(level);
+		user.setViewRadius(baseViewRadius);
+		user.setKillRadius(baseKillRadius);
+		user.setItems(new HashSet<>(items));
+		
+		return user;
+	}
+	
+	/**
+	 * Recomputes {@code viewRadius} and {@code killRadius} from the base values and held {@code Item}s
+	 */
+	private void recomputeRadii() {
+		
+		viewRadius = baseViewRadius + effects.getViewBuff();
+		killRadius = baseKillRadius + effects.getKillBuff();
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
@@ -0,0 +1,163 @@
+package application.games;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the visible sets of a {@code GameState}'s players up to date incrementally. Every player tracks who they see and who sees them,
+ * so a move only re-checks the players near the mover plus those that saw them before, and emits only what changed.
+ * Every method must run on the {@code GameState}'s {@code Mailbox}
+ *
+ * @author Sean Griffen
+ */
+final class Proximity {
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	private Proximity() { }
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Recomputes every visible set from scratch, without emitting changes. Used when a game is loaded
+	 * @param game
+	 * 		Game to compute
+	 */
+	static void refreshAll(GameState game) {
+		
+		for (PlayerState p : game.getPlayers()) {
+			
+			p.getVisible().clear();
+			p.getSeenBy().clear();
+			game.noteViewRadius(p.getViewRadius());
+		}
+		
+		for (PlayerState viewer : game.getPlayers()) {
+			
+			if (!viewer.isAlive()) { continue; }
+			game.forEachPlayerNear(viewer.getLatitude(), viewer.getLongitude(), viewer.getViewRadius(), p -> {
+				
+				if (sees(viewer, p)) {
+					
+					viewer.getVisible().add(p.getUserId());
+					p.getSeenBy().add(viewer.getUserId());
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Updates visibility after a player moved or their view radius changed
+	 * @param game
+	 * 		Game the player is in
+	 * @param mover
+	 * 		Player that changed
+	 * @param out
+	 * 		Changes by viewer {@code id}, added to
+	 */
+	static void moved(GameState game, PlayerState mover, Map<Integer, VisibilityDelta> out) {
+		
+		if (!mover.isAlive()) { return; }
+		game.noteViewRadius(mover.getViewRadius());
+		
+		//What the mover sees now
+		Set<Integer> now = new HashSet<>();
+		game.forEachPlayerNear(mover.getLatitude(), mover.getLongitude(), mover.getViewRadius(), p -> { if (sees(mover, p)) { now.add(p.getUserId()); } });
+		
+		for (Integer id : now) {
+			
+			if (mover.getVisible().contains(id)) { continue; }
+			
+			PlayerState p = game.getPlayer(id);
+			p.getSeenBy().add(mover.getUserId());
+			delta(out, mover).entered(p);
+			delta(out, p).setSpotted(true);
+		}
+		for (Integer id : mover.getVisible()) {
+			
+			if (now.contains(id)) { continue; }
+			
+			PlayerState p = game.getPlayer(id);
+			p.getSeenBy().remove(mover.getUserId());
+			delta(out, mover).left(p);
+		}
+		mover.getVisible().clear();
+		mover.getVisible().addAll(now);
+		
+		//Who sees the mover now: anyone close enough for the widest view, plus everyone that saw them before
+		Set<PlayerState> candidates = new HashSet<>();
+		game.forEachPlayerNear(mover.getLatitude(), mover.getLongitude(), game.getMaxViewRadius(), candidates::add);
+		for (Integer id : mover.getSeenBy()) { candidates.add(game.getPlayer(id)); }
+		
+		boolean spotted = false;
+		for (PlayerState o : candidates) {
+			
+			if (o == mover || !o.isAlive()) { continue; }
+			
+			boolean sees = sees(o, mover);
+			boolean saw = o.getVisible().contains(mover.getUserId());
+			if (sees && !saw) {
+				
+				o.getVisible().add(mover.getUserId());
+				mover.getSeenBy().add(o.getUserId());
+				delta(out, o).entered(mover);
+				spotted = true;
+			} else if (!sees && saw) {
+				
+				o.getVisible().remove(mover.getUserId());
+				mover.getSeenBy().remove(o.getUserId());
+				delta(out, o).left(mover);
+			}
+		}
+		if (spotted) { delta(out, mover).setSpotted(true); }
+	}
+	
+	/**
+	 * Takes an eliminated player out of every visible set
+	 * @param game
+	 * 		Game the player was in
+	 * @param gone
+	 * 		Eliminated player
+	 * @param out
+	 * 		Changes by viewer {@code id}, added to
+	 */
+	static void removed(GameState game, PlayerState gone, Map<Integer, VisibilityDelta> out) {
+		
+		for (Integer id : gone.getSeenBy()) {
+			
+			PlayerState o = game.getPlayer(id);
+			o.getVisible().remove(gone.getUserId());
+			delta(out, o).left(gone);
+		}
+		for (Integer id : gone.getVisible()) { game.getPlayer(id).getSeenBy().remove(gone.getUserId()); }
+		
+		gone.getSeenBy().clear();
+		gone.getVisible().clear();
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Checks if {@code viewer} can see {@code p}
+	 */
+	private static boolean sees(PlayerState viewer, PlayerState p) {
+		
+		return p != viewer && p.isAlive()
+				&& GameEngine.within(viewer, p.getLatitude(), p.getLongitude(), viewer.getViewRadius());
+	}
+	
+	/**
+	 * Gets the pending change of a viewer, creating it if needed
+	 */
+	private static VisibilityDelta delta(Map<Integer, VisibilityDelta> out, PlayerState viewer) {
+		
+		return out.computeIfAbsent(viewer.getUserId(), id -> new VisibilityDelta(viewer));
+	}
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+}
@@ -0,0 +1,18 @@
+package application.games;
+
+import java.util.Collection;
+
+/**
+ * Receives the {@code VisibilityDelta}s of running games. Called after the game's task finished, on the thread that caused the change
+ *
+ * @author Sean Griffen
+ */
+public interface ProximityListener {
+	
+	/**
+	 * Called when what one or more players can see changed
+	 * @param deltas
+	 * 		Non-empty changes, at most one per viewer
+	 */
+	public void visibilityChanged(Collection<VisibilityDelta> deltas);
+}
@@ -0,0 +1,252 @@
+package application.games;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sorted set that also answers "what is the rank of this element" and "which element has this rank" in O(log n) expected time.
+ * It is a treap, a binary search tree kept balanced by random priorities, where every node also counts the nodes below it.
+ * Elements must be distinct under the {@code Comparator}. Not thread-safe
+ *
+ * @author Sean Griffen
+ */
+public class RankTree<E> {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Order of the elements, rank 0 first
+	 */
+	private final Comparator<? super E> order;
+	
+	/**
+	 * Source of node priorities
+	 */
+	private final Random priorities = new Random();
+	
+	/**
+	 * Root of the tree, {@code null} when empty
+	 */
+	private Node<E> root;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs an empty {@code RankTree}
+	 * @param order
+	 * 		Order of the elements, rank 0 first
+	 */
+	public RankTree(Comparator<? super E> order) { this.order = order; }
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Number of elements
+	 * @return
+	 * 		Element count
+	 */
+	public int size() { return size(root); }
+	
+	/**
+	 * Adds an element
+	 * @param e
+	 * 		Element to add, which must not compare equal to one already in the tree
+	 */
+	public void add(E e) {
+		
+		Node<E>[] parts = split(root, e);
+		root = merge(merge(parts[0], new Node<>(e, priorities.nextInt())), parts[1]);
+	}
+	
+	/**
+	 * Removes an element
+	 * @param e
+	 * 		Element to remove
+	 * @return
+	 * 		{@code true} if it was in the tree
+	 */
+	public boolean remove(E e) {
+		
+		int before = size();
+		root = remove(root, e);
+		return size() < before;
+	}
+	
+	/**
+	 * Gets the rank of an element
+	 * @param e
+	 * 		Element to look for
+	 * @return
+	 * 		Number of elements before it, or {@code -1} if it is not in the tree
+	 */
+	public int rank(E e) {
+		
+		int rank = 0;
+		Node<E> n = root;
+		while (n != null) {
+			
+			int c = order.compare(e, n.value);
+			if (c == 0) { return rank + size(n.left); }
+			if (c < 0) { n = n.left; }
+			else {
+				
+				rank += size(n.left) + 1;
+				n = n.right;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Gets the element with a rank
+	 * @param rank
+	 * 		Rank to look up, from 0
+	 * @return
+	 * 		Element with {@code rank}
+	 * @throws IndexOutOfBoundsException
+	 * 		Throws if {@code rank} is negative or not less than {@code size()}
+	 */
+	public E get(int rank) {
+		
+		if (rank < 0 || rank >= size()) { throw new IndexOutOfBoundsException("Rank " + rank + " of " + size()); }
+		
+		Node<E> n = root;
+		while (true) {
+			
+			int left = size(n.left);
+			if (rank == left) { return n.value; }
+			if (rank < left) { n = n.left; }
+			else {
+				
+				rank -= left + 1;
+				n = n.right;
+			}
+		}
+	}
+	
+	/**
+	 * Gets the first elements in order
+	 * @param count
+	 * 		Most elements to get
+	 * @return
+	 * 		New {@code List} of up to {@code count} elements, rank 0 first
+	 */
+	public List<E> first(int count) {
+		
+		List<E> result = new ArrayList<>(Math.max(0, Math.min(count, size())));
+		collect(root, count, result);
+		return result;
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Adds the first elements of a subtree to a list, in order, until it holds {@code count}
+	 */
+	private static <E> void collect(Node<E> n, int count, List<E> result) {
+		
+		if (n == null || result.size() >= count) { return; }
+		
+		collect(n.left, count, result);
+		if (result.size() < count) { result.add(n.value); }
+		collect(n.right, count, result);
+	}
+	
+	/**
+	 * Removes an element from a subtree
+	 * @return
+	 * 		New root of the subtree
+	 */
+	private Node<E> remove(Node<E> n, E e) {
+		
+		if (n == null) { return null; }
+		
+		int c = order.compare(e, n.value);
+		if (c == 0) { return merge(n.left, n.right); }
+		if (c < 0) { n.left = remove(n.left, e); }
+		else { n.right = remove(n.right, e); }
+		
+		n.update();
+		return n;
+	}
+	
+	/**
+	 * Splits a subtree into the elements before {@code e} and the rest
+	 * @return
+	 * 		The two new subtrees
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<E>[] split(Node<E> n, E e) {
+		
+		if (n == null) { return new Node[] { null, null }; }
+		
+		if (order.compare(n.value, e) < 0) {
+			
+			Node<E>[] parts = split(n.right, e);
+			n.right = parts[0];
+			n.update();
+			parts[0] = n;
+			return parts;
+		}
+		
+		Node<E>[] parts = split(n.left, e);
+		n.left = parts[1];
+		n.update();
+		parts[1] = n;
+		return parts;
+	}
+	
+	/**
+	 * Joins two subtrees where every element of {@code a} comes before every element of {@code b}
+	 * @return
+	 * 		Root of the joined tree
+	 */
+	private static <E> Node<E> merge(Node<E> a, Node<E> b) {
+		
+		if (a == null) { return b; }
+		if (b == null) { return a; }
+		
+		if (a.priority > b.priority) {
+			
+			a.right = merge(a.right, b);
+			a.update();
+			return a;
+		}
+		
+		b.left = merge(a, b.left);
+		b.update();
+		return b;
+	}
+	
+	private static int size(Node<?> n) { return n == null ? 0 : n.size; }
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+	
+	/**
+	 * Node of the tree with the number of nodes in its subtree
+	 */
+	private static class Node<E> {
+		
+		private final E value;
+		private final int priority;
+		private Node<E> left;
+		private Node<E> right;
+		private int size = 1;
+		
+		private Node(E value, int priority) {
+			
+			this.value = value;
+			this.priority = priority;
+		}
+		
+		private void update() { size = 1 + RankTree.size(left) + RankTree.size(right); }
+	}
+}
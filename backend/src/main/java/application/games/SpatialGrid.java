@@ -0,0 +1,216 @@
+package application.games;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import application.tools.embeddables.Location;
+
+/**
+ * Uniform grid over a game's play area used to answer radius queries without scanning every entry.
+ * Latitude and longitude are projected to meters around the grid's origin (equirectangular, accurate over a few kilometers),
+ * and entries are bucketed by the square cell they fall in. Queries return every entry in the cells overlapping the radius, so
+ * callers still make an exact distance check on what comes back
+ *
+ * @author Sean Griffen
+ *
+ * @param <T>
+ * 		Type of the entries
+ */
+public class SpatialGrid<T> {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Radius of the Earth in meters
+	 */
+	private static final double R = 6371000;
+	
+	/**
+	 * Latitude of the origin in radians
+	 */
+	private final double originLat;
+	
+	/**
+	 * Longitude of the origin in radians
+	 */
+	private final double originLon;
+	
+	/**
+	 * Meters per radian of longitude at the origin
+	 */
+	private final double lonScale;
+	
+	/**
+	 * Side length of a cell in meters
+	 */
+	private final double cellSize;
+	
+	/**
+	 * Entries of each non-empty cell by cell key
+	 */
+	private final Map<Long, List<T>> cells;
+	
+	/**
+	 * Cell key of each entry
+	 */
+	private final Map<T, Long> cellOf;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs an empty {@code SpatialGrid}
+	 * @param origin
+	 * 		{@code Location} to project around, normally the center of the play area
+	 * @param cellSize
+	 * 		Side length of a cell in meters
+	 */
+	public SpatialGrid(Location origin, double cellSize) {
+		
+		this.originLat = Math.toRadians(origin.getLatitude());
+		this.originLon = Math.toRadians(origin.getLongitude());
+		this.lonScale = R * Math.cos(originLat);
+		this.cellSize = cellSize;
+		this.cells = new HashMap<>();
+		this.cellOf = new HashMap<>();
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Adds an entry, or moves it if already in the grid
+	 * @param entry
+	 * 		Entry to place
+	 * @param latitude
+	 * 		Latitude of the entry
+	 * @param longitude
+	 * 		Longitude of the entry
+	 */
+	public void put(T entry, double latitude, double longitude) {
+		
+		long key = key(cellX(longitude), cellY(latitude));
+		Long old = cellOf.put(entry, key);
+		
+		if (old != null) {
+			
+			if (old == key) { return; }
+			removeFromCell(entry, old);
+		}
+		cells.computeIfAbsent(key, k -> new ArrayList<>(4)).add(entry);
+	}
+	
+	/**
+	 * Removes an entry from the grid
+	 * @param entry
+	 * 		Entry to remove
+	 */
+	public void remove(T entry) {
+		
+		Long old = cellOf.remove(entry);
+		if (old != null) { removeFromCell(entry, old); }
+	}
+	
+	/**
+	 * Passes every entry in the cells overlapping a circle to {@code action}. Entries outside the circle may be included
+	 * @param latitude
+	 * 		Latitude of the center
+	 * @param longitude
+	 * 		Longitude of the center
+	 * @param radius
+	 * 		Radius in meters
+	 * @param action
+	 * 		Called once per candidate entry
+	 */
+	public void forEachNear(double latitude, double longitude, double radius, Consumer<T> action) {
+		
+		int cx = cellX(longitude);
+		int cy = cellY(latitude);
+		//Slight over-reach covers the projection error at the edge of the play area
+		int rings = (int) Math.ceil(radius * 1.001 / cellSize);
+		
+		//A query wider than the occupied area is cheaper as a walk over the occupied cells
+		long span = 2L * rings + 1;
+		if (span * span >= cells.size()) {
+			
+			for (Map.Entry<Long, List<T>> e : cells.entrySet()) {
+				
+				int x = (int) (e.getKey() >> 32);
+				int y = (int) (long) e.getKey();
+				if (Math.abs(x - cx) <= rings && Math.abs(y - cy) <= rings) { e.getValue().forEach(action); }
+			}
+			return;
+		}
+		
+		for (int x = cx - rings; x <= cx + rings; x++) {
+			for (int y = cy - rings; y <= cy + rings; y++) {
+				
+				List<T> cell = cells.get(key(x, y));
+				if (cell != null) { cell.forEach(action); }
+			}
+		}
+	}
+	
+	/**
+	 * Gets every entry in the cells overlapping a circle. Entries outside the circle may be included
+	 * @param latitude
+	 * 		Latitude of the center
+	 * @param longitude
+	 * 		Longitude of the center
+	 * @param radius
+	 * 		Radius in meters
+	 * @return
+	 * 		{@code List} of candidate entries
+	 */
+	public List<T> near(double latitude, double longitude, double radius) {
+		
+		List<T> result = new ArrayList<>();
+		forEachNear(latitude, longitude, radius, result::add);
+		return result;
+	}
+	
+	/**
+	 * Number of entries in the grid
+	 * @return
+	 * 		Entry count
+	 */
+	public int size() { return cellOf.size(); }
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Removes an entry from one cell, dropping the cell once empty
+	 */
+	private void removeFromCell(T entry, long key) {
+		
+		List<T> cell = cells.get(key);
+		if (cell == null) { return; }
+		
+		cell.remove(entry);
+		if (cell.isEmpty()) { cells.remove(key); }
+	}
+	
+	/**
+	 * Column of the cell a longitude falls in
+	 */
+	private int cellX(double longitude) { return (int) Math.floor((Math.toRadians(longitude) - originLon) * lonScale / cellSize); }
+	
+	/**
+	 * Row of the cell a latitude falls in
+	 */
+	private int cellY(double latitude) { return (int) Math.floor((Math.toRadians(latitude) - originLat) * R / cellSize); }
+	
+	/**
+	 * Packs a column and row into one cell key
+	 */
+	private static long key(int x, int y) { return ((long) x << 32) | (y & 0xffffffffL); }
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+}
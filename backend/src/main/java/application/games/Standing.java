@@ -0,0 +1,101 @@
+package application.games;
+
+import java.util.Comparator;
+
+import application.users.UserStanding;
+
+/**
+ * Immutable leaderboard entry of a {@code User}. A {@code User}'s entry is replaced, never changed, so it can be found again in a {@code RankTree}
+ *
+ * @author Sean Griffen
+ */
+public final class Standing implements UserStanding {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Leaderboard order: highest kill/death ratio first, then most {@code kills}, then highest {@code level}, then lowest {@code id}
+	 */
+	public static final Comparator<Standing> ORDER = Comparator.comparingDouble(Standing::getKDRatio).reversed()
+			.thenComparing(Comparator.comparingInt(Standing::getKills).reversed())
+			.thenComparing(Comparator.comparingInt(Standing::getLevel).reversed())
+			.thenComparingInt(Standing::getId);
+			
+	private final int id;
+	private final String username;
+	private final int kills;
+	private final int deaths;
+	private final int level;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code Standing}
+	 * @param id
+	 * 		{@code id} of the {@code User}
+	 * @param username
+	 * 		{@code username} of the {@code User}
+	 * @param kills
+	 * 		{@code kills} of the {@code User}
+	 * @param deaths
+	 * 		{@code deaths} of the {@code User}
+	 * @param level
+	 * 		{@code level} of the {@code User}
+	 */
+	public Standing(int id, String username, int kills, int deaths, int level) {
+		
+		this.id = id;
+		this.username = username;
+		this.kills = kills;
+		this.deaths = deaths;
+		this.level = level;
+	}
+	
+	/**
+	 * Copies the leaderboard columns of a {@code User}
+	 * @param standing
+	 * 		{@code User} or projection to copy
+	 * @return
+	 * 		New {@code Standing}
+	 */
+	public static Standing of(UserStanding standing) {
+		
+		if (standing instanceof Standing) { return (Standing) standing; }
+		return new Standing(standing.getId(), standing.getUsername(), standing.getKills(), standing.getDeaths(), standing.getLevel());
+	}
+	
+	/**
+	 * Copies the leaderboard columns of a player in a running game
+	 * @param player
+	 * 		Player to copy
+	 * @return
+	 * 		New {@code Standing}
+	 */
+	public static Standing of(PlayerState player) {
+		
+		return new Standing(player.getUserId(), player.getUsername(), player.getKills(), player.getDeaths(), player.getLevel());
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GETTERS/SETTERS *****************************************************************/
+	
+	@Override
+	public int getId() { return id; }
+	
+	@Override
+	public String getUsername() { return username; }
+	
+	@Override
+	public int getKills() { return kills; }
+	
+	@Override
+	public int getDeaths() { return deaths; }
+	
+	@Override
+	public int getLevel() { return level; }
+	
+	/****************************************************************** END GETTERS/SETTERS ******************************************************************/
+}
@@ -0,0 +1,121 @@
+package application.games;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Change in what one player can see, produced by {@code GameEngine} as players move, are eliminated or pick up {@code Item}s
+ *
+ * @author Sean Griffen
+ */
+public class VisibilityDelta {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * {@code id} of the viewing {@code User}
+	 */
+	private final int userId;
+	
+	/**
+	 * {@code authenticator} of the viewing {@code User}'s {@code Token}, {@code null} if logged out
+	 */
+	private final String authenticator;
+	
+	/**
+	 * Players that came into view, with where they were seen
+	 */
+	private final List<Sighting> entered;
+	
+	/**
+	 * {@code username}s of the players that left view
+	 */
+	private final List<String> left;
+	
+	/**
+	 * {@code true} if another player started seeing the viewer
+	 */
+	private boolean spotted;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs an empty {@code VisibilityDelta} for a viewer
+	 * @param viewer
+	 * 		Viewing player
+	 */
+	VisibilityDelta(PlayerState viewer) {
+		
+		this.userId = viewer.getUserId();
+		this.authenticator = viewer.getAuthenticator();
+		this.entered = new ArrayList<>();
+		this.left = new ArrayList<>();
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GETTERS/SETTERS *****************************************************************/
+	
+	public int getUserId() { return userId; }
+	
+	public String getAuthenticator() { return authenticator; }
+	
+	public List<Sighting> getEntered() { return entered; }
+	
+	public List<String> getLeft() { return left; }
+	
+	public boolean isSpotted() { return spotted; }
+	void setSpotted(boolean spotted) { this.spotted = spotted; }
+	
+	/****************************************************************** END GETTERS/SETTERS ******************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Records a player coming into view
+	 * @param p
+	 * 		Player now in view
+	 */
+	void entered(PlayerState p) { entered.add(new Sighting(p.getUsername(), p.getLatitude(), p.getLongitude())); }
+	
+	/**
+	 * Records a player leaving view
+	 * @param p
+	 * 		Player no longer in view
+	 */
+	void left(PlayerState p) { left.add(p.getUsername()); }
+	
+	/**
+	 * Checks if nothing changed for the viewer
+	 * @return
+	 * 		{@code true} if there is nothing to send
+	 */
+	public boolean isEmpty() { return entered.isEmpty() && left.isEmpty() && !spotted; }
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/**
+	 * A player seen at a position
+	 */
+	public static class Sighting {
+		
+		private final String username;
+		private final double latitude;
+		private final double longitude;
+		
+		private Sighting(String username, double latitude, double longitude) {
+			
+			this.username = username;
+			this.latitude = latitude;
+			this.longitude = longitude;
+		}
+		
+		public String getUsername() { return username; }
+		
+		public double getLatitude() { return latitude; }
+		
+		public double getLongitude() { return longitude; }
+	}
+}
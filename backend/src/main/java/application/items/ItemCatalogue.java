@@ -0,0 +1,81 @@
+package application.items;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory copy of the {@code Item} table, which only changes when an administrator deletes {@code Item}s.
+ * It is read on first use and again after {@code invalidate}, so spawning {@code Item}s on a map costs no database round trips
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class ItemCatalogue {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Read by this catalogue
+	 */
+	private final ItemRepository iRepo;
+	
+	/**
+	 * Every {@code Item} in the database, {@code null} until read
+	 */
+	private volatile List<Item> items;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs an {@code ItemCatalogue}
+	 * @param iRepo
+	 * 		{@code ItemRepository} to read the {@code Item}s from
+	 */
+	public ItemCatalogue(ItemRepository iRepo) { this.iRepo = iRepo; }
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Gets every {@code Item}, reading the table if it has not been read since the last {@code invalidate}
+	 * @return
+	 * 		Unmodifiable {@code List<Item>} of every {@code Item}
+	 */
+	public List<Item> getAll() {
+		
+		List<Item> result = items;
+		if (result == null) {
+			
+			result = Collections.unmodifiableList(new ArrayList<>(iRepo.findAll()));
+			items = result;
+		}
+		return result;
+	}
+	
+	/**
+	 * Picks an {@code Item} uniformly at random
+	 * @param rand
+	 * 		Source of randomness
+	 * @return
+	 * 		Random {@code Item}, or {@code null} if there are none
+	 */
+	public Item random(Random rand) {
+		
+		List<Item> all = getAll();
+		return all.isEmpty() ? null : all.get(rand.nextInt(all.size()));
+	}
+	
+	/**
+	 * Drops the copy so the next read goes to the database. Called after {@code Item}s are deleted
+	 */
+	public void invalidate() { items = null; }
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
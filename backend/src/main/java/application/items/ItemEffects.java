@@ -0,0 +1,155 @@
+package application.items;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sum of the buffs of a set of held {@code Item}s, worked out once when the set changes so range checks only add two doubles.
+ * Each kind of {@code Item} changes the stats through the {@code StatModifier} registered for its {@code type} and {@code effectType}.
+ * Kinds without one, such as map entities, change nothing. Immutable
+ *
+ * @author Sean Griffen
+ */
+public final class ItemEffects {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Stats with no {@code Item}s
+	 */
+	public static final ItemEffects NONE = new ItemEffects(0.0, 0.0);
+	
+	/**
+	 * {@code StatModifier} of each kind of {@code Item}, by {@code key(type, effectType)}
+	 */
+	private static final Map<Long, StatModifier> MODIFIERS = new ConcurrentHashMap<>();
+	
+	static { registerDefaults(); }
+	
+	/**
+	 * Added to the {@code viewRadius}
+	 */
+	private final double viewBuff;
+	
+	/**
+	 * Added to the {@code killRadius}
+	 */
+	private final double killBuff;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	private ItemEffects(double viewBuff, double killBuff) {
+		
+		this.viewBuff = viewBuff;
+		this.killBuff = killBuff;
+	}
+	
+	/**
+	 * Works out the stats of a set of held {@code Item}s
+	 * @param items
+	 * 		Held {@code Item}s
+	 * @return
+	 * 		Their {@code ItemEffects}
+	 */
+	public static ItemEffects of(Collection<? extends ItemInterface> items) {
+		
+		ItemEffects stats = NONE;
+		for (ItemInterface i : items) { stats = stats.plus(i); }
+		return stats;
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GETTERS/SETTERS *****************************************************************/
+	
+	public double getViewBuff() { return viewBuff; }
+	
+	public double getKillBuff() { return killBuff; }
+	
+	/**
+	 * Copies these stats with another {@code viewBuff}
+	 * @param viewBuff
+	 * 		New {@code viewBuff}
+	 * @return
+	 * 		New {@code ItemEffects}
+	 */
+	public ItemEffects withViewBuff(double viewBuff) { return new ItemEffects(viewBuff, killBuff); }
+	
+	/**
+	 * Copies these stats with another {@code killBuff}
+	 * @param killBuff
+	 * 		New {@code killBuff}
+	 * @return
+	 * 		New {@code ItemEffects}
+	 */
+	public ItemEffects withKillBuff(double killBuff) { return new ItemEffects(viewBuff, killBuff); }
+	
+	/****************************************************************** END GETTERS/SETTERS ******************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Adds one more held {@code Item}
+	 * @param item
+	 * 		{@code Item} picked up
+	 * @return
+	 * 		Stats with {@code item}, or these stats if its kind has no {@code StatModifier}
+	 */
+	public ItemEffects plus(ItemInterface item) {
+		
+		StatModifier modifier = MODIFIERS.get(key(item.getType(), item.getEffectType()));
+		return modifier == null ? this : modifier.apply(this, item);
+	}
+	
+	/**
+	 * Registers the effect of a kind of {@code Item}, replacing any earlier one.
+	 * Stats already worked out keep the old effect until their {@code Item}s next change
+	 * @param type
+	 * 		{@code type} of the {@code Item}s
+	 * @param effectType
+	 * 		{@code effectType} of the {@code Item}s
+	 * @param modifier
+	 * 		Their effect
+	 */
+	public static void register(int type, int effectType, StatModifier modifier) { MODIFIERS.put(key(type, effectType), modifier); }
+	
+	/**
+	 * Drops every registered effect but the built in ones, so tests that register their own leave nothing behind
+	 */
+	static void reset() {
+		
+		MODIFIERS.clear();
+		registerDefaults();
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Registers the effects of the built in kinds of {@code Item}
+	 */
+	private static void registerDefaults() {
+		
+		//Binoculars
+		register(0, 0, (stats, item) -> stats.withViewBuff(stats.viewBuff + item.getEffect()));
+		//Sword
+		register(0, 1, (stats, item) -> stats.withKillBuff(stats.killBuff + item.getEffect()));
+	}
+	
+	/**
+	 * Makes the {@code MODIFIERS} key of a kind of {@code Item}. Every pair of {@code type} and {@code effectType} has its own key
+	 * @param type
+	 * 		{@code type} of the {@code Item}s
+	 * @param effectType
+	 * 		{@code effectType} of the {@code Item}s
+	 * @return
+	 * 		{@code type} in the high 32 bits and {@code effectType} in the low 32 bits
+	 */
+	private static Long key(int type, int effectType) { return ((long) type << 32) | (effectType & 0xffffffffL); }
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+}
@@ -0,0 +1,21 @@
+package application.items;
+
+/**
+ * Effect of one kind of held {@code Item} on a {@code User}'s stats, registered with {@code ItemEffects} by {@code type} and {@code effectType}
+ *
+ * @author Sean Griffen
+ */
+@FunctionalInterface
+public interface StatModifier {
+	
+	/**
+	 * Applies an {@code Item} to the stats of its holder
+	 * @param stats
+	 * 		Stats before the {@code Item}
+	 * @param item
+	 * 		Held {@code Item}
+	 * @return
+	 * 		Stats with the {@code Item}
+	 */
+	public ItemEffects apply(ItemEffects stats, ItemInterface item);
+}
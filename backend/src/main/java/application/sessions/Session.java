@@ -6,16 +6,24 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToMany;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedEntityGraphs;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.core.style.ToStringCreator;
 
 import application.items.Item;
@@ -28,15 +36,34 @@ import application.users.UserInterface;
 /**
  * Defines instance variables, getters, setters, and misc methods common to all {@code Session} types
  * See {@code SessionInterface} for details on getters and setters for instance variables
+ * Collections are loaded lazily. {@code PLAYERS} and {@code GAME} name the fetch plans of the lookups that need them
  * 
  * @author Sean Griffen
  */
 @Entity
-@Table(name = "Sessions")
+@NamedEntityGraphs({
+	@NamedEntityGraph(name = Session.PLAYERS, attributeNodes = @NamedAttributeNode("users")),
+	@NamedEntityGraph(name = Session.GAME, attributeNodes = { @NamedAttributeNode("users"), @NamedAttributeNode("iLoc") })
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "sessions")
+@Table(name = "Sessions",
+	   uniqueConstraints = { @UniqueConstraint(name = "uk_sessions_name", columnNames = "name") },
+	   indexes = { @Index(name = "idx_sessions_authenticator", columnList = "authenticator"), @Index(name = "idx_sessions_passcode", columnList = "passcode") })
 public class Session implements SessionInterface {
 	
 	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
 	
+	/**
+	 * Entity graph loading {@code users} with the {@code Session}
+	 */
+	public static final String PLAYERS = "Session.players";
+	
+	/**
+	 * Entity graph loading everything a started game needs, {@code users} and {@code iLoc}
+	 */
+	public static final String GAME = "Session.game";
+	
 	/**
 	 * ID of the {@code Session}
 	 */
@@ -47,20 +74,23 @@ public class Session implements SessionInterface {
 	/**
 	 * List of the users in the {@code Session}
 	 */
-	@OneToMany(targetEntity = User.class, fetch = FetchType.EAGER)
+	@OneToMany(targetEntity = User.class, fetch = FetchType.LAZY)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "session-users")
 //	@JoinTable(name = "sessions_users")
 	private List<UserInterface> users;
 	
 	/**
 	 * {@code Items} this {@code Session} has
 	 */
-	@ManyToMany(targetEntity = Item.class, fetch = FetchType.EAGER)
+	@ManyToMany(targetEntity = Item.class, fetch = FetchType.LAZY)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "session-items")
 	private Set<ItemInterface> items;
 	
 	/**
 	 * {@code Items} with {@code Locations} this {@code Session} has
 	 */
-	@ManyToMany(targetEntity = Item.class, fetch = FetchType.EAGER)
+	@ManyToMany(targetEntity = Item.class, fetch = FetchType.LAZY)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "session-item-locations")
 //	@JoinTable(name = "sessions_i_loc")
 	private Map<Location, Item> iLoc;
 	
@@ -218,10 +248,7 @@ public class Session implements SessionInterface {
 	@Override
 	public boolean inPlayArea(Location check) {
 		
-		double distance = center.getDistance(check);
-		
-		if (distance <= radius) { return true; }
-		return false;
+		return center.isWithin(check, radius);
 	}
 	
 	@Override
@@ -1,12 +1,89 @@
 package application.sessions;
 
+import java.util.Optional;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * Repository for Objects that are or extend {@code Session}
+ * Lookups by {@code Token} and {@code passcode} are served by the query cache until a {@code Session} is written through Hibernate
  * 
  * @author Sean Griffen
  */
 public interface SessionRepository extends JpaRepository<Session, Integer> {
 	
+	/**
+	 * Gets the {@code Session} whose {@code Token} has a matching {@code authenticator}
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Token} to look up
+	 * @return
+	 * 		{@code Session} holding the {@code Token}, if any
+	 */
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+	public Optional<Session> findFirstByTokenAuthenticator(String authenticator);
+	
+	/**
+	 * Gets the {@code Session} whose {@code Token} has a matching {@code authenticator}, with its {@code users}
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Token} to look up
+	 * @return
+	 * 		{@code Session} holding the {@code Token}, if any
+	 */
+	@EntityGraph(Session.PLAYERS)
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+	public Optional<Session> findPlayersByTokenAuthenticator(String authenticator);
+	
+	/**
+	 * Gets a {@code Session} with everything its game needs, {@code users} and {@code iLoc}
+	 * @param id
+	 * 		{@code id} of the {@code Session}
+	 * @return
+	 * 		{@code Session} with {@code id}, if any
+	 */
+	@EntityGraph(Session.GAME)
+	public Optional<Session> findGameById(int id);
+	
+	/**
+	 * Gets the {@code Session} with a matching {@code passcode}
+	 * @param passcode
+	 * 		{@code passcode} to look up
+	 * @return
+	 * 		{@code Session} with {@code passcode}, if any
+	 */
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+	public Optional<Session> findFirstByPasscode(int passcode);
+	
+	/**
+	 * Gets the {@code Session} with a matching {@code name} and {@code passcode}
+	 * @param name
+	 * 		{@code name} to look up
+	 * @param passcode
+	 * 		{@code passcode} to look up
+	 * @return
+	 * 		{@code Session} with {@code name} and {@code passcode}, if any
+	 */
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+	public Optional<Session> findFirstByNameAndPasscode(String name, int passcode);
+	
+	/**
+	 * Checks if a {@code Session} with a matching {@code name} exists
+	 * @param name
+	 * 		{@code name} to check
+	 * @return
+	 * 		{@code true} if a {@code Session} has {@code name}, {@code false} otherwise
+	 */
+	public boolean existsByName(String name);
+	
+	/**
+	 * Checks if a {@code Session} with a matching {@code passcode} exists
+	 * @param passcode
+	 * 		{@code passcode} to check
+	 * @return
+	 * 		{@code true} if a {@code Session} has {@code passcode}, {@code false} otherwise
+	 */
+	public boolean existsByPasscode(int passcode);
 }
@@ -3,6 +3,8 @@ package application.tools.embeddables;
 import javax.persistence.*;
 import org.springframework.core.style.ToStringCreator;
 
+import application.tools.geometry.Distance;
+
 /**
  * Location object for objects that need them
  * @author Sean Griffen
@@ -27,6 +29,13 @@ public class Location {
 	 */
 	private int accuracy;
 	
+	/**
+	 * Radians and latitude cosine of the last {@code latitude} and {@code longitude} they were computed for.
+	 * Checked against the fields instead of being cleared in the setters, since Hibernate writes the fields directly
+	 */
+	@Transient
+	private Radians radians;
+	
 	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
 	
 	/******************************************************************* START CONSTRUCTORS ******************************************************************/
@@ -112,32 +121,60 @@ public class Location {
 	 * 		Desired {@code accuracy} component of the {@code Location}
 	 */
 	public void setAccuracy(int accuracy) { this.accuracy = accuracy; }
-		
+	
 	/******************************************************************* END GETTERS/SETTERS *****************************************************************/
 	
 	/******************************************************************** START MISC METHODS *****************************************************************/
 	
 	/**
-	 * Calculates distance between this and another location object in meters using the haversine formula
+	 * Calculates distance between this and another location object in meters. Uses the radians and cosines cached on both
 	 * @param location other location to use
 	 * @return distance between this location and another in meters
 	 */
 	public double getDistance(Location location) {
-		//d=2*asin(sqrt((sin((lat1-lat2)/2))^2 + cos(lat1)*cos(lat2)*(sin((lon1-lon2)/2))^2))
-		//formula using no idea if it works or not
-		
-		//Radius of the Earth in meters
-		final int R = 6371000;
 		
-		//Square of half the chord length between points
-		double a = Math.pow(Math.sin((Math.toRadians(location.latitude - latitude)) / 2), 2) + 
-				Math.cos(Math.toRadians(latitude))* Math.cos(Math.toRadians(location.latitude)) * 
-				Math.pow((Math.sin((Math.toRadians(location.longitude - longitude)) / 2)), 2);
+		Radians a = radians();
+		Radians b = location.radians();
+		return Distance.between(a.phi, a.lambda, a.cos, b.phi, b.lambda, b.cos);
+	}
+	
+	/**
+	 * Checks if another location is within {@code radius} meters, comparing squared distances
+	 * @param location other location to use
+	 * @param radius distance in meters
+	 * @return {@code true} if the distance is at most {@code radius}, {@code false} otherwise
+	 */
+	public boolean isWithin(Location location, double radius) {
 		
-		//Angular distance in radians
-		double c = 2 * (Math.atan2(Math.sqrt(a), Math.sqrt(1 - a)));
+		Radians a = radians();
+		Radians b = location.radians();
+		return Distance.within(a.phi, a.lambda, a.cos, b.phi, b.lambda, b.cos, radius);
+	}
+	
+	/**
+	 * Calculates distance between two latitude/longitude pairs in meters. Haversine is only used past {@code Distance.FAST_PATH_LIMIT}
+	 * @param lat1 latitude of the first point
+	 * @param lon1 longitude of the first point
+	 * @param lat2 latitude of the second point
+	 * @param lon2 longitude of the second point
+	 * @return distance between the two points in meters
+	 */
+	public static double getDistance(double lat1, double lon1, double lat2, double lon2) { return Distance.between(lat1, lon1, lat2, lon2); }
+	
+	/**
+	 * Gets {@code radians}, recomputing it if {@code latitude} or {@code longitude} changed since
+	 * @return
+	 * 		{@code Radians} of the current {@code latitude} and {@code longitude}
+	 */
+	private Radians radians() {
 		
-		return R * c;
+		Radians r = radians;
+		if (r == null || r.latitude != latitude || r.longitude != longitude) {
+			
+			r = new Radians(latitude, longitude);
+			radians = r;
+		}
+		return r;
 	}
 	
 	/**
@@ -157,4 +194,25 @@ public class Location {
 	/********************************************************************* END MISC METHODS ******************************************************************/
 	
 	/******************************************************************** END CLASS LOCATION *****************************************************************/
+	
+	/**
+	 * Immutable, so a {@code Location} read by several threads never sees a half-written cache
+	 */
+	private static class Radians {
+		
+		private final double latitude;
+		private final double longitude;
+		private final double phi;
+		private final double lambda;
+		private final double cos;
+		
+		private Radians(double latitude, double longitude) {
+			
+			this.latitude = latitude;
+			this.longitude = longitude;
+			this.phi = Distance.toRadians(latitude);
+			this.lambda = Distance.toRadians(longitude);
+			this.cos = Math.cos(phi);
+		}
+	}
 }
@@ -0,0 +1,194 @@
+package application.tools.geometry;
+
+/**
+ * Distance between latitude/longitude points in meters.
+ * Play areas are at most a few kilometers across, where the equirectangular approximation differs from the haversine formula by about a millimeter,
+ * so it is used up to {@code FAST_PATH_LIMIT} and threshold checks compare squared distances without a square root.
+ * Haversine only runs for points further apart than that. Methods taking radians also take the cosine of each latitude so callers can cache them
+ *
+ * @author Sean Griffen
+ */
+public final class Distance {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Radius of the Earth in meters
+	 */
+	public static final double R = 6371000;
+	
+	/**
+	 * Meters up to which the equirectangular approximation is used. Its error grows with the cube of the distance and is below a centimeter here
+	 */
+	public static final double FAST_PATH_LIMIT = 10000;
+	
+	/**
+	 * {@code FAST_PATH_LIMIT} as an angle in radians, squared
+	 */
+	private static final double FAST_PATH_LIMIT_SQ = (FAST_PATH_LIMIT / R) * (FAST_PATH_LIMIT / R);
+	
+	/**
+	 * Radians per degree
+	 */
+	private static final double RADIANS = Math.PI / 180;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Static methods only
+	 */
+	private Distance() { }
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Converts degrees to radians with one multiplication
+	 * @param degrees
+	 * 		Angle in degrees
+	 * @return
+	 * 		Angle in radians
+	 */
+	public static double toRadians(double degrees) { return degrees * RADIANS; }
+	
+	/**
+	 * Distance between two points given in degrees
+	 * @param lat1
+	 * 		Latitude of the first point
+	 * @param lon1
+	 * 		Longitude of the first point
+	 * @param lat2
+	 * 		Latitude of the second point
+	 * @param lon2
+	 * 		Longitude of the second point
+	 * @return
+	 * 		Distance in meters
+	 */
+	public static double between(double lat1, double lon1, double lat2, double lon2) {
+		
+		double phi1 = lat1 * RADIANS;
+		double phi2 = lat2 * RADIANS;
+		
+		return between(phi1, lon1 * RADIANS, Math.cos(phi1), phi2, lon2 * RADIANS, Math.cos(phi2));
+	}
+	
+	/**
+	 * Distance between two points given in radians with the cosines of their latitudes
+	 * @param phi1
+	 * 		Latitude of the first point in radians
+	 * @param lambda1
+	 * 		Longitude of the first point in radians
+	 * @param cos1
+	 * 		Cosine of {@code phi1}
+	 * @param phi2
+	 * 		Latitude of the second point in radians
+	 * @param lambda2
+	 * 		Longitude of the second point in radians
+	 * @param cos2
+	 * 		Cosine of {@code phi2}
+	 * @return
+	 * 		Distance in meters
+	 */
+	public static double between(double phi1, double lambda1, double cos1, double phi2, double lambda2, double cos2) {
+		
+		double angle = angleSquared(phi1, lambda1, cos1, phi2, lambda2, cos2);
+		
+		if (angle <= FAST_PATH_LIMIT_SQ) { return R * Math.sqrt(angle); }
+		return haversine(phi1, lambda1, cos1, phi2, lambda2, cos2);
+	}
+	
+	/**
+	 * Checks if two points given in degrees are within {@code radius} meters of each other
+	 * @param lat1
+	 * 		Latitude of the first point
+	 * @param lon1
+	 * 		Longitude of the first point
+	 * @param lat2
+	 * 		Latitude of the second point
+	 * @param lon2
+	 * 		Longitude of the second point
+	 * @param radius
+	 * 		Distance in meters
+	 * @return
+	 * 		{@code true} if the distance is at most {@code radius}, {@code false} otherwise
+	 */
+	public static boolean within(double lat1, double lon1, double lat2, double lon2, double radius) {
+		
+		//Cosine of the mean latitude, one trig call instead of two
+		double phi1 = lat1 * RADIANS;
+		double phi2 = lat2 * RADIANS;
+		double cos = Math.cos((phi1 + phi2) / 2);
+		
+		return within(phi1, lon1 * RADIANS, cos, phi2, lon2 * RADIANS, cos, radius);
+	}
+	
+	/**
+	 * Checks if two points given in radians with the cosines of their latitudes are within {@code radius} meters of each other
+	 * @param phi1
+	 * 		Latitude of the first point in radians
+	 * @param lambda1
+	 * 		Longitude of the first point in radians
+	 * @param cos1
+	 * 		Cosine of {@code phi1}
+	 * @param phi2
+	 * 		Latitude of the second point in radians
+	 * @param lambda2
+	 * 		Longitude of the second point in radians
+	 * @param cos2
+	 * 		Cosine of {@code phi2}
+	 * @param radius
+	 * 		Distance in meters
+	 * @return
+	 * 		{@code true} if the distance is at most {@code radius}, {@code false} otherwise
+	 */
+	public static boolean within(double phi1, double lambda1, double cos1, double phi2, double lambda2, double cos2, double radius) {
+		
+		if (radius < 0 || Double.isNaN(radius)) { return false; }
+		
+		double limit = radius / R;
+		if (limit > FAST_PATH_LIMIT / R) { return haversine(phi1, lambda1, cos1, phi2, lambda2, cos2) <= radius; }
+		
+		return angleSquared(phi1, lambda1, cos1, phi2, lambda2, cos2) <= limit * limit;
+	}
+	
+	/**
+	 * Square of the equirectangular angle between two points, using the mean of the latitude cosines as the longitude scale.
+	 * Takes the same parameters as {@code between}
+	 * @return
+	 * 		Squared angle in radians
+	 */
+	static double angleSquared(double phi1, double lambda1, double cos1, double phi2, double lambda2, double cos2) {
+		
+		double dLambda = lambda2 - lambda1;
+		//Take the short way across the antimeridian
+		if (dLambda > Math.PI) { dLambda -= 2 * Math.PI; }
+		else if (dLambda < -Math.PI) { dLambda += 2 * Math.PI; }
+		
+		double x = dLambda * (cos1 + cos2) * 0.5;
+		double y = phi2 - phi1;
+		
+		return x * x + y * y;
+	}
+	
+	/**
+	 * Haversine distance between two points given in radians with the cosines of their latitudes.
+	 * Takes the same parameters as {@code between}
+	 * @return
+	 * 		Distance in meters
+	 */
+	static double haversine(double phi1, double lambda1, double cos1, double phi2, double lambda2, double cos2) {
+		
+		double sinPhi = Math.sin((phi2 - phi1) / 2);
+		double sinLambda = Math.sin((lambda2 - lambda1) / 2);
+		
+		//Square of half the chord length between points
+		double a = sinPhi * sinPhi + cos1 * cos2 * sinLambda * sinLambda;
+		
+		return 2 * R * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
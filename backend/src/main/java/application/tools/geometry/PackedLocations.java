@@ -0,0 +1,188 @@
+package application.tools.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Points packed into parallel primitive arrays of radians and latitude cosines, for computing distances from one point to many.
+ * The loops run over plain {@code double[]}s without allocating, so the JIT can unroll and vectorize them
+ *
+ * @author Sean Griffen
+ */
+public class PackedLocations {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Latitudes in radians
+	 */
+	private double[] phi;
+	
+	/**
+	 * Longitudes in radians
+	 */
+	private double[] lambda;
+	
+	/**
+	 * Cosines of the latitudes
+	 */
+	private double[] cos;
+	
+	/**
+	 * Number of points stored
+	 */
+	private int size;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs an empty {@code PackedLocations}
+	 * @param capacity
+	 * 		Number of points to make room for
+	 */
+	public PackedLocations(int capacity) {
+		
+		phi = new double[Math.max(capacity, 1)];
+		lambda = new double[phi.length];
+		cos = new double[phi.length];
+	}
+	
+	/**
+	 * Constructs a {@code PackedLocations} from interleaved degrees
+	 * @param latLon
+	 * 		Latitude and longitude of each point in degrees, {@code { lat0, lon0, lat1, lon1, ... }}
+	 */
+	public PackedLocations(double[] latLon) {
+		
+		this(latLon.length / 2);
+		for (int i = 0; i + 1 < latLon.length; i += 2) { add(latLon[i], latLon[i + 1]); }
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GETTERS/SETTERS *****************************************************************/
+	
+	/**
+	 * Number of points stored
+	 * @return
+	 * 		{@code size}
+	 */
+	public int size() { return size; }
+	
+	/**
+	 * Replaces a point
+	 * @param index
+	 * 		Index returned by {@code add}
+	 * @param latitude
+	 * 		New latitude in degrees
+	 * @param longitude
+	 * 		New longitude in degrees
+	 */
+	public void set(int index, double latitude, double longitude) {
+		
+		if (index < 0 || index >= size) { throw new IndexOutOfBoundsException("Index " + index + " of " + size); }
+		
+		phi[index] = Distance.toRadians(latitude);
+		lambda[index] = Distance.toRadians(longitude);
+		cos[index] = Math.cos(phi[index]);
+	}
+	
+	/****************************************************************** END GETTERS/SETTERS ******************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Adds a point
+	 * @param latitude
+	 * 		Latitude in degrees
+	 * @param longitude
+	 * 		Longitude in degrees
+	 * @return
+	 * 		Index of the point
+	 */
+	public int add(double latitude, double longitude) {
+		
+		if (size == phi.length) {
+			
+			phi = Arrays.copyOf(phi, size * 2);
+			lambda = Arrays.copyOf(lambda, size * 2);
+			cos = Arrays.copyOf(cos, size * 2);
+		}
+		size++;
+		set(size - 1, latitude, longitude);
+		return size - 1;
+	}
+	
+	/**
+	 * Removes every point, keeping the arrays
+	 */
+	public void clear() { size = 0; }
+	
+	/**
+	 * Computes the distance from one point to every stored point
+	 * @param latitude
+	 * 		Latitude of the point in degrees
+	 * @param longitude
+	 * 		Longitude of the point in degrees
+	 * @param out
+	 * 		Receives the distance in meters to point {@code i} at index {@code i}. Must hold at least {@code size} values
+	 */
+	public void distancesFrom(double latitude, double longitude, double[] out) {
+		
+		if (out.length < size) { throw new IllegalArgumentException("Output holds " + out.length + " of " + size + " distances"); }
+		
+		double phi0 = Distance.toRadians(latitude);
+		double lambda0 = Distance.toRadians(longitude);
+		double cos0 = Math.cos(phi0);
+		
+		//Squared angles first, in a loop with no calls or branches
+		double far = 0;
+		for (int i = 0; i < size; i++) {
+			
+			double x = (lambda[i] - lambda0) * (cos[i] + cos0) * 0.5;
+			double y = phi[i] - phi0;
+			out[i] = x * x + y * y;
+			far = Math.max(far, out[i]);
+		}
+		
+		//Points past the fast path, or across the antimeridian, are redone exactly
+		boolean exact = far > (Distance.FAST_PATH_LIMIT / Distance.R) * (Distance.FAST_PATH_LIMIT / Distance.R);
+		for (int i = 0; i < size; i++) {
+			
+			if (exact) { out[i] = Distance.between(phi0, lambda0, cos0, phi[i], lambda[i], cos[i]); }
+			else { out[i] = Distance.R * Math.sqrt(out[i]); }
+		}
+	}
+	
+	/**
+	 * Finds the stored points within {@code radius} meters of one point
+	 * @param latitude
+	 * 		Latitude of the point in degrees
+	 * @param longitude
+	 * 		Longitude of the point in degrees
+	 * @param radius
+	 * 		Distance in meters
+	 * @param out
+	 * 		Receives the indices of the points found, in index order. Must hold at least {@code size} values
+	 * @return
+	 * 		Number of points found
+	 */
+	public int within(double latitude, double longitude, double radius, int[] out) {
+		
+		if (out.length < size) { throw new IllegalArgumentException("Output holds " + out.length + " of " + size + " indices"); }
+		
+		double phi0 = Distance.toRadians(latitude);
+		double lambda0 = Distance.toRadians(longitude);
+		double cos0 = Math.cos(phi0);
+		
+		int found = 0;
+		for (int i = 0; i < size; i++) {
+			
+			if (Distance.within(phi0, lambda0, cos0, phi[i], lambda[i], cos[i], radius)) { out[found++] = i; }
+		}
+		return found;
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
@@ -0,0 +1,113 @@
+package application.tools.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+
+import application.games.GameEngine;
+import application.games.GameState;
+import application.webSocket.ConnectionRegistry;
+
+/**
+ * Gauges of open websockets, messages waiting to be sent on them, running games, game tasks waiting on their {@code Mailbox}es
+ * and players in each running game. Every gauge but the players is read when scraped. The players are tagged by {@code Session} {@code id},
+ * so games that start or stop only show up or go away at the next {@code refresh}
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class GameMetrics {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Read by the gauges
+	 */
+	private final GameEngine engine;
+	
+	/**
+	 * Players of each running game
+	 */
+	private final MultiGauge players;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code GameMetrics} and registers its gauges
+	 * @param registry
+	 * 		Registry to register the gauges in
+	 * @param engine
+	 * 		{@code GameEngine} of the running games
+	 * @param connections
+	 * 		{@code ConnectionRegistry} of the open websockets
+	 */
+	public GameMetrics(MeterRegistry registry, GameEngine engine, ConnectionRegistry connections) {
+		
+		this.engine = engine;
+		
+		Gauge.builder("knockout.websocket.open", connections, ConnectionRegistry::size)
+				.description("Open websockets")
+				.register(registry);
+		Gauge.builder("knockout.websocket.queued", connections, ConnectionRegistry::queuedMessages)
+				.description("Messages queued on open websockets and not yet sent")
+				.register(registry);
+		Gauge.builder("knockout.games.active", engine, e -> e.getGames().size())
+				.description("Games running in the GameEngine")
+				.register(registry);
+		Gauge.builder("knockout.games.pending", engine, GameMetrics::pendingTasks)
+				.description("Game tasks waiting on their Mailbox")
+				.register(registry);
+		
+		players = MultiGauge.builder("knockout.game.players")
+				.description("Players in each running game")
+				.register(registry);
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Replaces the players gauges with one per running game
+	 */
+	@Scheduled(fixedDelayString = "${knockout.metrics.refresh-interval:10000}")
+	@SuppressWarnings("rawtypes")
+	public void refresh() {
+		
+		//MultiGauge.register takes raw Rows
+		List<MultiGauge.Row> rows = new ArrayList<>();
+		for (GameState game : engine.getGames()) {
+			rows.add(MultiGauge.Row.of(Tags.of("session", String.valueOf(game.getSessionId())), game, GameState::getPlayerCount));
+		}
+		players.register(rows, true);
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Counts the tasks queued on every running game's {@code Mailbox}
+	 * @param engine
+	 * 		{@code GameEngine} of the running games
+	 * @return
+	 * 		Queued task count
+	 */
+	private static double pendingTasks(GameEngine engine) {
+		
+		long pending = 0;
+		for (GameState game : engine.getGames()) { pending += game.getMailbox().pendingCount(); }
+		return pending;
+	}
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+}
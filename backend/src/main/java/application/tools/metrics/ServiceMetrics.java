@@ -0,0 +1,80 @@
+package application.tools.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every public method of {@code SessionService}, {@code UserService} and {@code ItemService} as {@code knockout.service},
+ * tagged with the service, the method and the simple name of the exception it threw, or {@code none}.
+ * A timer's count is the number of calls, so failures per method are the count of its timers with an exception tag
+ *
+ * @author Sean Griffen
+ */
+@Aspect
+@Component
+public class ServiceMetrics {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Name of the timers
+	 */
+	public static final String TIMER = "knockout.service";
+	
+	/**
+	 * Registry the timers are kept in
+	 */
+	private final MeterRegistry registry;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code ServiceMetrics}
+	 * @param registry
+	 * 		Registry to keep the timers in
+	 */
+	public ServiceMetrics(MeterRegistry registry) { this.registry = registry; }
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Times a service call
+	 * @param call
+	 * 		Intercepted call
+	 * @return
+	 * 		What the call returned
+	 * @throws Throwable
+	 * 		What the call threw
+	 */
+	@Around("execution(public * application.tools.services.SessionService.*(..))"
+			+ " || execution(public * application.tools.services.UserService.*(..))"
+			+ " || execution(public * application.tools.services.ItemService.*(..))")
+	public Object time(ProceedingJoinPoint call) throws Throwable {
+		
+		Timer.Sample sample = Timer.start(registry);
+		String exception = "none";
+		try {
+			return call.proceed();
+		} catch (Throwable t) {
+			
+			exception = t.getClass().getSimpleName();
+			throw t;
+		} finally {
+			sample.stop(registry.timer(TIMER,
+					"service", call.getSignature().getDeclaringType().getSimpleName(),
+					"method", call.getSignature().getName(),
+					"exception", exception));
+		}
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
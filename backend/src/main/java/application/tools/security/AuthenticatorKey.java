@@ -0,0 +1,105 @@
+package application.tools.security;
+
+/**
+ * Binary form of an {@code authenticator} from {@code Authenticators}: its {@code BYTES} bytes in two {@code long}s.
+ * Hashing and comparing one is two {@code long} operations instead of a walk over a {@code String}, and it holds no {@code char[]}
+ *
+ * @author Sean Griffen
+ */
+public final class AuthenticatorKey {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Bytes 0 to 7
+	 */
+	private final long high;
+	
+	/**
+	 * Bytes 8 to 14
+	 */
+	private final long low;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	private AuthenticatorKey(long high, long low) {
+		
+		this.high = high;
+		this.low = low;
+	}
+	
+	/**
+	 * Converts an {@code authenticator} to its binary form
+	 * @param authenticator
+	 * 		{@code authenticator} to convert
+	 * @return
+	 * 		{@code AuthenticatorKey}, or {@code null} if {@code authenticator} was not made by {@code Authenticators}
+	 */
+	public static AuthenticatorKey of(String authenticator) {
+		
+		if (authenticator == null || authenticator.length() != Authenticators.LENGTH) { return null; }
+		
+		byte[] bytes = Authenticators.decode(authenticator);
+		return bytes == null ? null : of(bytes);
+	}
+	
+	/**
+	 * Packs the bytes of an {@code authenticator}
+	 * @param bytes
+	 * 		{@code Authenticators.BYTES} bytes
+	 * @return
+	 * 		{@code AuthenticatorKey}
+	 * @throws IllegalArgumentException
+	 * 		Throws if {@code bytes} is the wrong length
+	 */
+	public static AuthenticatorKey of(byte[] bytes) {
+		
+		if (bytes.length != Authenticators.BYTES) { throw new IllegalArgumentException("Authenticator must be " + Authenticators.BYTES + " bytes, was " + bytes.length); }
+		
+		long high = 0;
+		long low = 0;
+		for (int i = 0; i < 8; i++) { high = (high << 8) | (bytes[i] & 0xFF); }
+		for (int i = 8; i < bytes.length; i++) { low = (low << 8) | (bytes[i] & 0xFF); }
+		return new AuthenticatorKey(high, low);
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Unpacks the bytes of the {@code authenticator}
+	 * @return
+	 * 		New array of {@code Authenticators.BYTES} bytes
+	 */
+	public byte[] toBytes() {
+		
+		byte[] bytes = new byte[Authenticators.BYTES];
+		for (int i = 7; i >= 0; i--) { bytes[i] = (byte) (high >>> (8 * (7 - i))); }
+		for (int i = bytes.length - 1; i >= 8; i--) { bytes[i] = (byte) (low >>> (8 * (bytes.length - 1 - i))); }
+		return bytes;
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		
+		if (this == o) { return true; }
+		if (!(o instanceof AuthenticatorKey)) { return false; }
+		
+		AuthenticatorKey other = (AuthenticatorKey) o;
+		return high == other.high && low == other.low;
+	}
+	
+	@Override
+	public int hashCode() { return Long.hashCode(high * 31 + low); }
+	
+	/**
+	 * Converts back to the {@code authenticator}
+	 */
+	@Override
+	public String toString() { return Authenticators.encode(toBytes()); }
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
@@ -0,0 +1,93 @@
+package application.tools.security;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Generates {@code Token} {@code authenticator}s: {@code BYTES} bytes from a per-thread {@code SecureRandom}, encoded in one pass as URL-safe Base64 without padding.
+ * The alphabet is letters, digits, '-' and '_', so nothing has to be rejected and redrawn to keep authenticators safe in URLs and JSON
+ *
+ * @author Sean Griffen
+ */
+public final class Authenticators {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Random bytes in an {@code authenticator}. 120 bits, which encode to exactly {@code LENGTH} characters
+	 */
+	public static final int BYTES = 15;
+	
+	/**
+	 * Characters in an {@code authenticator}
+	 */
+	public static final int LENGTH = BYTES / 3 * 4;
+	
+	/**
+	 * One {@code SecureRandom} per thread, so logins at the start of a game do not queue on a shared lock
+	 */
+	private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+	
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Static methods only
+	 */
+	private Authenticators() { }
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Generates a new {@code authenticator}
+	 * @return
+	 * 		{@code LENGTH} random URL-safe characters
+	 */
+	public static String next() { return encode(nextBytes()); }
+	
+	/**
+	 * Generates the bytes of a new {@code authenticator}
+	 * @return
+	 * 		{@code BYTES} random bytes
+	 */
+	public static byte[] nextBytes() {
+		
+		byte[] bytes = new byte[BYTES];
+		RANDOM.get().nextBytes(bytes);
+		return bytes;
+	}
+	
+	/**
+	 * Encodes bytes as an {@code authenticator}
+	 * @param bytes
+	 * 		Bytes to encode
+	 * @return
+	 * 		URL-safe Base64 without padding
+	 */
+	public static String encode(byte[] bytes) { return ENCODER.encodeToString(bytes); }
+	
+	/**
+	 * Decodes an {@code authenticator} back to its bytes
+	 * @param authenticator
+	 * 		{@code authenticator} to decode
+	 * @return
+	 * 		Its bytes, or {@code null} if it is not URL-safe Base64, such as one generated before this class
+	 */
+	public static byte[] decode(String authenticator) {
+		
+		if (authenticator == null) { return null; }
+		try {
+			return DECODER.decode(authenticator);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
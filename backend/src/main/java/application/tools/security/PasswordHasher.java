@@ -0,0 +1,351 @@
+package application.tools.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import application.exceptions.InvalidUserException;
+
+/**
+ * Hashes and checks {@code User} passwords with BCrypt on a small pool of its own, so a burst of logins queues here instead of tying up request threads.
+ * The pool has {@code knockout.passwords.workers} workers and at most {@code knockout.passwords.queue-capacity} waiting tasks. Past that, or when a task waits
+ * longer than {@code knockout.passwords.timeout} milliseconds, the caller gets an {@code InvalidUserException} right away rather than piling up behind the rest.
+ * A successful check is remembered for {@code knockout.passwords.cache-ttl} milliseconds as an HMAC of the password under a key made at startup,
+ * so a client logging in again shortly after skips BCrypt. Passwords stored before hashing are still accepted in plaintext, see {@code isHashed}
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class PasswordHasher {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	private static final String ALGORITHM = "HmacSHA256";
+	
+	/**
+	 * Hashes and checks passwords. Thread-safe
+	 */
+	private final BCryptPasswordEncoder encoder;
+	
+	/**
+	 * Workers hashing and checking passwords, with a bounded queue
+	 */
+	private final ThreadPoolExecutor workers;
+	
+	/**
+	 * Milliseconds a caller waits for its task, queued and running
+	 */
+	private final long timeout;
+	
+	/**
+	 * Milliseconds a successful check is remembered for
+	 */
+	private final long cacheTtl;
+	
+	/**
+	 * Last successful check of each {@code username}
+	 */
+	private final Map<String, Verified> verified = new ConcurrentHashMap<>();
+	
+	/**
+	 * One {@code Mac} per thread, as a {@code Mac} is not thread-safe
+	 */
+	private final ThreadLocal<Mac> macs;
+	
+	/**
+	 * Time tasks spent queued before a worker took them
+	 */
+	private final Timer queued;
+	
+	/**
+	 * Time workers spent hashing and checking
+	 */
+	private final Timer hashing;
+	private final Timer checking;
+	
+	/**
+	 * Tasks turned away because the queue was full or they took too long
+	 */
+	private final Counter rejected;
+	
+	/**
+	 * Checks answered by {@code verified}
+	 */
+	private final Counter cached;
+	
+	/**
+	 * Logger object
+	 */
+	private final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code PasswordHasher} and registers its metrics
+	 * @param registry
+	 * 		Registry to register the metrics in
+	 * @param threads
+	 * 		Number of workers, or {@code 0} for one per available processor
+	 * @param capacity
+	 * 		Tasks that may wait for a worker
+	 * @param strength
+	 * 		BCrypt log rounds of new hashes. Existing hashes keep the rounds they were made with
+	 * @param timeout
+	 * 		Milliseconds a caller waits for its task
+	 * @param cacheTtl
+	 * 		Milliseconds a successful check is remembered for, {@code 0} to not remember them
+	 */
+	public PasswordHasher(MeterRegistry registry, @Value("${knockout.passwords.workers:4}") int threads,
+			@Value("${knockout.passwords.queue-capacity:8}") int capacity, @Value("${knockout.passwords.strength:10}") int strength,
+			@Value("${knockout.passwords.timeout:5000}") long timeout, @Value("${knockout.passwords.cache-ttl:60000}") long cacheTtl) {
+		
+		this.encoder = new BCryptPasswordEncoder(strength);
+		this.timeout = timeout;
+		this.cacheTtl = cacheTtl;
+		
+		int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger count = new AtomicInteger();
+		workers = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, capacity)), r -> {
+			
+			Thread t = new Thread(r, "password-worker-" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		
+		byte[] key = new byte[32];
+		new SecureRandom().nextBytes(key);
+		SecretKeySpec spec = new SecretKeySpec(key, ALGORITHM);
+		macs = ThreadLocal.withInitial(() -> {
+			try {
+				Mac mac = Mac.getInstance(ALGORITHM);
+				mac.init(spec);
+				return mac;
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException(ALGORITHM + " is not available", e);
+			}
+		});
+		
+		queued = Timer.builder("knockout.passwords.queued")
+				.description("Time password tasks waited for a worker")
+				.register(registry);
+		hashing = Timer.builder("knockout.passwords.work")
+				.description("Time workers spent on one password")
+				.tag("task", "hash")
+				.register(registry);
+		checking = Timer.builder("knockout.passwords.work")
+				.description("Time workers spent on one password")
+				.tag("task", "verify")
+				.register(registry);
+		rejected = Counter.builder("knockout.passwords.rejected")
+				.description("Password tasks turned away because the queue was full or they timed out")
+				.register(registry);
+		cached = Counter.builder("knockout.passwords.cached")
+				.description("Password checks answered by a recent successful one")
+				.register(registry);
+		Gauge.builder("knockout.passwords.pending", workers, w -> w.getQueue().size())
+				.description("Password tasks waiting for a worker")
+				.register(registry);
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Hashes a password to store
+	 * @param raw
+	 * 		Password as entered
+	 * @return
+	 * 		BCrypt hash with its own salt
+	 * @throws InvalidUserException
+	 * 		Throws if too many passwords are being hashed or checked already
+	 */
+	public String hash(String raw) throws InvalidUserException {
+		
+		if (raw == null) { return null; }
+		return run(() -> encoder.encode(raw), hashing);
+	}
+	
+	/**
+	 * Checks a password against a {@code User}'s stored one
+	 * @param username
+	 * 		{@code username} of the {@code User}, which recent successful checks are remembered by
+	 * @param raw
+	 * 		Password as entered
+	 * @param stored
+	 * 		Password stored for the {@code User}, a BCrypt hash or a plaintext one from before hashing
+	 * @return
+	 * 		{@code true} if they match
+	 * @throws InvalidUserException
+	 * 		Throws if too many passwords are being hashed or checked already
+	 */
+	public boolean verify(String username, String raw, String stored) throws InvalidUserException {
+		
+		if (raw == null || stored == null) { return false; }
+		
+		//Plaintext from before hashing, which the caller should replace with a hash
+		if (!isHashed(stored)) { return MessageDigest.isEqual(raw.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8)); }
+		
+		byte[] digest = digest(username, raw);
+		Verified last = username == null ? null : verified.get(username);
+		if (last != null && last.matches(stored, digest)) {
+			
+			cached.increment();
+			return true;
+		}
+		
+		boolean matches = run(() -> encoder.matches(raw, stored), checking);
+		if (matches && username != null && cacheTtl > 0) { verified.put(username, new Verified(stored, digest, System.currentTimeMillis() + cacheTtl)); }
+		return matches;
+	}
+	
+	/**
+	 * Checks if a stored password is a BCrypt hash
+	 * @param stored
+	 * 		Password stored for a {@code User}
+	 * @return
+	 * 		{@code true} if it is a hash, {@code false} if it is plaintext from before hashing
+	 */
+	public boolean isHashed(String stored) { return stored != null && stored.startsWith("$2") && stored.length() == 60; }
+	
+	/**
+	 * Forgets the recent successful check of a {@code User} whose password or {@code username} changed, or who was deleted
+	 * @param username
+	 * 		{@code username} of the {@code User}
+	 */
+	public void forget(String username) { if (username != null) { verified.remove(username); } }
+	
+	/**
+	 * Drops remembered checks that have expired
+	 */
+	@Scheduled(fixedDelayString = "${knockout.passwords.cache-ttl:60000}")
+	public void prune() {
+		
+		long now = System.currentTimeMillis();
+		verified.values().removeIf(v -> v.expiration < now);
+	}
+	
+	/**
+	 * Stops the workers with the application
+	 */
+	@PreDestroy
+	public void shutdown() { workers.shutdown(); }
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Runs a task on the workers and waits for it, timing how long it queued and ran
+	 * @param task
+	 * 		Task to run
+	 * @param work
+	 * 		{@code Timer} of the task's run time
+	 * @return
+	 * 		Result of {@code task}
+	 * @throws InvalidUserException
+	 * 		Throws if the queue is full, the task takes longer than {@code timeout}, or the caller is interrupted
+	 */
+	private <T> T run(Callable<T> task, Timer work) throws InvalidUserException {
+		
+		long submitted = System.nanoTime();
+		Future<T> future;
+		try {
+			future = workers.submit(() -> {
+				
+				queued.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+				return work.recordCallable(task);
+			});
+		} catch (RejectedExecutionException e) {
+			
+			rejected.increment();
+			throw new InvalidUserException("Too many logins at once, try again shortly");
+		}
+		
+		try {
+			return future.get(timeout, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			
+			future.cancel(true);
+			rejected.increment();
+			throw new InvalidUserException("Too many logins at once, try again shortly");
+		} catch (InterruptedException e) {
+			
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InvalidUserException("Interrupted while checking password");
+		} catch (ExecutionException e) {
+			
+			log.info("Error:  password task failed: " + e.getCause());
+			throw new InvalidUserException("Password could not be checked");
+		}
+	}
+	
+	/**
+	 * HMAC of a {@code username} and password, so remembered checks never hold the password itself
+	 */
+	private byte[] digest(String username, String raw) {
+		
+		Mac mac = macs.get();
+		if (username != null) { mac.update(username.getBytes(StandardCharsets.UTF_8)); }
+		mac.update((byte) 0);
+		return mac.doFinal(raw.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+	
+	/**
+	 * Immutable successful check of one {@code User}
+	 */
+	private static class Verified {
+		
+		private final String stored;
+		private final byte[] digest;
+		private final long expiration;
+		
+		private Verified(String stored, byte[] digest, long expiration) {
+			
+			this.stored = stored;
+			this.digest = digest;
+			this.expiration = expiration;
+		}
+		
+		/**
+		 * Checks if this is still current for a stored password and an entered one
+		 */
+		private boolean matches(String stored, byte[] digest) {
+			
+			return expiration >= System.currentTimeMillis() && this.stored.equals(stored) && MessageDigest.isEqual(this.digest, digest);
+		}
+	}
+}
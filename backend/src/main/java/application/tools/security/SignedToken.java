@@ -0,0 +1,47 @@
+package application.tools.security;
+
+/**
+ * Claims of a {@code Token} {@code authenticator} issued by {@code TokenSigner}, read back after its signature was checked
+ *
+ * @author Sean Griffen
+ */
+public final class SignedToken {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	private final int userId;
+	private final String username;
+	private final long expiration;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code SignedToken}, from a checked {@code authenticator} or from the {@code User} holding it
+	 * @param userId
+	 * 		{@code id} of the {@code User} it was issued to
+	 * @param username
+	 * 		{@code username} of the {@code User} when it was issued
+	 * @param expiration
+	 * 		Time in milliseconds it expires at
+	 */
+	public SignedToken(int userId, String username, long expiration) {
+		
+		this.userId = userId;
+		this.username = username;
+		this.expiration = expiration;
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/***************************************************************** START GETTERS/SETTERS *****************************************************************/
+	
+	public int getUserId() { return userId; }
+	
+	public String getUsername() { return username; }
+	
+	public long getExpiration() { return expiration; }
+	
+	/****************************************************************** END GETTERS/SETTERS ******************************************************************/
+}
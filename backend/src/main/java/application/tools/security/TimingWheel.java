@@ -0,0 +1,224 @@
+package application.tools.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: schedules elements for a deadline and hands them back in batches as time advances.
+ * Time is cut into ticks of {@code tickMillis}. Each of {@code LEVELS} wheels has {@code SLOTS} slots, and a slot of level {@code n} covers {@code SLOTS^n} ticks,
+ * so scheduling is O(1) and advancing costs one step per tick plus O(1) per element each time it moves down a level.
+ * Deadlines further out than the top wheel wait in an overflow list that is rechecked each time the top wheel turns.
+ * Elements come out at most one tick late, never early. There is no cancel: owners skip elements that no longer matter when they come out. Not thread-safe
+ *
+ * @author Sean Griffen
+ */
+public class TimingWheel<E> {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Bits of a tick index used by each level
+	 */
+	private static final int BITS = 6;
+	
+	/**
+	 * Slots per level
+	 */
+	private static final int SLOTS = 1 << BITS;
+	
+	private static final int MASK = SLOTS - 1;
+	
+	/**
+	 * Number of levels. With 1 second ticks the wheels reach about 194 days ahead
+	 */
+	private static final int LEVELS = 4;
+	
+	/**
+	 * Milliseconds per tick
+	 */
+	private final long tickMillis;
+	
+	/**
+	 * Slots of every level, each {@code null} until first used
+	 */
+	private final List<Timer<E>>[][] wheels;
+	
+	/**
+	 * Elements due further ahead than the top level reaches
+	 */
+	private List<Timer<E>> overflow = new ArrayList<>();
+	
+	/**
+	 * Elements due at or before the current tick, handed back on the next {@code advance}
+	 */
+	private List<Timer<E>> ready = new ArrayList<>();
+	
+	/**
+	 * Last tick handed back
+	 */
+	private long current;
+	
+	/**
+	 * Number of scheduled elements
+	 */
+	private int size;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs an empty {@code TimingWheel}
+	 * @param tickMillis
+	 * 		Milliseconds per tick, the resolution of deadlines
+	 * @param now
+	 * 		Current time in milliseconds
+	 */
+	@SuppressWarnings("unchecked")
+	public TimingWheel(long tickMillis, long now) {
+		
+		if (tickMillis <= 0) { throw new IllegalArgumentException("Tick must be positive, was " + tickMillis); }
+		
+		this.tickMillis = tickMillis;
+		this.wheels = new List[LEVELS][SLOTS];
+		this.current = now / tickMillis;
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Number of scheduled elements
+	 * @return
+	 * 		Element count
+	 */
+	public int size() { return size; }
+	
+	/**
+	 * Schedules an element
+	 * @param element
+	 * 		Element to schedule
+	 * @param deadline
+	 * 		Time in milliseconds it is due at. A deadline already passed is due on the next {@code advance}
+	 */
+	public void schedule(E element, long deadline) {
+		
+		place(new Timer<>(element, (deadline + tickMillis - 1) / tickMillis));
+		size++;
+	}
+	
+	/**
+	 * Moves time forward, handing back every element whose deadline has passed
+	 * @param now
+	 * 		Current time in milliseconds. Earlier than the last {@code advance} does nothing
+	 * @param due
+	 * 		Called with each due element, in deadline order
+	 * @return
+	 * 		Number of elements handed back
+	 */
+	public int advance(long now, Consumer<? super E> due) {
+		
+		int count = fire(due);
+		
+		long target = now / tickMillis;
+		while (current < target) {
+			
+			current++;
+			//Higher levels turn first, moving their elements into the levels below before those are read
+			for (int level = LEVELS - 1; level > 0; level--) {
+				if ((current & ((1L << (BITS * level)) - 1)) == 0) { cascade(level); }
+			}
+			
+			List<Timer<E>> slot = wheels[0][(int) (current & MASK)];
+			if (slot != null && !slot.isEmpty()) {
+				
+				wheels[0][(int) (current & MASK)] = null;
+				ready.addAll(slot);
+			}
+			count += fire(due);
+		}
+		return count;
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Puts a timer in the lowest level whose range reaches its tick
+	 */
+	private void place(Timer<E> t) {
+		
+		long delta = t.tick - current;
+		if (delta <= 0) {
+			
+			ready.add(t);
+			return;
+		}
+		
+		for (int level = 0; level < LEVELS; level++) {
+			
+			if (delta < (1L << (BITS * (level + 1)))) {
+				
+				int index = (int) ((t.tick >>> (BITS * level)) & MASK);
+				List<Timer<E>> slot = wheels[level][index];
+				if (slot == null) { wheels[level][index] = slot = new ArrayList<>(); }
+				slot.add(t);
+				return;
+			}
+		}
+		overflow.add(t);
+	}
+	
+	/**
+	 * Moves the timers of a level's current slot down, and when the top level turns, the overflow too
+	 */
+	private void cascade(int level) {
+		
+		int index = (int) ((current >>> (BITS * level)) & MASK);
+		List<Timer<E>> slot = wheels[level][index];
+		wheels[level][index] = null;
+		if (slot != null) { for (Timer<E> t : slot) { place(t); } }
+		
+		if (level == LEVELS - 1 && !overflow.isEmpty()) {
+			
+			List<Timer<E>> waiting = overflow;
+			overflow = new ArrayList<>();
+			for (Timer<E> t : waiting) { place(t); }
+		}
+	}
+	
+	/**
+	 * Hands back the ready timers
+	 */
+	private int fire(Consumer<? super E> due) {
+		
+		if (ready.isEmpty()) { return 0; }
+		
+		List<Timer<E>> firing = ready;
+		ready = new ArrayList<>();
+		firing.sort((a, b) -> Long.compare(a.tick, b.tick));
+		for (Timer<E> t : firing) { due.accept(t.element); }
+		size -= firing.size();
+		return firing.size();
+	}
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+	
+	/**
+	 * Scheduled element with its deadline in ticks
+	 */
+	private static class Timer<E> {
+		
+		private final E element;
+		private final long tick;
+		
+		private Timer(E element, long tick) {
+			
+			this.element = element;
+			this.tick = tick;
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package application.tools.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues and checks self-describing {@code Token} {@code authenticator}s, so who a {@code Token} belongs to is known without reading the database.
+ * An {@code authenticator} is URL-safe Base64 of a version byte, the {@code User}'s {@code id}, the expiration, 8 random bytes and the {@code username},
+ * followed by the first {@code MAC_BYTES} bytes of an HMAC-SHA256 of all of that.
+ * The key is read from {@code knockout.tokens.secret} as Base64. Without one, a random key is made at startup and {@code authenticator}s are only
+ * self-describing until the next restart; they still work after it through the database.
+ * Logging out or logging in again revokes the old {@code authenticator} until it would have expired anyway
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class TokenSigner {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * First byte of every signed {@code authenticator}
+	 */
+	private static final byte VERSION = 1;
+	
+	/**
+	 * Bytes of the HMAC kept. 128 bits
+	 */
+	private static final int MAC_BYTES = 16;
+	
+	/**
+	 * Bytes before the {@code username}: version, {@code id}, expiration and nonce
+	 */
+	private static final int HEADER_BYTES = 1 + 4 + 8 + 8;
+	
+	private static final String ALGORITHM = "HmacSHA256";
+	
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	
+	/**
+	 * One {@code Mac} per thread, as a {@code Mac} is not thread-safe
+	 */
+	private final ThreadLocal<Mac> macs;
+	
+	/**
+	 * Revoked {@code authenticator}s that have not expired yet
+	 */
+	private final Set<String> revoked = ConcurrentHashMap.newKeySet();
+	
+	/**
+	 * Revoked {@code authenticator}s by expiration, after which they fail on their own and are dropped from {@code revoked}. Guarded by its own monitor
+	 */
+	private final TimingWheel<String> expiring = new TimingWheel<>(1000, System.currentTimeMillis());
+	
+	/**
+	 * Logger object
+	 */
+	private final Logger log = LoggerFactory.getLogger(TokenSigner.class);
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code TokenSigner}
+	 * @param secret
+	 * 		Base64 HMAC key, at least 32 bytes. Empty for a random key
+	 * @throws IllegalArgumentException
+	 * 		Throws if {@code secret} is not Base64 or is shorter than 32 bytes
+	 */
+	public TokenSigner(@Value("${knockout.tokens.secret:}") String secret) {
+		
+		byte[] key;
+		if (secret == null || secret.trim().isEmpty()) {
+			
+			log.info("Error:  knockout.tokens.secret is not set, signing tokens with a random key until restart");
+			key = new byte[32];
+			new SecureRandom().nextBytes(key);
+		} else { key = Base64.getDecoder().decode(secret.trim()); }
+		if (key.length < 32) { throw new IllegalArgumentException("knockout.tokens.secret must be at least 32 bytes, was " + key.length); }
+		
+		SecretKeySpec spec = new SecretKeySpec(key, ALGORITHM);
+		macs = ThreadLocal.withInitial(() -> {
+			try {
+				Mac mac = Mac.getInstance(ALGORITHM);
+				mac.init(spec);
+				return mac;
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException(ALGORITHM + " is not available", e);
+			}
+		});
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Issues a signed {@code authenticator}
+	 * @param userId
+	 * 		{@code id} of the {@code User}
+	 * @param username
+	 * 		{@code username} of the {@code User}
+	 * @param expiration
+	 * 		Time in milliseconds the {@code Token} expires at
+	 * @return
+	 * 		Signed {@code authenticator}
+	 */
+	public String sign(int userId, String username, long expiration) {
+		
+		byte[] name = username == null ? new byte[0] : username.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + name.length + MAC_BYTES);
+		buffer.put(VERSION).putInt(userId).putLong(expiration).put(Authenticators.nextBytes(), 0, 8).put(name);
+		
+		byte[] bytes = buffer.array();
+		Mac mac = macs.get();
+		mac.update(bytes, 0, HEADER_BYTES + name.length);
+		System.arraycopy(mac.doFinal(), 0, bytes, HEADER_BYTES + name.length, MAC_BYTES);
+		return ENCODER.encodeToString(bytes);
+	}
+	
+	/**
+	 * Checks an {@code authenticator} and reads its claims
+	 * @param authenticator
+	 * 		{@code authenticator} to check
+	 * @return
+	 * 		Its claims, or {@code null} if it was not issued by this {@code TokenSigner}, was tampered with, has expired or was revoked
+	 */
+	public SignedToken verify(String authenticator) {
+		
+		byte[] bytes = Authenticators.decode(authenticator);
+		if (bytes == null || bytes.length < HEADER_BYTES + MAC_BYTES || bytes[0] != VERSION) { return null; }
+		
+		int signed = bytes.length - MAC_BYTES;
+		Mac mac = macs.get();
+		mac.update(bytes, 0, signed);
+		byte[] expected = Arrays.copyOf(mac.doFinal(), MAC_BYTES);
+		if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, signed, bytes.length))) { return null; }
+		
+		ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, signed - 1);
+		int userId = buffer.getInt();
+		long expiration = buffer.getLong();
+		if (expiration < System.currentTimeMillis() || revoked.contains(authenticator)) { return null; }
+		
+		String username = new String(bytes, HEADER_BYTES, signed - HEADER_BYTES, StandardCharsets.UTF_8);
+		return new SignedToken(userId, username, expiration);
+	}
+	
+	/**
+	 * Revokes an {@code authenticator} so {@code verify} rejects it. Does nothing if it was not issued by this {@code TokenSigner} or has expired
+	 * @param authenticator
+	 * 		{@code authenticator} to revoke
+	 */
+	public void revoke(String authenticator) {
+		
+		SignedToken claims = verify(authenticator);
+		if (claims == null) { return; }
+		
+		revoked.add(authenticator);
+		synchronized (expiring) { expiring.schedule(authenticator, claims.getExpiration()); }
+	}
+	
+	/**
+	 * Drops revoked {@code authenticator}s that have expired since, as {@code verify} rejects them anyway. Only touches those that expired
+	 */
+	@Scheduled(fixedDelayString = "${knockout.tokens.prune-interval:60000}")
+	public void prune() {
+		
+		synchronized (expiring) { expiring.advance(System.currentTimeMillis(), revoked::remove); }
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
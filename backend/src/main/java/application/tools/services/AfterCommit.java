@@ -0,0 +1,42 @@
+package application.tools.services;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory updates that mirror database writes until the writes are committed, so a rollback never leaves them out of step with the database
+ *
+ * @author Sean Griffen
+ */
+final class AfterCommit {
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	private AfterCommit() {}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Runs an update once the current transaction commits, or right away outside of one. Dropped if the transaction rolls back
+	 * @param update
+	 * 		Update to run. Anything it reads from entities should be copied beforehand, as they may change before the commit
+	 */
+	static void run(Runnable update) {
+		
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			
+			update.run();
+			return;
+		}
+		
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			
+			@Override
+			public void afterCommit() { update.run(); }
+		});
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+}
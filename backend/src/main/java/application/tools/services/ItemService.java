@@ -2,16 +2,21 @@ package application.tools.services;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.stereotype.Service;
 
 import application.exceptions.InvalidAdministratorException;
 import application.exceptions.InvalidItemException;
 import application.exceptions.InvalidTokenException;
+import application.items.ItemCatalogue;
 import application.items.ItemRepository;
 import application.items.ItemInterface;
 import application.tools.embeddables.Token;
+import application.tools.security.SignedToken;
+import application.tools.security.TokenSigner;
 import application.tools.wrappers.ItemGetWrapper;
+import application.users.TokenSweeper;
 import application.users.User;
 import application.users.UserInterface;
 import application.users.UserRepository;
@@ -34,6 +39,18 @@ public class ItemService {
 	 * User Repository accessed by this service
 	 */
 	private UserRepository uRepo;
+	/**
+	 * In-memory copy of the {@code Item} table, dropped when {@code Item}s are deleted
+	 */
+	private ItemCatalogue catalogue;
+	/**
+	 * Checks signed {@code Token}s without the database
+	 */
+	private TokenSigner signer;
+	/**
+	 * Knows which {@code Token}s have expired without the database
+	 */
+	private TokenSweeper sweeper;
 	
 	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
 	
@@ -45,11 +62,20 @@ public class ItemService {
 	 * 		{@code ItemRepository} object desired
 	 * @param uRepo
 	 * 		{@code UserRepository} object desired
+	 * @param catalogue
+	 * 		{@code ItemCatalogue} object desired
+	 * @param signer
+	 * 		{@code TokenSigner} object desired
+	 * @param sweeper
+	 * 		{@code TokenSweeper} object desired
 	 */
-	public ItemService (ItemRepository iRepo, UserRepository uRepo) {
+	public ItemService (ItemRepository iRepo, UserRepository uRepo, ItemCatalogue catalogue, TokenSigner signer, TokenSweeper sweeper) {
 		
 		this.iRepo = iRepo;
 		this.uRepo = uRepo;
+		this.catalogue = catalogue;
+		this.signer = signer;
+		this.sweeper = sweeper;
 	}
 	
 	/******************************************************************* END CONSTRUCTORS ********************************************************************/
@@ -130,6 +156,7 @@ public class ItemService {
 		validateAdminToken(wrap.getAdmin());
 		
 		iRepo.deleteById(wrap.getToGet());
+		catalogue.invalidate();
 	}
 	
 	/**
@@ -146,6 +173,7 @@ public class ItemService {
 		validateAdminToken(token);
 		
 		iRepo.deleteAll();
+		catalogue.invalidate();
 	}
 	
 	/******************************************************************* END DELETE HELPERS ******************************************************************/
@@ -153,7 +181,7 @@ public class ItemService {
 	/***************************************************************** START PRIVATE METHODS *****************************************************************/
 	
 	/**
-	 * Gets an {@code User} from the database based on an inputted {@code Token}
+	 * Gets an {@code User} from the database based on an inputted {@code Token}, reading it once
 	 * @param token
 	 * 		{@code Token} for the {@code User} trying to get
 	 * @return
@@ -164,36 +192,41 @@ public class ItemService {
 	 */
 	private UserInterface getUserToken(Token token) throws InvalidTokenException {
 		
-		List<User> users = uRepo.findAll();
-		
-		for (UserInterface u : users) {
-			
-			if (token.getAuthenticator().equals(u.getToken().getAuthenticator())) { return u; }
-		}
+		//Already in the persistence context if validateUserToken had to read it
+		Optional<User> user = uRepo.findById(validateUserToken(token));
+		if (user.isPresent()) { return user.get(); }
 		
 		throw new InvalidTokenException("Token entered does not correspond to an existing User");
 	}
 	
 	/**
-	 * Validates a {@code Token} by checking if the {@code expiration} is less than the {@code System.currentTime}
-	 * Valid if {@code expiration} is less than {@code System.currentTime}, invalid otherwise
+	 * Validates a {@code Token} by checking that the expiration stored for it has not passed, and finds who holds it.
+	 * {@code TokenSweeper} is the only expiry check for tracked {@code Token}s, and a signed one it tracks for the {@code User} it names is never read from the database
 	 * @param toValidate
 	 * 		{@code Token} to validate
+	 * @return
+	 * 		{@code id} of the {@code User} holding {@code toValidate}
 	 * @throws InvalidTokenException
 	 * 		Throws if {@code Token} did not have an existing or matching {@code authenticator} or was expired
 	 */
-	private void validateUserToken(Token toValidate) throws InvalidTokenException {
+	private int validateUserToken(Token toValidate) throws InvalidTokenException {
 		
 		//Can't do anything if token is null
-		if (toValidate == null) { throw new InvalidTokenException("Token entered is null"); }
+		if (toValidate == null || toValidate.getAuthenticator() == null) { throw new InvalidTokenException("Token entered is null"); }
 		
-		//If token is expired, create a new token
-		if (!toValidate.isValid()) {
-			
-			getUserToken(toValidate).setToken(new Token());
-			uRepo.save((User) getUserToken(toValidate));
-			throw new InvalidTokenException("Token entered is expired");
-		}
+		//The stored expiration decides, not the one sent with the request
+		String authenticator = toValidate.getAuthenticator();
+		if (sweeper.isExpired(authenticator)) { throw new InvalidTokenException("Token entered is expired"); }
+		
+		SignedToken claims = signer.verify(authenticator);
+		Integer holder = sweeper.holder(authenticator);
+		if (claims != null && holder != null && holder == claims.getUserId()) { return holder; }
+		
+		//Anything else is read once through the authenticator index
+		Optional<User> user = uRepo.findFirstByTokenAuthenticator(authenticator);
+		if (!user.isPresent()) { throw new InvalidTokenException("Token entered does not correspond to an existing User"); }
+		if (!user.get().getToken().isValid()) { throw new InvalidTokenException("Token entered is expired"); }
+		return user.get().getId();
 	}
 	
 	/**
@@ -209,9 +242,6 @@ public class ItemService {
 		//Can't do anything if token is null
 		if (toValidate == null) { throw new InvalidTokenException("Token entered is null"); }
 		
-		//If token is expired, create a new token
-		validateUserToken(toValidate);
-		
 		UserInterface u = getUserToken(toValidate);
 		
 		if (u.getAuthLevel() != 2) { throw new InvalidAdministratorException("Administrator entered is not valid. Check username, password, and/or id"); }
@@ -1,5 +1,13 @@
 package application.tools.services;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.stereotype.Service;
 
 import application.items.*;
@@ -24,16 +32,58 @@ public class MainService {
 	 */
 	private ItemRepository iRepo;
 	
+	/**
+	 * {@code EntityManagerFactory} whose second-level cache is reported
+	 */
+	private EntityManagerFactory emf;
+	
 	/**
 	 * Constructs a {@code MainController} object with repository objects {@code UserRepository} and {@code ItemRepository}
 	 * @param uRepo
 	 * 		{@code UserRepository} object desired
 	 * @param iRepo
 	 * 		{@code ItemRepository} object desired
+	 * @param emf
+	 * 		{@code EntityManagerFactory} object desired
 	 */
-	public MainService (UserRepository uRepo, ItemRepository iRepo) {
+	public MainService (UserRepository uRepo, ItemRepository iRepo, EntityManagerFactory emf) {
 		
 		this.uRepo = uRepo;
 		this.iRepo = iRepo;
+		this.emf = emf;
+	}
+	
+	/**
+	 * Gets the hit, miss and put counts of every second-level cache region, and its size if known. Counts are kept since startup
+	 * @return
+	 * 		{@code Map} of counts by name, by region name
+	 */
+	public Map<String, Map<String, Long>> getCacheStatistics() {
+		
+		Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+		Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+		
+		for (String region : stats.getSecondLevelCacheRegionNames()) {
+			
+			CacheRegionStatistics r = stats.getCacheRegionStatistics(region);
+			if (r == null) { continue; }
+			
+			Map<String, Long> counts = new LinkedHashMap<>();
+			counts.put("hits", r.getHitCount());
+			counts.put("misses", r.getMissCount());
+			counts.put("puts", r.getPutCount());
+			//Not every provider reports its size
+			if (r.getElementCountInMemory() >= 0) { counts.put("size", r.getElementCountInMemory()); }
+			result.put(region, counts);
+		}
+		
+		//Totals for every cached query
+		Map<String, Long> queries = new LinkedHashMap<>();
+		queries.put("hits", stats.getQueryCacheHitCount());
+		queries.put("misses", stats.getQueryCacheMissCount());
+		queries.put("puts", stats.getQueryCachePutCount());
+		result.put("queries", queries);
+		
+		return result;
 	}
 }
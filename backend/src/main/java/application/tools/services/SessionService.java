@@ -4,11 +4,18 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import application.exceptions.BackendException;
 import application.exceptions.InvalidAdministratorException;
@@ -18,23 +25,37 @@ import application.exceptions.InvalidModeratorException;
 import application.exceptions.InvalidSessionException;
 import application.exceptions.InvalidTokenException;
 import application.exceptions.InvalidUserException;
+import application.games.GameCheckpointer;
+import application.games.GameEngine;
+import application.games.GameExecutors;
+import application.games.GameState;
+import application.games.Leaderboard;
+import application.games.Standing;
+import application.games.GameTask;
 import application.items.Item;
 import application.items.ItemInterface;
-import application.items.ItemRepository;
+import application.items.ItemCatalogue;
 import application.sessions.Session;
 import application.sessions.SessionInterface;
 import application.sessions.SessionRepository;
 import application.tools.embeddables.Location;
 import application.tools.embeddables.Token;
+import application.tools.security.SignedToken;
+import application.tools.security.TokenSigner;
+import application.tools.geometry.Distance;
 import application.tools.wrappers.ListMapReturnWrapper;
 import application.tools.wrappers.MultiListReturnWrapper;
 import application.tools.wrappers.OnTapUpdateWrapper;
 import application.tools.wrappers.SessionAddUpdateWrapper;
 import application.tools.wrappers.SessionAddUserWrapper;
 import application.tools.wrappers.SessionStartUpdateWrapper;
+import application.users.LocationIngest;
+import application.users.TokenSweeper;
 import application.users.User;
 import application.users.UserInterface;
+import application.users.UserPosition;
 import application.users.UserRepository;
+import application.users.UserStanding;
 
 /**
  * Service for {@code SessionController}
@@ -42,6 +63,7 @@ import application.users.UserRepository;
  * @author Sean Griffen
  */
 @Service
+@Transactional
 public class SessionService {
 	
 	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
@@ -59,29 +81,102 @@ public class SessionService {
 	private UserRepository uRepo;
 	
 	/**
-	 * {@code ItemRepository} accessed by this service
+	 * {@code ItemCatalogue} that spawned {@code Item}s are drawn from
 	 */
 	@Autowired
-	private ItemRepository iRepo;
+	private ItemCatalogue catalogue;
+	
+	/**
+	 * {@code GameEngine} holding started {@code Session}s
+	 */
+	@Autowired
+	private GameEngine engine;
+	
+	/**
+	 * {@code GameCheckpointer} writing started {@code Session}s back to the database
+	 */
+	@Autowired
+	private GameCheckpointer checkpointer;
+	
+	/**
+	 * {@code LocationIngest} holding {@code Location}s not yet written to the database
+	 */
+	@Autowired
+	private LocationIngest ingest;
+	
+	/**
+	 * {@code GameExecutors} whose roster {@code Mailbox}es run the changes to each {@code Session}'s players one at a time
+	 */
+	@Autowired
+	private GameExecutors executors;
+	
+	/**
+	 * {@code Leaderboard} ranking the players of each {@code Session}
+	 */
+	@Autowired
+	private Leaderboard leaderboard;
+	
+	/**
+	 * {@code TokenSigner} checking signed {@code Token}s without the database
+	 */
+	@Autowired
+	private TokenSigner signer;
+	
+	/**
+	 * {@code TokenSweeper} knowing which {@code Token}s have expired without the database
+	 */
+	@Autowired
+	private TokenSweeper sweeper;
+	
+	/**
+	 * Runs each roster change in its own transaction on the roster's worker
+	 */
+	private TransactionTemplate transaction;
 	
 	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
 	
 	/******************************************************************* START CONTRUCTORS *******************************************************************/
 	
 	/**
-	 * Constructs a {@code SessionService} with a {@code SessionRepository}, {@code ItemRepository} and a {@code UserRepository}
+	 * Constructs a {@code SessionService} with a {@code SessionRepository}, {@code ItemCatalogue} and a {@code UserRepository}
 	 * @param sRepo
 	 * 		{@code SessionRepository} to use
 	 * @param uRepo
 	 * 		{@code UserRepository} to use
-	 * @param iRepo
-	 * 		{@code ItemRepository} to use
+	 * @param catalogue
+	 * 		{@code ItemCatalogue} to use
+	 * @param engine
+	 * 		{@code GameEngine} to use
+	 * @param checkpointer
+	 * 		{@code GameCheckpointer} to use
+	 * @param ingest
+	 * 		{@code LocationIngest} to use
+	 * @param executors
+	 * 		{@code GameExecutors} to use
+	 * @param leaderboard
+	 * 		{@code Leaderboard} to use
+	 * @param signer
+	 * 		{@code TokenSigner} to use
+	 * @param sweeper
+	 * 		{@code TokenSweeper} to use
+	 * @param transactionManager
+	 * 		Transaction manager of the database
 	 */
-	public SessionService(SessionRepository sRepo, UserRepository uRepo, ItemRepository iRepo) {
-		
+	public SessionService(SessionRepository sRepo, UserRepository uRepo, ItemCatalogue catalogue, GameEngine engine, GameCheckpointer checkpointer, LocationIngest ingest,
+			GameExecutors executors, Leaderboard leaderboard, TokenSigner signer, TokenSweeper sweeper,
+			PlatformTransactionManager transactionManager) {
+			
 		this.sRepo = sRepo;
 		this.uRepo = uRepo;
-		this.iRepo = iRepo;
+		this.catalogue = catalogue;
+		this.engine = engine;
+		this.checkpointer = checkpointer;
+		this.ingest = ingest;
+		this.executors = executors;
+		this.leaderboard = leaderboard;
+		this.signer = signer;
+		this.sweeper = sweeper;
+		this.transaction = new TransactionTemplate(transactionManager);
 	}
 	/******************************************************************* END CONSTRUCTORS ********************************************************************/
 	
@@ -94,7 +189,7 @@ public class SessionService {
 	/****************************************************************** START POST HELPERS *******************************************************************/
 	
 	/**
-	 * Adds a {@code Session} to the database
+	 * Adds a {@code Session} to the database. Runs outside the service's transaction so a violated unique name can still be reported
 	 * @param wrapper
 	 * 		See {@code SessionAddUpdateWrapper}
 	 * @return
@@ -104,6 +199,7 @@ public class SessionService {
 	 * @throws InvalidModeratorException 
 	 * @throws InvalidTokenException 
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public int addSession(SessionAddUpdateWrapper wrapper) throws InvalidSessionException, InvalidTokenException, InvalidModeratorException {
 		
 		Random rand = new Random();
@@ -115,34 +211,17 @@ public class SessionService {
 		//Check if toStart has a blank name, has no center, or has a radius = 0
 		if (toStart.getName() == null || toStart.getName().trim().isEmpty() || toStart.getCenter() == null || toStart.getRadius() == 0)
 						   { throw new InvalidSessionException("Cannot add a Session that has a blank name, no center, or radius of 0."); }
-		List<Session> sessions = sRepo.findAll();
+		if (sRepo.existsByName(toStart.getName())) { throw new InvalidSessionException("Name for Session already exists."); }
 		
-		for (Session s : sessions) {
-			
-			if (s.getName().equals(toStart.getName())) { throw new InvalidSessionException("Name for Session already exists."); }
-		}
-		
-		toStart.setPasscode(rand.nextInt(999998) + 1);
-		boolean passEqual = true;
-		
-		if (!sessions.isEmpty()) {
-			while (passEqual) {
-				
-				for (SessionInterface s : sessions) {
-					
-					if (s.getPasscode() == toStart.getPasscode()) {
-						
-						passEqual = true;
-						break;
-					} else { passEqual = false; }
-				}
-			}
-		}
+		//Draw passcodes until one is not in use
+		do { toStart.setPasscode(rand.nextInt(999998) + 1); }
+		while (sRepo.existsByPasscode(toStart.getPasscode()));
 		
 		generateNewToken(toStart);
 		
-		//Save session to database
-		sRepo.save((Session) toStart);
+		//Save session to database. The unique name constraint catches a name claimed since the check above
+		try { sRepo.save((Session) toStart); }
+		catch (DataIntegrityViolationException e) { throw new InvalidSessionException("Name for Session already exists."); }
 		
 		int result = toStart.getPasscode();
 		return result;
@@ -165,11 +244,9 @@ public class SessionService {
 	 */
 	public SessionInterface getSession(Token get) throws InvalidTokenException, InvalidSessionException {
 		
-		//Validate Token
-		this.validateSessionToken(get);
-		
+		//Read once, with its players, and validated by the stored expiration
 		SessionInterface sess = getSessionToken(get);
-		if (sess == null) { throw new InvalidSessionException("SessionInterface does not exist"); }
+		if (!sess.getToken().isValid()) { throw new InvalidTokenException("Token entered is expired"); }
 		
 		return sess;
 	}
@@ -228,7 +305,6 @@ public class SessionService {
 			if (tokens.indexOf(t) == 0) { from = getSession(t); }
 			else {
 				
-				validateUserToken(t);
 				toGet.add(getUserToken(t));
 			}
 		}
@@ -252,6 +328,9 @@ public class SessionService {
 	 */
 	public List<UserInterface> getUserInRadius(Token token) throws InvalidTokenException, InvalidSessionException {
 		
+		GameState game = getGame(token);
+		if (game != null) { return engine.getPlayersInPlayArea(game); }
+		
 		//Get Session from token
 		SessionInterface from = this.getSession(token);
 		
@@ -278,21 +357,83 @@ public class SessionService {
 	 */
 	public List<UserInterface> getAllUsers(Token token) throws InvalidTokenException, InvalidSessionException {
 		
+		GameState game = getGame(token);
+		if (game != null) {
+			
+			List<UserInterface> players = engine.getPlayers(game);
+			return players.isEmpty() ? null : players;
+		}
+		
 		SessionInterface from = getSession(token);
 		
 		if (from.getUsers().isEmpty()) { return null; }
 		
-		List<UserInterface> users = from.getUsers();
+		List<UserInterface> users = new ArrayList<>(from.getUsers());
 		
 		return users;
 	}
 	
+	/**
+	 * Gets the players of a {@code Session} in leaderboard order, from the {@code Leaderboard} rather than the {@code User}s themselves.
+	 * A running game's players are tracked from when it started. Any other {@code Session} is read from the database the first time it is asked for
+	 * @param token
+	 * 		{@code token} of the {@code Session} to grab from
+	 * @return
+	 * 		{@code Standing} of each player in the {@code Session}, best first
+	 * @throws InvalidTokenException
+	 * 		Throws if {@code Token} did not have an existing or matching {@code authenticator} or was expired
+	 * @throws InvalidSessionException
+	 * 		Throws if the {@code Session} trying to grab from does not exist
+	 */
+	public List<? extends UserStanding> getStandings(Token token) throws InvalidTokenException, InvalidSessionException {
+		
+		//Validates the Token, and loads a started Session into the engine, which tracks its players
+		getGame(token);
+		
+		String session = token.getAuthenticator();
+		if (!leaderboard.isTracked(session)) { leaderboard.track(session, uRepo.findStandingsBySession(session)); }
+		
+		List<Standing> standings = leaderboard.top(session, Integer.MAX_VALUE);
+		return standings == null ? new ArrayList<>() : standings;
+	}
+	
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public ListMapReturnWrapper<UserInterface, Location, ItemInterface> getOnTap(List<Token> tokens) throws InvalidListException, InvalidTokenException, InvalidSessionException, InvalidUserException {
 		
+		//Check if first token is session token, and second is the user that tapped
+		if (tokens.size() < 2)
+			{ throw new InvalidListException("List not in expected format"); }
+		
+		//Running games are answered from memory without a transaction, and the engine knows the Tokens of their players
+		GameState game = tokens.get(0) == null ? null : engine.find(tokens.get(0).getAuthenticator());
+		if (game != null) { return engine.getOnTap(game, tokens.get(1) == null ? null : tokens.get(1).getAuthenticator()); }
+		
+		try { return inTransaction(() -> getOnTapFromDatabase(tokens)); }
+		catch (InvalidListException | InvalidTokenException | InvalidSessionException | InvalidUserException e) { throw e; }
+		catch (BackendException e) { throw new IllegalStateException(e); }
+	}
+	
+	/**
+	 * Body of {@code getOnTap} for games the engine is not running. Runs in a transaction
+	 */
+	private ListMapReturnWrapper<UserInterface, Location, ItemInterface> getOnTapFromDatabase(List<Token> tokens) throws InvalidTokenException, InvalidSessionException,
+			InvalidUserException {
+		
+		//Sessions started before the engine last loaded them are resolved in memory
+		GameState game = getGame(tokens.get(0));
+		if (game != null) { return engine.getOnTap(game, tokens.get(1) == null ? null : tokens.get(1).getAuthenticator()); }
+		
+		//Get Session and the User that tapped, which must be in it
+		SessionInterface from = getSession(tokens.get(0));
+		UserInterface tapper = getUserToken(tokens.get(1));
+		List<UserPosition> positions = uRepo.findPositionsBySession(from.getToken().getAuthenticator());
+		if (positions.stream().noneMatch(p -> p.getId() == tapper.getId()))
+			{ throw new InvalidUserException("User '" + tapper.getUsername() + "' does not exist in SessionInterface #" + from.getId()); }
+		
 		//Get Items in view radius
-		Map<Location, ItemInterface> items = getItemsOnTapHelper(tokens);
+		Map<Location, ItemInterface> items = getItemsOnTapHelper(tapper, from);
 		//Get Users in view radius
-		List<UserInterface> users = getUsersOnTapHelper(tokens);
+		List<UserInterface> users = getUsersOnTapHelper(tapper, positions);
 		
 		return new ListMapReturnWrapper<UserInterface, Location, ItemInterface>(users, items);
 	}
@@ -308,12 +449,26 @@ public class SessionService {
 	 * @throws InvalidModeratorException 
 	 * @throws InvalidTokenException 
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public String startSession(SessionStartUpdateWrapper wrapper) throws InvalidSessionException, InvalidTokenException, InvalidModeratorException {
 		
+		int id = sessionId(wrapper.getSession());
+		try { return serially(id, () -> startSessionOnRoster(wrapper)); }
+		catch (InvalidSessionException | InvalidTokenException | InvalidModeratorException e) { throw e; }
+		catch (BackendException e) { throw new IllegalStateException(e); }
+	}
+	
+	/**
+	 * Body of {@code startSession}. Runs on the {@code Session}'s roster {@code Mailbox}, in a transaction
+	 */
+	private String startSessionOnRoster(SessionStartUpdateWrapper wrapper) throws InvalidSessionException, InvalidTokenException, InvalidModeratorException {
+		
 		Random rand = new Random();
 		
 		validateModeraterToken(wrapper.getUser());
 		SessionInterface session = getSession(wrapper.getSession());
+		//Items of every player in one query, read by the engine below
+		uRepo.findWithItemsBySession(session.getId());
 		
 		//Set targets
 		setTargetHelper(session.getUsers());
@@ -326,8 +481,13 @@ public class SessionService {
 		
 		//session.setRandTime((6 / session.getUsers().size() + rand.nextInt(2) + rand.nextDouble() - 1) + System.currentTimeMillis());
 		
+		//Written in JDBC batches when the transaction commits
 		sRepo.save((Session) session);
 		
+		//Hand the running game over to the engine, with any Locations not yet flushed
+		for (UserInterface u : session.getUsers()) { ingest.apply(u); }
+		engine.start(session);
+		
 		return "Started Session '" + session.getName() + "'";
 	}
 	
@@ -344,37 +504,57 @@ public class SessionService {
 	 * @throws InvalidSessionException
 	 * 		Throws if the {@code Session} trying to add to does not exist
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public Token addUser(SessionAddUserWrapper wrap) throws InvalidListException, InvalidTokenException, InvalidSessionException {
 		
+		//Find the Session's Mailbox, the Session is read again there
+		Optional<Session> withCode = sRepo.findFirstByPasscode(wrap.getPasscode());
+		if (!withCode.isPresent()) { throw new InvalidSessionException("Passcode does not correspond to an existing Session"); }
+		int id = withCode.get().getId();
+		
+		try { return serially(id, () -> addUserOnRoster(wrap)); }
+		catch (InvalidListException | InvalidTokenException | InvalidSessionException e) { throw e; }
+		catch (BackendException e) { throw new IllegalStateException(e); }
+	}
+	
+	/**
+	 * Body of {@code addUser}. Runs on the {@code Session}'s roster {@code Mailbox}, in a transaction
+	 */
+	private Token addUserOnRoster(SessionAddUserWrapper wrap) throws InvalidListException, InvalidTokenException, InvalidSessionException {
+		
 		int sessCode = wrap.getPasscode();
 		Token toAdd = wrap.getToAdd();
 		SessionInterface addTo = null;
 		List<UserInterface> uAdd = new ArrayList<>();
 		
 		//Check if passcode corresponds to an existing session
-		for (SessionInterface s : sRepo.findAll()) {
-			
-			if (s.getPasscode() == sessCode) { addTo = (SessionInterface) s; }
-		}
+		Optional<Session> withCode = sRepo.findFirstByPasscode(sessCode);
+		if (withCode.isPresent()) { addTo = withCode.get(); }
 		if (addTo == null) { throw new InvalidSessionException("Passcode does not correspond to an existing Session"); }
 		if (addTo.getStarted() != 0) { throw new InvalidListException("Session has been started. Cannot add any more users"); }
 		
 		//Validate and decode Tokens
-			
-		validateUserToken(toAdd);
-			
+		
+		UserInterface user = getUserToken(toAdd);
+		
 		if (!addTo.getUsers().isEmpty()) {
-				
+			
 			//If the session does not already have the user trying to add, and the user isn't in a session already, add it.
-			if (!addTo.getUsers().contains(getUserToken(toAdd)) && getUserToken(toAdd).getSession().size() <= 0) { uAdd.add(getUserToken(toAdd)); }
+			if (!addTo.getUsers().contains(user) && user.getSession().size() <= 0) { uAdd.add(user); }
 		}
 		//If the session has no users, and the user trying to add isn't already in a session
-		else if (getUserToken(toAdd).getSession().size() <= 0) { uAdd.add(getUserToken(toAdd)); }
+		else if (user.getSession().size() <= 0) { uAdd.add(user); }
 		
 		if (uAdd.isEmpty()) { throw new InvalidListException("No users were added to the Session"); }
 		
 		//Add users
-		for (UserInterface u : uAdd) { addUserHelper(u, addTo); }
+		for (UserInterface u : uAdd) {
+			
+			addUserHelper(u, addTo);
+			String joined = addTo.getToken().getAuthenticator();
+			Standing player = Standing.of(u);
+			AfterCommit.run(() -> leaderboard.join(joined, player));
+		}
 		
 		return addTo.getToken();
 	}
@@ -390,8 +570,23 @@ public class SessionService {
 	 * @throws InvalidSessionException
 	 * 		Throws if {@code Session} trying to stop does not exist
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public String stopSession(Token token) throws InvalidTokenException, InvalidSessionException {
 		
+		int id = sessionId(token);
+		try { return serially(id, () -> stopSessionOnRoster(token)); }
+		catch (InvalidTokenException | InvalidSessionException e) { throw e; }
+		catch (BackendException e) { throw new IllegalStateException(e); }
+	}
+	
+	/**
+	 * Body of {@code stopSession}. Runs on the {@code Session}'s roster {@code Mailbox}, in a transaction
+	 */
+	private String stopSessionOnRoster(Token token) throws InvalidTokenException, InvalidSessionException {
+		
+		//Flush the running game before the Session is reloaded
+		retireGame(token);
+		
 		SessionInterface toStop = getSession(token);
 		
 		toStop.getToken().setAuthenticator(null);
@@ -417,8 +612,38 @@ public class SessionService {
 	 * @throws InvalidLocationException
 	 * 		Throws if the {@code Location} tapped on does not contain the {@code User}'s {@code target}
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public int updateOnTap(OnTapUpdateWrapper wrapper) throws InvalidTokenException, InvalidSessionException, InvalidUserException, InvalidListException, InvalidLocationException {
 		
+		try {
+			//Running games resolve taps on their own Mailbox, without waiting on the roster or the database. The engine only knows
+			//the current, unexpired Token of each of its players, so it authenticates the tapper itself
+			GameState game = wrapper.getSession() == null ? null : engine.find(wrapper.getSession().getAuthenticator());
+			if (game != null) {
+				
+				if (wrapper.getTapper() == null) { throw new InvalidTokenException("Token entered is null"); }
+				return engine.tap(game, wrapper.getTapper().getAuthenticator(), wrapper.getTapped());
+			}
+			
+			return serially(sessionId(wrapper.getSession()), () -> updateOnTapOnRoster(wrapper));
+		}
+		catch (InvalidTokenException | InvalidSessionException | InvalidUserException | InvalidListException | InvalidLocationException e) { throw e; }
+		catch (BackendException e) { throw new IllegalStateException(e); }
+	}
+	
+	/**
+	 * Body of {@code updateOnTap}. Runs on the {@code Session}'s roster {@code Mailbox}, in a transaction
+	 */
+	private int updateOnTapOnRoster(OnTapUpdateWrapper wrapper) throws InvalidTokenException, InvalidSessionException, InvalidUserException, InvalidListException, InvalidLocationException {
+		
+		//Sessions started before the engine last loaded them are resolved in memory
+		GameState game = getGame(wrapper.getSession());
+		if (game != null) {
+			
+			if (wrapper.getTapper() == null) { throw new InvalidTokenException("Token entered is null"); }
+			return engine.tap(game, wrapper.getTapper().getAuthenticator(), wrapper.getTapped());
+		}
+		
 		//Get Session
 		SessionInterface from = getSession(wrapper.getSession());
 		//Get user that did the tapping
@@ -430,7 +655,7 @@ public class SessionService {
 		UserInterface uTapped = null;
 		ItemInterface iTapped = null;
 		
-		if (tapper.getLocation().getDistance(wrapper.getTapped()) <= tapper.getKillRadius() / (tapper.getKillRadius() / tapper.getLocation().getAccuracy())) {
+		if (tapper.getLocation().isWithin(wrapper.getTapped(), tapper.getKillRadius() / (tapper.getKillRadius() / tapper.getLocation().getAccuracy()))) {
 			
 			//Get User that was tapped
 			uTapped = getLocationsUserHelper(wrapper.getTapped(), tapper, from);
@@ -438,7 +663,7 @@ public class SessionService {
 		} else { throw new InvalidLocationException("Tapped outside of kill radius"); }
 		
 		if (uTapped != null) { killConfirmedHelper(tapper, uTapped, from); }
-		else if (iTapped != null) { addItemUserHelper(tapper, iTapped, getSession(wrapper.getSession()), wrapper.getTapped()); }
+		else if (iTapped != null) { addItemUserHelper(tapper, iTapped, from, wrapper.getTapped()); }
 		
 		if (from.getUsers().size() == 1) { return 1; }
 		else if (iTapped != null) { return 2; }
@@ -458,27 +683,40 @@ public class SessionService {
 	 * @throws InvalidListException
 	 * 		Throws if {@code tokens} is not in the expected format
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public String deleteUser(List<Token> tokens) throws InvalidTokenException, InvalidSessionException, InvalidListException {
 		
-		//Check if first token is session token, and rest are user tokens to add
 		if (tokens.size() < 2)
 			{ throw new InvalidListException("List not in expected format"); }
+		int id = sessionId(tokens.get(0));
+		
+		try { return serially(id, () -> deleteUserOnRoster(tokens)); }
+		catch (InvalidTokenException | InvalidSessionException | InvalidListException e) { throw e; }
+		catch (BackendException e) { throw new IllegalStateException(e); }
+	}
+	
+	/**
+	 * Body of {@code deleteUser}. Runs on the {@code Session}'s roster {@code Mailbox}, in a transaction
+	 */
+	private String deleteUserOnRoster(List<Token> tokens) throws InvalidTokenException, InvalidSessionException, InvalidListException {
 		
-		//Validate Tokens
-		for (int i = 0; i < tokens.size(); i++) { validateUserToken(tokens.get(i)); }
+		//Check if first token is session token, and rest are user tokens to add
+		if (tokens.size() < 2)
+			{ throw new InvalidListException("List not in expected format"); }
 		
+		//The first Token is the Session's, validated by getSession. The rest are validated as they are read
 		SessionInterface from = getSession(tokens.get(0));
 		List<UserInterface> toDelete = new ArrayList<>();
 		
 		for (int i = 1; i < tokens.size(); i++) {
-				
+			
 			toDelete.add(getUserToken(tokens.get(i)));
 			if (toDelete.get(toDelete.size() - 1) == null) { throw new InvalidTokenException("User Token does not correspond to an existing User"); }
 		}
 		
 		String usernames = "";
 		for (UserInterface u : toDelete) {
-				
+			
 			if (toDelete.indexOf(u) == toDelete.size() - 1) { usernames += u.getUsername(); }
 			else { usernames += u.getUsername() + ", "; }
 			
@@ -501,15 +739,27 @@ public class SessionService {
 	 * @throws InvalidListException
 	 * 		Shouldn't throw if the previous {@code Exception}s did not throw
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public String deleteAllUsers(Token token) throws InvalidTokenException, InvalidSessionException, InvalidListException {
 		
+		int id = sessionId(token);
+		try { return serially(id, () -> deleteAllUsersOnRoster(token)); }
+		catch (InvalidTokenException | InvalidSessionException | InvalidListException e) { throw e; }
+		catch (BackendException e) { throw new IllegalStateException(e); }
+	}
+	
+	/**
+	 * Body of {@code deleteAllUsers}. Runs on the {@code Session}'s roster {@code Mailbox}, in a transaction
+	 */
+	private String deleteAllUsersOnRoster(Token token) throws InvalidTokenException, InvalidSessionException, InvalidListException {
+		
 		SessionInterface from = getSession(token);
 		
 		List<Token> tokens = new ArrayList<>();
 		tokens.add(from.getToken());
 		for (UserInterface u : from.getUsers()) { tokens.add(u.getToken()); }
-			
-		return this.deleteUser(tokens);
+		
+		return deleteUserOnRoster(tokens);
 	}
 	
 	/******************************************************************** END PUT HELPERS ********************************************************************/
@@ -527,8 +777,27 @@ public class SessionService {
 	 * @throws InvalidSessionException
 	 * 		Throws if the {@code Session} trying to delete does not exist
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public String deleteSession(Token token) throws InvalidTokenException, InvalidSessionException {
 		
+		int id = sessionId(token);
+		String result;
+		try { result = serially(id, () -> deleteSessionOnRoster(token)); }
+		catch (InvalidTokenException | InvalidSessionException e) { throw e; }
+		catch (BackendException e) { throw new IllegalStateException(e); }
+		
+		executors.retire(id);
+		return result;
+	}
+	
+	/**
+	 * Body of {@code deleteSession}. Runs on the {@code Session}'s roster {@code Mailbox}, in a transaction
+	 */
+	private String deleteSessionOnRoster(Token token) throws InvalidTokenException, InvalidSessionException {
+		
+		//Flush the running game before the Session is reloaded
+		retireGame(token);
+		
 		SessionInterface toStop = getSession(token);
 		if (toStop == null) { throw new InvalidSessionException("SessionInterface does not exist in the database"); }
 		
@@ -541,6 +810,8 @@ public class SessionService {
 		}
 		
 		sRepo.delete((Session) toStop);
+		String stopped = toStop.getToken().getAuthenticator();
+		AfterCommit.run(() -> leaderboard.forget(stopped));
 		return "Deleted SessionInterface #" + toStop.getId() + " and removed the Session's Token from the Users' data";
 	}
 	
@@ -548,6 +819,68 @@ public class SessionService {
 	
 	/***************************************************************** START PRIVATE METHODS *****************************************************************/
 	
+	/**
+	 * Runs a task on a {@code Session}'s roster {@code Mailbox}, after every roster change queued before it, and waits for it.
+	 * The caller must not be in a transaction, since the task takes a database connection of its own
+	 * @param sessionId
+	 * 		{@code id} of the {@code Session}
+	 * @param task
+	 * 		Task to run, in a transaction
+	 * @return
+	 * 		What {@code task} returned
+	 * @throws BackendException
+	 * 		What {@code task} threw
+	 */
+	private <T> T serially(int sessionId, GameTask<T, BackendException> task) throws BackendException {
+		
+		return executors.roster(sessionId).call(() -> inTransaction(task));
+	}
+	
+	/**
+	 * Runs a task in a transaction. Like {@code @Transactional}, a {@code BackendException} still commits and is rethrown afterwards
+	 * @param task
+	 * 		Task to run
+	 * @return
+	 * 		What {@code task} returned
+	 * @throws BackendException
+	 * 		What {@code task} threw
+	 */
+	private <T> T inTransaction(GameTask<T, BackendException> task) throws BackendException {
+		
+		List<BackendException> thrown = new ArrayList<>(1);
+		T result = transaction.execute(status -> {
+			
+			try { return task.run(); }
+			catch (BackendException e) {
+				
+				thrown.add(e);
+				return null;
+			}
+		});
+		
+		if (!thrown.isEmpty()) { throw thrown.get(0); }
+		return result;
+	}
+	
+	/**
+	 * Gets the {@code id} of the {@code Session} a {@code Token} belongs to, to find its {@code Mailbox}
+	 * @param token
+	 * 		{@code Token} of the {@code Session}
+	 * @return
+	 * 		{@code id} of the {@code Session}
+	 * @throws InvalidTokenException
+	 * 		Throws if {@code token} is null or does not belong to a {@code Session}
+	 */
+	private int sessionId(Token token) throws InvalidTokenException {
+		
+		if (token == null || token.getAuthenticator() == null) { throw new InvalidTokenException("Token cannot be null"); }
+		
+		Optional<Session> session = sRepo.findFirstByTokenAuthenticator(token.getAuthenticator());
+		if (!session.isPresent()) { throw new InvalidTokenException("Token entered does not correspond to an existing Session"); }
+		
+		return session.get().getId();
+	}
+	
 	/**
 	 * Generates a {@code Token} for a {@code Session}
 	 * @param session
@@ -560,6 +893,44 @@ public class SessionService {
 		session.setToken(new Token(s, 8760));
 	}
 	
+	/**
+	 * Gets the running game of a {@code Session}. A started {@code Session} that is not in the engine yet (E.G. after a restart) is loaded into it
+	 * @param token
+	 * 		{@code Token} of the {@code Session}
+	 * @return
+	 * 		{@code GameState} of the {@code Session}, or {@code null} if the {@code Session} has not been started
+	 * @throws InvalidTokenException
+	 * 		Throws if {@code Token} did not have an existing or matching {@code authenticator} or was expired
+	 * @throws InvalidSessionException
+	 * 		Throws if {@code Session} trying to get does not exist
+	 */
+	private GameState getGame(Token token) throws InvalidTokenException, InvalidSessionException {
+		
+		//Running games are found without the database
+		GameState game = token == null ? null : engine.find(token.getAuthenticator());
+		if (game != null) { return game; }
+		
+		//Only the Session's row is needed to tell if it has started
+		Session session = validateSessionToken(token);
+		
+		if (session.getStarted() == 1) { return engine.start(sRepo.findGameById(session.getId()).orElse(session)); }
+		
+		return null;
+	}
+	
+	/**
+	 * Removes a {@code Session}'s game from the engine, if running, and writes its last changes to the database
+	 * @param token
+	 * 		{@code Token} of the {@code Session}
+	 */
+	private void retireGame(Token token) {
+		
+		if (token == null) { return; }
+		
+		GameState game = engine.stop(token.getAuthenticator());
+		if (game != null) { checkpointer.checkpoint(game); }
+	}
+	
 	/**
 	 * Validates that a {@code Session} exists in the database
 	 * @param toValidate
@@ -573,18 +944,13 @@ public class SessionService {
 		
 		if (toValidate == null) { throw new InvalidSessionException("SessionInterface entered is either null or empty"); }
 		
-		List<Session> sessions = sRepo.findAll();
-		
-		//Get Session in database with matching name toValidate
+		//Get Session in database with matching name and passcode as toValidate
 		boolean validated = false;
-		for (SessionInterface s : sessions) {
+		Optional<Session> found = sRepo.findFirstByNameAndPasscode(toValidate.getName(), toValidate.getPasscode());
+		if (found.isPresent()) {
 			
-			if (toValidate.getName().equals(s.getName()) && toValidate.getPasscode() == s.getPasscode()) {
-				
-				toValidate = s;
-				validated = true;
-				break;
-			}
+			toValidate = found.get();
+			validated = true;
 		}
 		if (!validated) { throw new InvalidSessionException("SessionInterface '" + toValidate.getName() + "' does not have a matching name and/or passcode in the database"); }
 		return toValidate;
@@ -601,12 +967,9 @@ public class SessionService {
 	 */
 	private UserInterface getUserToken(Token token) throws InvalidTokenException {
 		
-		List<User> users = uRepo.findAll();
-		
-		for (UserInterface u : users) {
-			
-			if (token.getAuthenticator().equals(u.getToken().getAuthenticator())) { return u; }
-		}
+		//Already in the persistence context if validateUserToken had to read it
+		Optional<User> user = uRepo.findById(validateUserToken(token));
+		if (user.isPresent()) { return user.get(); }
 		
 		throw new InvalidTokenException("Token entered does not correspond to an existing User");
 	}
@@ -618,42 +981,54 @@ public class SessionService {
 	 * @return
 	 * 		{@code Session} associated with {@code token}
 	 * @throws InvalidTokenException
-	 * 		Throws if {@code Token} did not have an existing or matching {@code authenticator} or was expired
+	 * 		Throws if {@code Token} is null
+	 * @throws InvalidSessionException
+	 * 		Throws if {@code Token} does not correspond to an existing {@code Session}
 	 */
-	private SessionInterface getSessionToken(Token token) throws InvalidTokenException {
-				
-		List<Session> sessions = sRepo.findAll();
+	private SessionInterface getSessionToken(Token token) throws InvalidTokenException, InvalidSessionException {
 		
 		if (token == null) { throw new InvalidTokenException("Token cannot be null"); }
 		if (token.getAuthenticator() == null || token.getAuthenticator().isEmpty()) { throw new InvalidTokenException("Token's authenticator cannot be null or empty");}
 		
-		for (SessionInterface s : sessions) {
+		Optional<Session> session = sRepo.findPlayersByTokenAuthenticator(token.getAuthenticator());
+		if (session.isPresent()) {
 			
-			if (token.getAuthenticator().equals(s.getToken().getAuthenticator())) { return s; }
+			//A query cache hit skips the entity graph, and callers may read users after the transaction
+			Hibernate.initialize(session.get().getUsers());
+			return session.get();
 		}
 		
-		throw new InvalidTokenException("Token entered does not correspond to an existing Session");
+		throw new InvalidSessionException("Token entered does not correspond to an existing Session");
 	}
 	
 	/**
-	 * Validates a {@code Token} that's associated with a {@code User}
+	 * Validates a {@code Token} that's associated with a {@code User}, and finds who holds it. {@code TokenSweeper} is the only expiry check
+	 * for tracked {@code Token}s, and a signed one it tracks for the {@code User} it names is never read from the database
 	 * @param toValidate
 	 * 		{@code Token} to validate
+	 * @return
+	 * 		{@code id} of the {@code User} holding {@code toValidate}
 	 * @throws InvalidTokenException
 	 * 		Throws if {@code Token} did not have an existing or matching {@code authenticator} or was expired
 	 */
-	private void validateUserToken(Token toValidate) throws InvalidTokenException {
+	private int validateUserToken(Token toValidate) throws InvalidTokenException {
 		
 		//Can't do anything if token is null
-		if (toValidate == null) { throw new InvalidTokenException("Token entered is null"); }
+		if (toValidate == null || toValidate.getAuthenticator() == null) { throw new InvalidTokenException("Token entered is null"); }
 		
-		//If token is expired, create a new token
-		if (!toValidate.isValid()) {
-			
-			getUserToken(toValidate).setToken(new Token());
-			uRepo.save((User) getUserToken(toValidate));
-			throw new InvalidTokenException("Token entered is expired");
-		}
+		//The stored expiration decides, not the one sent with the request
+		String authenticator = toValidate.getAuthenticator();
+		if (sweeper.isExpired(authenticator)) { throw new InvalidTokenException("Token entered is expired"); }
+		
+		SignedToken claims = signer.verify(authenticator);
+		Integer holder = sweeper.holder(authenticator);
+		if (claims != null && holder != null && holder == claims.getUserId()) { return holder; }
+		
+		//Anything else is read once through the authenticator index
+		Optional<User> user = uRepo.findFirstByTokenAuthenticator(authenticator);
+		if (!user.isPresent()) { throw new InvalidTokenException("Token entered does not correspond to an existing User"); }
+		if (!user.get().getToken().isValid()) { throw new InvalidTokenException("Token entered is expired"); }
+		return user.get().getId();
 	}
 	
 	/**
@@ -662,21 +1037,21 @@ public class SessionService {
 	 * 		{@code Token} to validate
 	 * @throws InvalidTokenException
 	 * 		Throws if {@code Token} did not have an existing or matching {@code authenticator} or was expired
+	 * @return
+	 * 		{@code Session} of {@code toValidate}, without its {@code User}s
 	 * @throws InvalidSessionException
 	 * 		Throws if the {@code Session} trying to validate does not exist
 	 */
-	private void validateSessionToken(Token toValidate) throws InvalidTokenException, InvalidSessionException {
+	private Session validateSessionToken(Token toValidate) throws InvalidTokenException, InvalidSessionException {
 		
 		//Can't do anything if token is null
-		if (toValidate == null) { throw new InvalidTokenException("Token entered is null"); }
+		if (toValidate == null || toValidate.getAuthenticator() == null) { throw new InvalidTokenException("Token entered is null"); }
 		
-		//If token is expired, create a new token
-		if (!toValidate.isValid()) {
-			
-			getUserToken(toValidate).setToken(new Token());
-			uRepo.save((User) getUserToken(toValidate));
-			throw new InvalidTokenException("Token entered is expired");
-		}
+		//TokenSweeper only tracks User Tokens, so a Session's expiration is read from its row, usually a query cache hit
+		Optional<Session> session = sRepo.findFirstByTokenAuthenticator(toValidate.getAuthenticator());
+		if (!session.isPresent()) { throw new InvalidSessionException("Token entered does not correspond to an existing Session"); }
+		if (!session.get().getToken().isValid()) { throw new InvalidTokenException("Token entered is expired"); }
+		return session.get();
 	}
 	
 	/**
@@ -693,9 +1068,6 @@ public class SessionService {
 		//Can't do anything if token is null
 		if (toValidate == null) { throw new InvalidTokenException("Token entered is null"); }
 		
-		//If token is expired, create a new token
-		validateUserToken(toValidate);
-		
 		UserInterface u = getUserToken(toValidate);
 		
 		if (u.getAuthLevel() != 2) { throw new InvalidAdministratorException("Administrator entered is not valid. Check username, password, and/or id"); }
@@ -715,9 +1087,6 @@ public class SessionService {
 		//Can't do anything if token is null
 		if (toValidate == null) { throw new InvalidTokenException("Token entered is null"); }
 		
-		//If token is expired, create a new token
-		validateUserToken(toValidate);
-		
 		UserInterface u = getUserToken(toValidate);
 		
 		if (u.getAuthLevel() < 1) { throw new InvalidModeratorException("Moderator entered is not valid. Check username, password, and/or id"); }
@@ -801,6 +1170,9 @@ public class SessionService {
 			//Save changes to database
 			sRepo.save((Session) from);
 			uRepo.save((User) toDelete);
+			String left = from.getToken().getAuthenticator();
+			int leaving = toDelete.getId();
+			AfterCommit.run(() -> leaderboard.leave(left, leaving));
 		}
 	}
 	
@@ -817,15 +1189,17 @@ public class SessionService {
 		for (int i = 1; i < assignTo.size(); i++) { assign.add(assignTo.get(i)); }
 		assign.add(assignTo.get(0));
 		
-		//Assign targets
+		//Assign targets, saved together so the rows go out in JDBC batches
+		List<User> toSave = new ArrayList<>();
 		for (int i = 0; i < assignTo.size(); i++) {
 			
 			List<UserInterface> toAdd = new ArrayList<>();
 			toAdd.add(assign.get(i));
 			assignTo.get(i).setTargets(toAdd);
 			
-			uRepo.save((User) assignTo.get(i));
+			toSave.add((User) assignTo.get(i));
 		}
+		uRepo.saveAll(toSave);
 	}
 	
 	/**
@@ -890,7 +1264,7 @@ public class SessionService {
 			
 			if (tapper.getLocation().getDistance(l) <= tapper.getKillRadius() * (tapper.getKillRadius() * (Math.exp((tapper.getLocation().getAccuracy() / 
 				l.getAccuracy()) * -1) * Math.min(tapper.getLocation().getAccuracy(), l.getAccuracy()) * 2.718282))) {
-				
+					
 					tapped = sess.getILoc().get(loc);
 			}
 		}
@@ -936,6 +1310,13 @@ public class SessionService {
 		//Save changes
 		uRepo.save((User) tapper);
 		uRepo.save((User) tapped);
+		Standing won = Standing.of(tapper);
+		Standing lost = Standing.of(tapped);
+		AfterCommit.run(() -> {
+			
+			leaderboard.update(won);
+			leaderboard.update(lost);
+		});
 	}
 	
 	/**
@@ -948,7 +1329,7 @@ public class SessionService {
 	private void addItemUserHelper(UserInterface tapper, ItemInterface toAdd, SessionInterface sess, Location tapped) {
 		
 		//Add item to inventory
-		tapper.getItems().add(toAdd);
+		tapper.addItem(toAdd);
 		//Remove from the session (So other players don't pick it up)
 		sess.getILoc().remove(tapped);
 	}
@@ -974,90 +1355,67 @@ public class SessionService {
 		return new Location(lat, lon, 0);
 	}
 	
+	/**
+	 * Places {@code Item}s at random {@code Location}s inside a {@code Session}'s radius. They are drawn from the {@code ItemCatalogue}, so no {@code Item} is read from the database
+	 * @param sess
+	 * 		{@code Session} working in
+	 * @param rand
+	 * 		Source of randomness
+	 */
 	private void setItemsHelper(SessionInterface sess, Random rand) {
 		
 		int numItems = (int) Math.max((sess.getRadius() / 100) * 3, 4);
-			
+		
 		//add items
 		for (int i = 0; i < numItems; i++) {
 			
-			int r = rand.nextInt(4) + 1;
+			Item toAdd = catalogue.random(rand);
+			if (toAdd == null) { return; }
 			
-			ItemInterface toAdd = iRepo.findById(r).get();
 			Location toAddAt = generateLocation(sess);
-			sess.getILoc().put(toAddAt, (Item) toAdd);
+			sess.getILoc().put(toAddAt, toAdd);
 		}
 	}
 	
 	/**
 	 * Gets all the {@code User}s inside the view area of another {@code User}. Happens when a {@code User} taps the screen on client side
-	 * @param tokens
-	 * 		{@code List<Token>} that contains the {@code Token} of the {@code Session} to grab from, and the {@code Token} of the {@code User} that tapped
+	 * @param tapper
+	 * 		{@code User} that tapped
+	 * @param positions
+	 * 		{@code UserPosition}s of every {@code User} in the {@code Session}
 	 * @return
 	 * 		{@code List<UserInterface>} of {@code User}s inside the view area of the {@code User} that tapped
-	 * @throws InvalidListException
-	 * 		Throws if {@code tokens} is not in the expected format
-	 * @throws InvalidTokenException
-	 * 		Throws if {@code Token} did not have an existing or matching {@code authenticator} or was expired
-	 * @throws InvalidSessionException
-	 * 		Throws if the {@code Session} trying to grab from does not exist
-	 * @throws InvalidUserException
-	 * 		Throws if the {@code User} trying to grab does not exist
 	 */
-	private List<UserInterface> getUsersOnTapHelper(List<Token> tokens) throws InvalidListException, InvalidTokenException, InvalidSessionException, InvalidUserException {
-		
-		//Check if first token is session token, and second is the user that tapped
-		if (tokens.size() < 2)
-			{ throw new InvalidListException("List not in expected format"); }
+	private List<UserInterface> getUsersOnTapHelper(UserInterface tapper, List<UserPosition> positions) {
 		
-		//Get Session from token
-		SessionInterface from = this.getSession(tokens.get(0));
-		//Get User from token
-		List<UserInterface> temp = this.getUser(tokens);
-		
-		List<UserInterface> result = new ArrayList<>();
-		
-		for (UserInterface u : from.getUsers()) {
+		//Filter on the projected positions, then load only the Users in view
+		List<Integer> inView = new ArrayList<>();
+		for (UserPosition p : positions) {
 			
-			if (!u.equals(temp.get(0))) {
-				if (temp.get(0).getLocation().getDistance(u.getLocation()) <= temp.get(0).getViewRadius()) { result.add(u); }
-			}
+			if (p.getId() != tapper.getId() && Distance.within(tapper.getLocation().getLatitude(), tapper.getLocation().getLongitude(), p.getLatitude(), p.getLongitude(), tapper.getViewRadius()))
+				{ inView.add(p.getId()); }
 		}
 		
-		return result;
+		if (inView.isEmpty()) { return new ArrayList<>(); }
+		return new ArrayList<>(uRepo.findAllById(inView));
 	}
 	
 	/**
 	 * Gets all the {@code Item}s inside the view area of a {@code User}. Happens when a {@code User} taps the screen on client side
-	 * @param tokens
-	 * 		{@code List<Token>} that contains the {@code Token} of the {@code Session} to grab from, and the {@code Token} of the {@code User} that tapped
+	 * @param tapper
+	 * 		{@code User} that tapped
+	 * @param from
+	 * 		{@code Session} to grab from
 	 * @return
-	 * 		{@code List<ItemInterface>} of {@code User}s inside the view area of the {@code User} that tapped
-	 * @throws InvalidListException
-	 * 		Throws if {@code tokens} is not in the expected format
-	 * @throws InvalidTokenException
-	 * 		Throws if {@code Token} did not have an existing or matching {@code authenticator} or was expired
-	 * @throws InvalidSessionException
-	 * 		Throws if the {@code Session} trying to grab from does not exist
-	 * @throws InvalidUserException
-	 * 		Throws if the {@code User} trying to grab does not exist
+	 * 		{@code Map<Location, ItemInterface>} of {@code Item}s inside the view area of the {@code User} that tapped, by {@code Location}
 	 */
-	private Map<Location, ItemInterface> getItemsOnTapHelper(List<Token> tokens) throws InvalidListException, InvalidTokenException, InvalidSessionException, InvalidUserException {
-		
-		//Check if first token is session token, and second is the user that tapped
-		if (tokens.size() < 2)
-			{ throw new InvalidListException("List not in expected format"); }
-		
-		//Get Session from token
-		SessionInterface from = this.getSession(tokens.get(0));
-		//Get User from token
-		List<UserInterface> temp = this.getUser(tokens);
+	private Map<Location, ItemInterface> getItemsOnTapHelper(UserInterface tapper, SessionInterface from) {
 		
 		Map<Location, ItemInterface> result = new HashMap<>();
 		
 		for (Location l : from.getILoc().keySet()) {
 			
-			if (temp.get(0).getLocation().getDistance(l) <= temp.get(0).getViewRadius()) { result.put(l, from.getILoc().get(l)); }
+			if (tapper.getLocation().isWithin(l, tapper.getViewRadius())) { result.put(l, from.getILoc().get(l)); }
 		}
 		
 		return result;
@@ -3,26 +3,44 @@ package application.tools.services;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import application.exceptions.BackendException;
 import application.exceptions.InvalidAdministratorException;
 import application.exceptions.InvalidListException;
 import application.exceptions.InvalidTokenException;
 import application.exceptions.InvalidUserException;
+import application.games.GameEngine;
+import application.games.GameTask;
+import application.games.Leaderboard;
+import application.games.Standing;
 import application.items.ItemInterface;
 import application.items.ItemRepository;
 import application.tools.embeddables.Location;
 import application.tools.embeddables.Token;
+import application.tools.security.PasswordHasher;
+import application.tools.security.SignedToken;
+import application.tools.security.TokenSigner;
 import application.tools.wrappers.InventoryUpdateWrapper;
 import application.tools.wrappers.LocationUpdateWrapper;
 import application.tools.wrappers.StatisticUpdateWrapper;
 import application.tools.wrappers.UserUpdateWrapper;
+import application.users.LocationIngest;
+import application.users.TokenSweeper;
 import application.users.User;
+import application.users.UserCredentials;
 import application.users.UserInterface;
 import application.users.UserRepository;
+import application.users.UsernameFilter;
 
 /**
  * Service for {@code UserController}
@@ -30,6 +48,7 @@ import application.users.UserRepository;
  * @author Sean Griffen
  */
 @Service
+@Transactional
 public class UserService {
 	
 	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
@@ -44,6 +63,46 @@ public class UserService {
 	 */
 	@Autowired
 	private ItemRepository iRepo;
+	/**
+	 * {@code GameEngine} holding {@code User}s in started {@code Session}s
+	 */
+	@Autowired
+	private GameEngine engine;
+	/**
+	 * {@code LocationIngest} holding the latest {@code Location}s of {@code User}s not in started {@code Session}s
+	 */
+	@Autowired
+	private LocationIngest ingest;
+	/**
+	 * {@code Leaderboard} told about new, changed and deleted {@code User}s
+	 */
+	@Autowired
+	private Leaderboard leaderboard;
+	/**
+	 * {@code TokenSigner} issuing {@code Token}s that name their {@code User}, and revoking them on logout
+	 */
+	@Autowired
+	private TokenSigner signer;
+	/**
+	 * {@code TokenSweeper} expiring issued {@code Token}s in the background
+	 */
+	@Autowired
+	private TokenSweeper sweeper;
+	/**
+	 * {@code PasswordHasher} hashing stored passwords and checking logins against them
+	 */
+	@Autowired
+	private PasswordHasher hasher;
+	/**
+	 * {@code UsernameFilter} answering most checks for a free {@code username} without the database
+	 */
+	@Autowired
+	private UsernameFilter names;
+	
+	/**
+	 * Runs the writes of calls that hash or check a password, which happen before it outside of any transaction
+	 */
+	private TransactionTemplate transaction;
 	
 	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
 	
@@ -55,11 +114,36 @@ public class UserService {
 	 * 		{@code UserRepository} object desired
 	 * @param iRepo
 	 * 		{@code ItemRepository} object desired
+	 * @param engine
+	 * 		{@code GameEngine} object desired
+	 * @param ingest
+	 * 		{@code LocationIngest} object desired
+	 * @param leaderboard
+	 * 		{@code Leaderboard} object desired
+	 * @param signer
+	 * 		{@code TokenSigner} object desired
+	 * @param sweeper
+	 * 		{@code TokenSweeper} object desired
+	 * @param hasher
+	 * 		{@code PasswordHasher} object desired
+	 * @param names
+	 * 		{@code UsernameFilter} object desired
+	 * @param transactionManager
+	 * 		Transaction manager of the database
 	 */
-	public UserService (UserRepository uRepo, ItemRepository iRepo) {
+	public UserService (UserRepository uRepo, ItemRepository iRepo, GameEngine engine, LocationIngest ingest, Leaderboard leaderboard, TokenSigner signer,
+			TokenSweeper sweeper, PasswordHasher hasher, UsernameFilter names, PlatformTransactionManager transactionManager) {
 		
 		this.uRepo = uRepo;
 		this.iRepo = iRepo;
+		this.engine = engine;
+		this.ingest = ingest;
+		this.leaderboard = leaderboard;
+		this.signer = signer;
+		this.sweeper = sweeper;
+		this.hasher = hasher;
+		this.names = names;
+		this.transaction = new TransactionTemplate(transactionManager);
 	}
 	
 	/******************************************************************* END CONSTRUCTORS ********************************************************************/
@@ -72,7 +156,7 @@ public class UserService {
 	/****************************************************************** START POST HELPERS *******************************************************************/
 	
 	/**
-	 * Adds a {@code User} to the database
+	 * Adds a {@code User} to the database. The password is hashed outside of any transaction, and the {@code User} is saved in one afterwards
 	 * @param toAdd
 	 * 		{@code User} to add
 	 * @return
@@ -80,6 +164,7 @@ public class UserService {
 	 * @throws InvalidUserException
 	 * 		Throws if {@code toAdd} is null, or if {@code username} already exists in database
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public String addUser(UserInterface toAdd) throws InvalidUserException {
 		
 		//Check if user to add is null or empty
@@ -88,8 +173,27 @@ public class UserService {
 		//Check if name desired already exists
 		if (!checkName(toAdd)) { throw new InvalidUserException("Username '" + toAdd.getUsername() +"' already exists."); }
 		
-		//Save that user to the database
-		uRepo.save((User) toAdd);
+		//Only the hash is stored
+		toAdd.setPassword(hasher.hash(toAdd.getPassword()));
+		
+		inTransaction(() -> {
+			
+			//Save that user to the database. The unique index turns away a User that took the same name since checkName
+			Standing added;
+			try {
+				added = Standing.of(uRepo.saveAndFlush((User) toAdd));
+			} catch (DataIntegrityViolationException e) {
+				throw new InvalidUserException("Username '" + toAdd.getUsername() +"' already exists.");
+			}
+			//Ranked and marked taken once the User is committed, so a rollback never leaves it on the leaderboard or in the UsernameFilter
+			String name = toAdd.getUsername();
+			AfterCommit.run(() -> {
+				
+				leaderboard.update(added);
+				names.add(name);
+			});
+			return null;
+		});
 		
 		return "User '" + toAdd.getUsername() +"' added to database with authorization level of 'Player'";
 	}
@@ -109,29 +213,72 @@ public class UserService {
 	 */
 	public UserInterface getUser(Token token) throws InvalidTokenException {
 		
-		validateToken(token);
-		
 		//Get ID of user associated with this token
-		UserInterface user = this.getTokensUser(token);
+		int id = validateToken(token);
 		//If yes, then return user with ID
-		return user;
+		return this.getTokensUser(id);
 	}
 	
-	public Set<Token> getSessionToken(Token token) throws InvalidTokenException {
+	/**
+	 * Gets the {@code id} and {@code username} of the {@code User} holding a {@code Token}. A signed {@code Token} still tracked by the {@code TokenSweeper}
+	 * is answered from its claims without the database, in which case the {@code username} is the one it was issued under
+	 * @param token
+	 * 		{@code Token} of the {@code User}
+	 * @return
+	 * 		{@code SignedToken} naming the {@code User}
+	 * @throws InvalidTokenException
+	 * 		Throws if {@code token} is null, expired, or does not belong to a {@code User}
+	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public SignedToken identify(Token token) throws InvalidTokenException {
+		
+		SignedToken claims = claims(token);
+		if (claims != null) { return claims; }
 		
-		validateToken(token);
+		User user = findTokensUser(token.getAuthenticator());
+		return new SignedToken(user.getId(), user.getUsername(), user.getToken().getExpiration());
+	}
+	
+	public Set<Token> getSessionToken(Token token) throws InvalidTokenException {
 		
-		UserInterface user = this.getTokensUser(token);
-		//If yes, then return Session Token List
-		return user.getSession();
+		UserInterface user = this.getUser(token);
+		//If yes, then return Session Token List, copied so it can be read after the transaction
+		return new HashSet<>(user.getSession());
 	}
 	
 	public void setTimeUpdated(Token toUpdate, long timeUpdated) throws InvalidTokenException {
 		
-		UserInterface u = getUser(toUpdate);
+		int id = validateToken(toUpdate);
+		
+		//Players in started Sessions are updated in memory
+		if (engine.touch(toUpdate.getAuthenticator(), timeUpdated)) { return; }
+		
+		ingest.touch(getTokensUser(id), timeUpdated);
+	}
+	
+	/**
+	 * Reports a new {@code Location} of a {@code User} from a client, along with the time it was taken. Never writes to the database directly:
+	 * players in started {@code Session}s are authenticated and updated by the {@code GameEngine}, everyone else in {@code LocationIngest}
+	 * @param toUpdate
+	 * 		{@code Token} of the {@code User}
+	 * @param location
+	 * 		New {@code Location}
+	 * @param timeUpdated
+	 * 		New {@code timeUpdated}
+	 * @throws InvalidTokenException
+	 * 		Throws if {@code toUpdate} is null, expired, or does not belong to a {@code User}
+	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void reportLocation(Token toUpdate, Location location, long timeUpdated) throws InvalidTokenException {
+		
+		//The engine only knows the current, unexpired Token of each player
+		if (toUpdate != null && engine.updateLocation(toUpdate.getAuthenticator(), location) != null) {
+			
+			engine.touch(toUpdate.getAuthenticator(), timeUpdated);
+			return;
+		}
 		
-		u.setTimeUpdated(timeUpdated);
-		uRepo.save((User) u);
+		ingest.record(validateToken(toUpdate), location, timeUpdated);
 	}
 	
 	public long getTimeUpdated(Token toGet) throws InvalidTokenException {
@@ -168,7 +315,8 @@ public class UserService {
 	}
 	
 	/**
-	 * Gets the {@code Token} of a given {@code User}
+	 * Gets the {@code Token} of a given {@code User}. The password is checked outside of any transaction,
+	 * and only the new {@code Token} is written in one afterwards
 	 * @param user
 	 * 		{@code User} who's {@code Token} is desired
 	 * @return
@@ -176,20 +324,30 @@ public class UserService {
 	 * @throws InvalidUserException 
 	 * 		Throws if {@code user} is null or 
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public Token getToken(UserInterface user) throws InvalidUserException {
 		
 		//Check if user exists in database
-		user = validateUser(user);
+		UserCredentials valid = validateUser(user);
+		//A password still stored in plaintext is replaced with its hash
+		String rehashed = hasher.isHashed(valid.getPassword()) ? null : hasher.hash(user.getPassword());
 		
-		//Generate new token for user
-		generateNewToken(user);
-		
-		//Return token
-		return user.getToken();
+		return inTransaction(() -> {
+			
+			Optional<User> found = uRepo.findById(valid.getId());
+			if (!found.isPresent()) { throw new InvalidUserException("User '" + user.getUsername() + "' no longer exists"); }
+			if (rehashed != null) { found.get().setPassword(rehashed); }
+			
+			//Generate new token for user
+			generateNewToken(found.get());
+			
+			//Return token
+			return found.get().getToken();
+		});
 	}
 	
 	/**
-	 * Updates the username, password, and authLevel of a User
+	 * Updates the username, password, and authLevel of a User. A new password is hashed outside of any transaction, and the rest is done in one afterwards
 	 * @param wrap
 	 * 		See {@code UpdateUserWrapper}
 	 * @return
@@ -205,25 +363,57 @@ public class UserService {
 	 * @throws InvalidListException
 	 * 		Throws if List is not in expected format
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public String updateUserInfo(UserUpdateWrapper wrap) throws InvalidUserException, InvalidAdministratorException, InvalidTokenException, InvalidListException {
 		
-		//Get User to update, and User updating to
-		UserInterface toUpdate = this.getUser(wrap.getToUpdate());
 		UserInterface updateTo = wrap.getUpdateTo();
 		
 		//Check if user to update to is empty
 		if (updateTo == null || updateTo.getUsername() == null && updateTo.getPassword() == null && updateTo.getAuthLevel() == 0) 
 			{ throw new InvalidUserException("Cannot update user to null user"); }
 		
-		if (updateTo.getUsername() != null) {
-			
-			if (updateTo.getUsername().trim().isEmpty()) { throw new InvalidUserException("Cannot update user to empty user"); }
-			if (!this.checkName(updateTo)) { throw new InvalidUserException("Username '" + updateTo.getUsername() +"' already exists."); }
-		}
+		if (updateTo.getUsername() != null && updateTo.getUsername().trim().isEmpty()) { throw new InvalidUserException("Cannot update user to empty user"); }
 		if (updateTo.getPassword() != null) {
 			if (updateTo.getPassword().trim().isEmpty()) { throw new InvalidUserException("Cannot update user to empty user"); }
+			
+			//Only the hash is stored
+			updateTo.setPassword(hasher.hash(updateTo.getPassword()));
 		}
 		
+		try { return inTransaction(() -> updateUserInfo(wrap.getToUpdate(), wrap.getAdmin(), updateTo)); }
+		//Only what updateUserInfo throws is rethrown
+		catch (InvalidUserException | InvalidAdministratorException | InvalidTokenException | InvalidListException e) { throw e; }
+		catch (BackendException e) { throw new IllegalStateException(e); }
+	}
+	
+	/**
+	 * Updates the username, password, and authLevel of a User, in the transaction of {@code updateUserInfo}
+	 * @param token
+	 * 		{@code Token} of the {@code User} to update
+	 * @param admin
+	 * 		{@code Token} of the administrator changing {@code authLevel}, if it is
+	 * @param updateTo
+	 * 		{@code User} holding what to update to, with any new password already hashed
+	 * @return
+	 * 		String stating which User was updated, and what was Updated, if anything
+	 * @throws InvalidUserException
+	 * 		Throws if User trying to update doesn't exist, or if {@code updateTo} contains a username that already exists
+	 * @throws InvalidAdministratorException
+	 * 		Throws if User with authLevel = 2 is not valid
+	 * @throws InvalidTokenException
+	 * 		Throws if Token does not correspond to an existing User
+	 * @throws InvalidListException
+	 * 		Throws if List is not in expected format
+	 */
+	private String updateUserInfo(Token token, Token admin, UserInterface updateTo) throws InvalidUserException, InvalidAdministratorException, InvalidTokenException,
+			InvalidListException {
+		
+		UserInterface toUpdate = this.getUser(token);
+		
+		if (updateTo.getUsername() != null && !this.checkName(updateTo)) { throw new InvalidUserException("Username '" + updateTo.getUsername() +"' already exists."); }
+		//A login remembered with the old password no longer counts
+		if (updateTo.getPassword() != null) { hasher.forget(toUpdate.getUsername()); }
+		
 		String oldName = toUpdate.getUsername();
 		//Make default message
 		String result = "User '" + toUpdate.getUsername() + "'s' info was not updated";
@@ -231,7 +421,7 @@ public class UserService {
 		boolean updated = false;
 		if (updateTo.getAuthLevel() > 0) {
 			
-			if (validateAdmin(this.getUser(wrap.getAdmin()))) {
+			if (validateAdmin(this.getUser(admin))) {
 				
 				toUpdate.setAuthLevel(updateTo.getAuthLevel());
 				updated = true;
@@ -240,14 +430,26 @@ public class UserService {
 		if (toUpdate.updateInfo(updateTo)) { updated = true; }
 		if (updated) {
 			
-			uRepo.save((User) toUpdate);
+			//Flushed here so the unique index turns away a name taken since checkName as an InvalidUserException
+			Standing updatedTo;
+			try {
+				updatedTo = Standing.of(uRepo.saveAndFlush((User) toUpdate));
+			} catch (DataIntegrityViolationException e) {
+				throw new InvalidUserException("Username '" + toUpdate.getUsername() +"' already exists.");
+			}
+			String name = toUpdate.getUsername();
+			AfterCommit.run(() -> {
+				
+				leaderboard.update(updatedTo);
+				names.add(name);
+			});
 			result = "User '" + oldName + "'s' username, password, and/or authority level updated";
 		}
 		return result;
 	}
 	
 	/**
-	 * Updates a {@code User}'s location
+	 * Updates a {@code User}'s location. Players in started {@code Session}s are authenticated and updated by the {@code GameEngine}, without a transaction
 	 * @param wrap
 	 * 		See {@code LocationUpdateWrapper}
 	 * @return
@@ -257,14 +459,19 @@ public class UserService {
 	 * @throws InvalidTokenException
 	 * 		Throws if {@code Token} did not have an existing or matching {@code authenticator} or was expired
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public String updateUserLocation(LocationUpdateWrapper wrap) throws InvalidUserException, InvalidTokenException {
 		
-		UserInterface user = this.getUser(wrap.getToUpdate());
 		Location l = wrap.getNewLocation();
 		
-		user.setLocation(l);
-		//Save changes
-		uRepo.save((User) user);
+		//Players in started Sessions are updated in memory
+		String playing = wrap.getToUpdate() == null ? null : engine.updateLocation(wrap.getToUpdate().getAuthenticator(), l);
+		if (playing != null) { return "Updated User '" + playing + "' Location to " + l.toString(); }
+		
+		UserInterface user = this.getUser(wrap.getToUpdate());
+		
+		//Written to the database with the next batch
+		ingest.record(user.getId(), l, user.getTimeUpdated());
 		return "Updated User '" + user.getUsername() + "' Location to " + l.toString();
 	}
 	
@@ -295,6 +502,8 @@ public class UserService {
 		if (newDeaths != null) { user.setDeaths(newDeaths); }
 		//Save changes
 		uRepo.save((User) user);
+		Standing updated = Standing.of(user);
+		AfterCommit.run(() -> leaderboard.update(updated));
 		
 		return "User '" + user.getUsername() + "' updated with new level, kills, and/or deaths";
 	}
@@ -384,7 +593,10 @@ public class UserService {
 		
 		UserInterface user = this.getUser(token);
 		
+		signer.revoke(token.getAuthenticator());
+		sweeper.forget(token.getAuthenticator());
 		user.setToken(new Token());
+		engine.updateToken(user.getId(), null, user.getToken().getExpiration());
 		
 		uRepo.save((User) user);
 		return "User '" + user.getUsername() + "' logged out";
@@ -409,7 +621,13 @@ public class UserService {
 		
 		UserInterface delete = this.getUser(token);
 		
+		signer.revoke(token.getAuthenticator());
+		sweeper.forget(token.getAuthenticator());
+		ingest.forget(delete.getId());
+		hasher.forget(delete.getUsername());
 		uRepo.deleteById(delete.getId());
+		int deleted = delete.getId();
+		AfterCommit.run(() -> leaderboard.remove(deleted));
 		return "User '" + delete.getUsername() + "' removed from database";
 	}
 	
@@ -419,27 +637,54 @@ public class UserService {
 	
 	/**
 	 * 
-	 * Validates a passed {@code User} by checking if it exists in the database
+	 * Validates a passed {@code User} by checking if it exists in the database. Only the stored password is read, in a short read-only transaction,
+	 * and it is checked by the {@code PasswordHasher} after that transaction is over
 	 * @param toValidate
 	 * 		{@code User} to validate
 	 * @return
-	 * 		{@code true} if valid, throws {@code InvalidUserException} otherwise
+	 * 		{@code UserCredentials} of the matching {@code User}, throws {@code InvalidUserException} otherwise
 	 * @throws InvalidUserException
-	 * 		Throws if {@code toValidate} is null, empty, or does not exist in the database
+	 * 		Throws if {@code toValidate} is null, empty, or does not exist in the database.
+	 * 		Throws if too many logins are being checked already
 	 */
-	private UserInterface validateUser(UserInterface toValidate) throws InvalidUserException {
+	private UserCredentials validateUser(UserInterface toValidate) throws InvalidUserException {
 		
 		if (toValidate == null) { throw new InvalidUserException("User entered is either null or empty"); }
 		
-		List<User> users = uRepo.findAll();
+		//Get the stored password of the user with matching name, then check the entered one against it
+		Optional<UserCredentials> found = uRepo.findCredentialsByUsername(toValidate.getUsername());
+		if (found.isPresent() && hasher.verify(toValidate.getUsername(), toValidate.getPassword(), found.get().getPassword())) { return found.get(); }
 		
-		//Get user in database with matching name and password as toValidate
-		for (UserInterface u : users) {
+		throw new InvalidUserException("User '" + toValidate.getUsername() + "' does not have a matching username and/or password in the database");
+	}
+	
+	/**
+	 * Runs a task in a transaction, rolled back if the task throws
+	 * @param task
+	 * 		Task to run
+	 * @return
+	 * 		What {@code task} returned
+	 * @throws E
+	 * 		What {@code task} threw
+	 */
+	@SuppressWarnings("unchecked")
+	private <T, E extends BackendException> T inTransaction(GameTask<T, E> task) throws E {
+		
+		List<E> thrown = new ArrayList<>(1);
+		T result = transaction.execute(status -> {
 			
-			if (toValidate.getUsername().equals(u.getUsername()) && toValidate.getPassword().equals(u.getPassword())) { toValidate = u; }
-		}
-		if (toValidate.getId() == 0) { throw new InvalidUserException("User '" + toValidate.getUsername() + "' does not have a matching username and/or password in the database"); }
-		else { return toValidate; }
+			try { return task.run(); }
+			catch (BackendException e) {
+				
+				//Only task's own E is checked, so nothing else can reach here
+				status.setRollbackOnly();
+				thrown.add((E) e);
+				return null;
+			}
+		});
+		
+		if (!thrown.isEmpty()) { throw thrown.get(0); }
+		return result;
 	}
 	
 	/**
@@ -473,45 +718,81 @@ public class UserService {
 	}
 	
 	/**
-	 * Checks if a {@code Token} is expired or not. If it is, this updates the {@code User} associated with this {@code Token} with a new {@code Token} and saves the change to the database
+	 * Checks if a {@code Token} is expired or not, by the expiration stored for it rather than the one sent with the request, and finds who holds it.
+	 * Only reads the database for a {@code Token} that {@code claims} cannot answer
 	 * @param toValidate
 	 * 		{@code Token} to validate
+	 * @return
+	 * 		{@code id} of the {@code User} holding {@code toValidate}
 	 * @throws InvalidTokenException
-	 * 		Throws if {@code toValidate} is null
+	 * 		Throws if {@code toValidate} is null, expired, or does not belong to a {@code User}
 	 */
-	private void validateToken(Token toValidate) throws InvalidTokenException {
+	private int validateToken(Token toValidate) throws InvalidTokenException {
 		
-		//Can't do anything if token is null
-		if (toValidate == null || toValidate.getAuthenticator() == null) { throw new InvalidTokenException("Token entered is null"); }
+		SignedToken claims = claims(toValidate);
+		if (claims != null) { return claims.getUserId(); }
 		
-		//If token is expired, create a new token, throw exception
-		if (!toValidate.isValid()) { 
-			
-			getTokensUser(toValidate).setToken(new Token());
-			uRepo.save((User) getTokensUser(toValidate));
-			throw new InvalidTokenException("Token entered is expired");
-		}
+		return findTokensUser(toValidate.getAuthenticator()).getId();
 	}
 	
 	/**
-	 * Helper method for getUser() validateToken(). Returns the {@code User} associated with a {@code Token}
+	 * Reads who holds a {@code Token} without the database. A signed {@code authenticator} names its {@code User}, and is trusted while the {@code TokenSweeper}
+	 * tracks it for the same {@code User}. The {@code TokenSweeper} is filled from the database at startup and forgets replaced and logged out
+	 * {@code authenticator}s, so revocations survive a restart even though {@code TokenSigner} forgets them
 	 * @param token
-	 * 		{@Code Token}
+	 * 		{@code Token} to read
+	 * @return
+	 * 		Claims of {@code token}, or {@code null} if they do not match what the {@code TokenSweeper} tracks and the database has to decide
+	 * @throws InvalidTokenException
+	 * 		Throws if {@code token} is null or expired
+	 */
+	private SignedToken claims(Token token) throws InvalidTokenException {
+		
+		//Can't do anything if token is null
+		if (token == null || token.getAuthenticator() == null) { throw new InvalidTokenException("Token entered is null"); }
+		
+		//TokenSweeper knows the stored expiration of tracked Tokens
+		String authenticator = token.getAuthenticator();
+		if (sweeper.isExpired(authenticator)) { throw new InvalidTokenException("Token entered is expired"); }
+		
+		SignedToken claims = signer.verify(authenticator);
+		Integer holder = sweeper.holder(authenticator);
+		return claims != null && holder != null && holder == claims.getUserId() ? claims : null;
+	}
+	
+	/**
+	 * Helper method for getUser(). Returns the {@code User} with an {@code id} found by {@code validateToken}, with the {@code Location}s held in
+	 * {@code LocationIngest}. When {@code validateToken} had to read the {@code User}, it is already in the persistence context and this does not read it again
+	 * @param id
+	 * 		{@code id} of the {@code User}
 	 * @return
-	 * 		{@code User} associated with {@code token}
+	 * 		{@code User} with {@code id}
 	 * @throws InvalidTokenException 
-	 * 		
+	 * 		Throws if the {@code User} was deleted since its {@code Token} was checked
 	 */
-	private UserInterface getTokensUser(Token token) throws InvalidTokenException {
+	private UserInterface getTokensUser(int id) throws InvalidTokenException {
 		
-		List<User> users = uRepo.findAll();
+		Optional<User> user = uRepo.findById(id);
+		if (!user.isPresent()) { throw new InvalidTokenException("Token entered does not correspond to an existing User"); }
+		return ingest.apply(user.get());
+	}
+	
+	/**
+	 * Finds the {@code User} holding an {@code authenticator} by the indexed {@code authenticator} column, for {@code Token}s {@code claims} cannot answer
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Token}
+	 * @return
+	 * 		{@code User} holding {@code authenticator}
+	 * @throws InvalidTokenException
+	 * 		Throws if no {@code User} holds {@code authenticator}, or its stored expiration has passed
+	 */
+	private User findTokensUser(String authenticator) throws InvalidTokenException {
 		
-		for (UserInterface u : users) {
-			
-			if (token.getAuthenticator().equals(u.getToken().getAuthenticator())) { return u; }
-		}
+		Optional<User> user = uRepo.findFirstByTokenAuthenticator(authenticator);
+		if (!user.isPresent()) { throw new InvalidTokenException("Token entered does not correspond to an existing User"); }
+		if (!user.get().getToken().isValid()) { throw new InvalidTokenException("Token entered is expired"); }
 		
-		throw new InvalidTokenException("Token entered does not correspond to an existing User");
+		return user.get();
 	}
 	
 	/**
@@ -521,13 +802,26 @@ public class UserService {
 	 */
 	private void generateNewToken(UserInterface user) {
 		
-		String[] s = { user.getUsername(), user.getPassword() };
-		user.setToken(new Token(s, 24));
+		if (user.getToken() != null && user.getToken().getAuthenticator() != null) {
+			
+			signer.revoke(user.getToken().getAuthenticator());
+			sweeper.forget(user.getToken().getAuthenticator());
+		}
+		
+		//Expires in 24 hours, and names the User so it can be checked without the database
+		Token token = new Token();
+		token.setExpiration(System.currentTimeMillis() + 24 * 60 * 60 * 1000L);
+		token.setAuthenticator(signer.sign(user.getId(), user.getUsername(), token.getExpiration()));
+		user.setToken(token);
 		uRepo.save((User) user);
+		
+		sweeper.track(user.getId(), user.getToken().getAuthenticator(), user.getToken().getExpiration());
+		engine.updateToken(user.getId(), user.getToken().getAuthenticator(), user.getToken().getExpiration());
 	}
 	
 	/**
-	 * Checks a {@code User}'s name to see if it exists in the database
+	 * Checks a {@code User}'s name to see if it exists in the database. Names the {@code UsernameFilter} has never seen are free without a query,
+	 * the rest are looked up by the unique index
 	 * @param check
 	 * 		{@code User} to be checked
 	 * @return
@@ -535,13 +829,8 @@ public class UserService {
 	 */
 	private boolean checkName(UserInterface check) {
 		
-		List<User> users = uRepo.findAll();
-		
-		for (UserInterface u : users) {
-			
-			if (check.getUsername().equals(u.getUsername())) { return false; }
-		}
-		return true;
+		if (!names.mightExist(check.getUsername())) { return true; }
+		return !uRepo.existsByUsername(check.getUsername());
 	}
 	
 	/****************************************************************** END PRIVATE METHODS ******************************************************************/
@@ -0,0 +1,211 @@
+package application.users;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import application.tools.embeddables.Location;
+
+/**
+ * Ingests {@code Location} updates of {@code User}s that are not in a started {@code Session}.
+ * Each update replaces the {@code User}'s entry in an in-memory table of latest positions right away, so a burst of updates
+ * from one {@code User} costs one write. Changed entries are flushed in the background as one batched JDBC update touching only
+ * the location and {@code timeUpdated} columns. The flush bypasses Hibernate, so the flushed {@code User}s are evicted from the second-level cache
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class LocationIngest {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Writes one position. Column names follow Spring's physical naming strategy for {@code User}
+	 */
+	private static final String UPDATE = "UPDATE users SET latitude = ?, longitude = ?, accuracy = ?, time_updated = ? WHERE id = ?";
+	
+	/**
+	 * Latest position of every {@code User} that reported one, by {@code id}
+	 */
+	private final Map<Integer, Position> latest = new ConcurrentHashMap<>();
+	
+	/**
+	 * Positions not yet written to the database, by {@code User} {@code id}. A newer update replaces the pending one
+	 */
+	private final Map<Integer, Position> pending = new ConcurrentHashMap<>();
+	
+	/**
+	 * Runs the batched updates
+	 */
+	private final JdbcTemplate jdbc;
+	
+	/**
+	 * Second-level cache holding {@code User}s, {@code null} if there is none
+	 */
+	private final Cache cache;
+	
+	/**
+	 * Logger object
+	 */
+	private final Logger log = LoggerFactory.getLogger(LocationIngest.class);
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code LocationIngest}
+	 * @param jdbc
+	 * 		{@code JdbcTemplate} of the database
+	 * @param emf
+	 * 		{@code EntityManagerFactory} whose second-level cache is evicted after each flush, {@code null} for none
+	 */
+	public LocationIngest(JdbcTemplate jdbc, EntityManagerFactory emf) {
+		
+		this.jdbc = jdbc;
+		this.cache = emf == null ? null : emf.getCache();
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Records a new {@code Location} and {@code timeUpdated} for a {@code User}
+	 * @param userId
+	 * 		{@code id} of the {@code User}
+	 * @param location
+	 * 		New {@code Location}
+	 * @param timeUpdated
+	 * 		New {@code timeUpdated}
+	 */
+	public void record(int userId, Location location, long timeUpdated) {
+		
+		Position p = new Position(location.getLatitude(), location.getLongitude(), location.getAccuracy(), timeUpdated);
+		latest.put(userId, p);
+		pending.put(userId, p);
+	}
+	
+	/**
+	 * Records a new {@code timeUpdated} for a {@code User}, keeping their latest {@code Location}
+	 * @param user
+	 * 		{@code User} to update. Its {@code Location} is used if no newer one was recorded
+	 * @param timeUpdated
+	 * 		New {@code timeUpdated}
+	 */
+	public void touch(UserInterface user, long timeUpdated) {
+		
+		Position last = latest.get(user.getId());
+		Location location = last != null && last.timeUpdated >= user.getTimeUpdated() ? last.toLocation() : user.getLocation();
+		record(user.getId(), location, timeUpdated);
+	}
+	
+	/**
+	 * Copies the latest recorded position onto a {@code User} read from the database, if it is newer than the stored one
+	 * @param user
+	 * 		{@code User} to bring up to date
+	 * @return
+	 * 		{@code user}
+	 */
+	public UserInterface apply(UserInterface user) {
+		
+		if (user == null) { return null; }
+		
+		Position p = latest.get(user.getId());
+		if (p != null && p.timeUpdated >= user.getTimeUpdated()) {
+			
+			user.setLocation(p.toLocation());
+			user.setTimeUpdated(p.timeUpdated);
+		}
+		return user;
+	}
+	
+	/**
+	 * Drops everything recorded for a {@code User}
+	 * @param userId
+	 * 		{@code id} of the {@code User}
+	 */
+	public void forget(int userId) {
+		
+		latest.remove(userId);
+		pending.remove(userId);
+	}
+	
+	/**
+	 * Writes every pending position in one batch. Positions that fail to write are kept for the next flush unless replaced meanwhile
+	 * @return
+	 * 		Number of positions written
+	 */
+	@Scheduled(fixedDelayString = "${knockout.locations.flush-interval:1000}")
+	public int flush() {
+		
+		if (pending.isEmpty()) { return 0; }
+		
+		List<Integer> ids = new ArrayList<>();
+		List<Position> positions = new ArrayList<>();
+		List<Object[]> rows = new ArrayList<>();
+		for (Integer id : pending.keySet()) {
+			
+			Position p = pending.remove(id);
+			if (p == null) { continue; }
+			
+			ids.add(id);
+			positions.add(p);
+			rows.add(new Object[] { p.latitude, p.longitude, p.accuracy, p.timeUpdated, id });
+		}
+		
+		try {
+			jdbc.batchUpdate(UPDATE, rows);
+		} catch (RuntimeException e) {
+			
+			log.info("Error:  flush of " + rows.size() + " locations failed: " + e.getMessage());
+			for (int i = 0; i < ids.size(); i++) { pending.putIfAbsent(ids.get(i), positions.get(i)); }
+			return 0;
+		}
+		
+		//Cached copies now hold the old columns
+		if (cache != null) { for (Integer id : ids) { cache.evict(User.class, id); } }
+		
+		return rows.size();
+	}
+	
+	/**
+	 * Number of positions waiting to be written
+	 * @return
+	 * 		Pending count
+	 */
+	public int pendingCount() { return pending.size(); }
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/**
+	 * Immutable recorded position of a {@code User}
+	 */
+	private static class Position {
+		
+		private final double latitude;
+		private final double longitude;
+		private final int accuracy;
+		private final long timeUpdated;
+		
+		private Position(double latitude, double longitude, int accuracy, long timeUpdated) {
+			
+			this.latitude = latitude;
+			this.longitude = longitude;
+			this.accuracy = accuracy;
+			this.timeUpdated = timeUpdated;
+		}
+		
+		private Location toLocation() { return new Location(latitude, longitude, accuracy); }
+	}
+}
@@ -0,0 +1,221 @@
+package application.users;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import application.tools.security.TimingWheel;
+
+/**
+ * Expires {@code User} {@code Token}s in the background, so request paths only check {@code isExpired} and never write.
+ * Every live {@code Token} is kept in a {@code TimingWheel} by expiration, read from the database when the application is ready
+ * and added as {@code User}s log in. Replaced and logged out {@code Token}s are forgotten, so {@code holder} knows who holds every live
+ * {@code authenticator} without the database, even after a restart. Each sweep clears the {@code authenticator}s that expired since the last one in one batched JDBC update,
+ * which only touches rows still holding that {@code authenticator}. The update bypasses Hibernate, so the swept {@code User}s and the cached
+ * {@code authenticator} lookups are evicted
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class TokenSweeper {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Clears one expired {@code authenticator}. Column names follow Spring's physical naming strategy for {@code Token}
+	 */
+	private static final String EXPIRE = "UPDATE users SET authenticator = NULL WHERE id = ? AND authenticator = ?";
+	
+	/**
+	 * Reads every live {@code Token}
+	 */
+	private static final String LOAD = "SELECT id, authenticator, expiration FROM users WHERE authenticator IS NOT NULL";
+	
+	/**
+	 * Every tracked {@code authenticator}, with its {@code User} and expiration. Removed when it is swept or forgotten
+	 */
+	private final Map<String, Expiring> tracked = new ConcurrentHashMap<>();
+	
+	/**
+	 * Tracked {@code Token}s by expiration, with 1 second ticks. Guarded by its own monitor
+	 */
+	private final TimingWheel<Expiring> wheel = new TimingWheel<>(1000, System.currentTimeMillis());
+	
+	/**
+	 * Runs the batched updates
+	 */
+	private final JdbcTemplate jdbc;
+	
+	/**
+	 * Second-level cache holding {@code User}s, {@code null} if there is none
+	 */
+	private final Cache cache;
+	
+	/**
+	 * Logger object
+	 */
+	private final Logger log = LoggerFactory.getLogger(TokenSweeper.class);
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs a {@code TokenSweeper}
+	 * @param jdbc
+	 * 		{@code JdbcTemplate} of the database
+	 * @param emf
+	 * 		{@code EntityManagerFactory} whose second-level cache is evicted after each sweep, {@code null} for none
+	 */
+	public TokenSweeper(JdbcTemplate jdbc, EntityManagerFactory emf) {
+		
+		this.jdbc = jdbc;
+		this.cache = emf == null ? null : emf.getCache();
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Tracks every {@code Token} already in the database
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		
+		jdbc.query(LOAD, rs -> { track(rs.getInt(1), rs.getString(2), rs.getLong(3)); });
+	}
+	
+	/**
+	 * Tracks a newly issued {@code Token}
+	 * @param userId
+	 * 		{@code id} of the {@code User} holding it
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Token}
+	 * @param expiration
+	 * 		Time in milliseconds it expires at
+	 */
+	public void track(int userId, String authenticator, long expiration) {
+		
+		if (authenticator == null) { return; }
+		
+		Expiring expiring = new Expiring(userId, authenticator, expiration);
+		tracked.put(authenticator, expiring);
+		synchronized (wheel) { wheel.schedule(expiring, expiration); }
+	}
+	
+	/**
+	 * Stops tracking a {@code Token} that was replaced or deleted
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Token}
+	 */
+	public void forget(String authenticator) { if (authenticator != null) { tracked.remove(authenticator); } }
+	
+	/**
+	 * Checks if a tracked {@code Token} has expired. O(1), without the database
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Token}
+	 * @return
+	 * 		{@code true} if it is tracked and past its expiration. Untracked {@code authenticator}s are left to the caller's own checks
+	 */
+	public boolean isExpired(String authenticator) {
+		
+		Expiring expiring = authenticator == null ? null : tracked.get(authenticator);
+		return expiring != null && expiring.expiration < System.currentTimeMillis();
+	}
+	
+	/**
+	 * Gets the {@code User} holding a tracked {@code Token}. O(1), without the database
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Token}
+	 * @return
+	 * 		{@code id} of the {@code User} holding it, or {@code null} if it is not tracked or has expired
+	 */
+	public Integer holder(String authenticator) {
+		
+		Expiring expiring = authenticator == null ? null : tracked.get(authenticator);
+		return expiring == null || expiring.expiration < System.currentTimeMillis() ? null : expiring.userId;
+	}
+	
+	/**
+	 * Clears the {@code authenticator}s that expired since the last sweep in one batch. {@code Token}s that fail to clear are retried on the next sweep
+	 * @return
+	 * 		Number of {@code Token}s cleared
+	 */
+	@Scheduled(fixedDelayString = "${knockout.tokens.sweep-interval:1000}")
+	public int sweep() {
+		
+		List<Expiring> due = new ArrayList<>();
+		synchronized (wheel) { wheel.advance(System.currentTimeMillis(), due::add); }
+		
+		List<Expiring> expired = new ArrayList<>();
+		List<Object[]> rows = new ArrayList<>();
+		for (Expiring e : due) {
+			
+			//Skip Tokens forgotten or tracked again since
+			if (tracked.get(e.authenticator) != e) { continue; }
+			
+			expired.add(e);
+			rows.add(new Object[] { e.userId, e.authenticator });
+		}
+		if (rows.isEmpty()) { return 0; }
+		
+		try {
+			jdbc.batchUpdate(EXPIRE, rows);
+		} catch (RuntimeException ex) {
+			
+			log.info("Error:  sweep of " + rows.size() + " expired tokens failed: " + ex.getMessage());
+			synchronized (wheel) { for (Expiring e : expired) { wheel.schedule(e, e.expiration); } }
+			return 0;
+		}
+		
+		for (Expiring e : expired) { tracked.remove(e.authenticator, e); }
+		
+		//Cached copies and cached authenticator lookups now hold the old column. Other cached queries never read it
+		if (cache != null) {
+			
+			for (Expiring e : expired) { cache.evict(User.class, e.userId); }
+			cache.unwrap(org.hibernate.Cache.class).evictQueryRegion(UserRepository.TOKENS_REGION);
+		}
+		
+		return rows.size();
+	}
+	
+	/**
+	 * Number of tracked {@code Token}s
+	 * @return
+	 * 		Tracked count
+	 */
+	public int trackedCount() { return tracked.size(); }
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/**
+	 * Immutable tracked {@code Token}
+	 */
+	private static class Expiring {
+		
+		private final int userId;
+		private final String authenticator;
+		private final long expiration;
+		
+		private Expiring(int userId, String authenticator, long expiration) {
+			
+			this.userId = userId;
+			this.authenticator = authenticator;
+			this.expiration = expiration;
+		}
+	}
+}
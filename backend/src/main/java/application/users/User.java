@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.ElementCollection;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
@@ -13,15 +14,21 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToMany;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.core.style.ToStringCreator;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import application.items.Item;
+import application.items.ItemEffects;
 import application.items.ItemInterface;
 import application.tools.embeddables.Location;
 import application.tools.embeddables.Token;
@@ -29,11 +36,14 @@ import application.tools.embeddables.Token;
 /**
  * Defines instance variables, getters, setters, and misc methods common to all {@code User} types
  * See {@code UserInterface} for details on getters and setters for instance variables
+ * Collections are loaded lazily, in batches across {@code User}s, and only inside a transaction or an open request
  * 
  * @author Sean Griffen
  */
 @Entity
-@Table(name = "Users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@Table(name = "Users", indexes = { @Index(name = "idx_users_authenticator", columnList = "authenticator"), @Index(name = "uk_users_username", columnList = "username", unique = true) })
 public class User implements UserInterface {
 	
 	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
@@ -98,13 +108,21 @@ public class User implements UserInterface {
 	/**
 	 * List of {@code Items} the {@code User} has
 	 */
-	@ManyToMany(targetEntity = Item.class, fetch = FetchType.EAGER)
+	@ManyToMany(targetEntity = Item.class, fetch = FetchType.LAZY)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-items")
 	private Set<ItemInterface> items;
 	
+	/**
+	 * Buffs of {@code items}, worked out when first needed after {@code items} change. {@code null} until then
+	 */
+	@Transient
+	private ItemEffects effects;
+	
 	/**
 	 * List of {@code User}s this {@code User} is assigned to eliminate
 	 */
-	@OneToMany(targetEntity = User.class, fetch = FetchType.EAGER)
+	@OneToMany(targetEntity = User.class, fetch = FetchType.LAZY)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-targets")
 	@JsonIgnore
 //	@JoinTable(name = "users_targets")
 	private List<UserInterface> targets;
@@ -124,7 +142,8 @@ public class User implements UserInterface {
 	/**
 	 * {@code Token} of the {@code Session} of the {@code User}
 	 */
-	@ElementCollection(fetch = FetchType.EAGER)
+	@ElementCollection(fetch = FetchType.LAZY)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-sessions")
 //	@JoinTable(name = "user_session")
 	private Set<Token> session;
 	
@@ -256,7 +275,7 @@ public class User implements UserInterface {
 	public double getKDRatio() {
 		
 		if (deaths == 0) { return kills; }
-		return kills / deaths;
+		return (double) kills / deaths;
 	}
 	
 	@Override
@@ -270,29 +289,12 @@ public class User implements UserInterface {
 	public void setAuthLevel(int authLevel) { this.authLevel = authLevel; }
 	
 	@Override
-	public double getViewRadius() {
-		
-		double buff = 0.0;
-		for (ItemInterface i : items) {
-			
-			if (i.getType() == 0 && i.getEffectType() == 0) { buff += i.getEffect(); }
-		}
-		return viewRadius + buff;
-	}
+	public double getViewRadius() { return viewRadius + getEffects().getViewBuff(); }
 	@Override
 	public void setViewRadius(double viewRadius) { this.viewRadius = viewRadius; }
 	
 	@Override
-	public double getKillRadius() {
-		
-		double buff = 0.0;
-		for (ItemInterface i : items) {
-			
-			if (i.getType() == 0 && i.getEffectType() == 1) { buff += i.getEffect(); }
-		}
-		
-		return killRadius + buff;
-	}
+	public double getKillRadius() { return killRadius + getEffects().getKillBuff(); }
 	@Override
 	public void setKillRadius(double killRadius) { this.killRadius = killRadius; }
 	
@@ -304,7 +306,23 @@ public class User implements UserInterface {
 	@Override
 	public Set<ItemInterface> getItems() { return items; }
 	@Override
-	public void setItems(Set<ItemInterface> items) { this.items = items; }
+	public void setItems(Set<ItemInterface> items) {
+		
+		this.items = items;
+		effects = null;
+	}
+	@Override
+	public void addItem(ItemInterface item) {
+		
+		if (items.add(item) && effects != null) { effects = effects.plus(item); }
+	}
+	@Override
+	@JsonIgnore
+	public ItemEffects getEffects() {
+		
+		if (effects == null) { effects = ItemEffects.of(items); }
+		return effects;
+	}
 	
 	@Override
 	public List<UserInterface> getTargets() { return targets; }
@@ -394,7 +412,7 @@ public class User implements UserInterface {
 				.append("Kill Range", this.getKillRadius())
 				.append("Location", this.getLocation())
 				.append("Token", this.getToken())
-				.append("Targets", this.getTargets())
+				.append("Targets", Hibernate.isInitialized(targets) ? this.getTargets() : "not loaded")
 				.toString();
 	}
 	
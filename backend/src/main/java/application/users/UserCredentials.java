@@ -0,0 +1,23 @@
+package application.users;
+
+/**
+ * Projection of the columns a login is checked against, so the check never loads a {@code User}
+ *
+ * @author Sean Griffen
+ */
+public interface UserCredentials {
+	
+	/**
+	 * Get {@code id} of the {@code User}
+	 * @return
+	 * 		{@code id}
+	 */
+	public int getId();
+	
+	/**
+	 * Get the stored password of the {@code User}
+	 * @return
+	 * 		BCrypt hash, or plaintext from before hashing
+	 */
+	public String getPassword();
+}
@@ -3,6 +3,7 @@ package application.users;
 import java.util.List;
 import java.util.Set;
 
+import application.items.ItemEffects;
 import application.items.ItemInterface;
 import application.tools.embeddables.Location;
 import application.tools.embeddables.Token;
@@ -13,7 +14,7 @@ import application.tools.embeddables.Token;
  * 
  * @author Sean Griffen
  */
-public interface UserInterface {
+public interface UserInterface extends UserStanding {
 	
 	/**
 	 * Get {@code id} of the {@code User}
@@ -177,6 +178,19 @@ public interface UserInterface {
 	 * 		Desired {@code items} of the {@code User}
 	 */
 	public void setItems(Set<ItemInterface> items);
+	/**
+	 * Add an {@code Item} to {@code items}, updating the buffs without going over every {@code Item} again.
+	 * Prefer this to adding to {@code getItems()}, which leaves the buffs stale
+	 * @param item
+	 * 		{@code Item} to add
+	 */
+	public void addItem(ItemInterface item);
+	/**
+	 * Get the buffs of {@code items}
+	 * @return
+	 * 		{@code ItemEffects} of {@code items}
+	 */
+	public ItemEffects getEffects();
 	
 	/**
 	 * Get {@code targets} of the {@code User}
@@ -0,0 +1,30 @@
+package application.users;
+
+/**
+ * Projection of the columns a view radius check needs from a {@code User}
+ * 
+ * @author Sean Griffen
+ */
+public interface UserPosition {
+	
+	/**
+	 * Get {@code id} of the {@code User}
+	 * @return
+	 * 		{@code id}
+	 */
+	public int getId();
+	
+	/**
+	 * Get latitude of the {@code User}'s {@code Location}
+	 * @return
+	 * 		Latitude
+	 */
+	public double getLatitude();
+	
+	/**
+	 * Get longitude of the {@code User}'s {@code Location}
+	 * @return
+	 * 		Longitude
+	 */
+	public double getLongitude();
+}
@@ -1,7 +1,15 @@
 package application.users;
 
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository for Objects that are or extend {@code User}
@@ -10,5 +18,93 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
-
+	
+	/**
+	 * Query cache region of {@code findFirstByTokenAuthenticator}, evicted by {@code TokenSweeper} when it clears {@code authenticator}s
+	 */
+	public static final String TOKENS_REGION = "user-tokens";
+	
+	/**
+	 * Gets the {@code User} whose {@code Token} has a matching {@code authenticator}. Served by the {@code authenticator} index on the Users table,
+	 * and by the query cache until a {@code User} is written through Hibernate
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Token} to look up
+	 * @return
+	 * 		{@code User} holding the {@code Token}, if any
+	 */
+	@QueryHints({ @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = TOKENS_REGION) })
+	public Optional<User> findFirstByTokenAuthenticator(String authenticator);
+	
+	/**
+	 * Gets the {@code User} with a matching {@code username}, without any of its collections. Served by the unique {@code username} index on the Users table
+	 * @param username
+	 * 		{@code username} to look up
+	 * @return
+	 * 		{@code User} with {@code username}, if any
+	 */
+	public Optional<User> findFirstByUsername(String username);
+	
+	/**
+	 * Gets the {@code id} and stored password of the {@code User} with a matching {@code username}, in a read-only transaction of its own.
+	 * Logins are checked against it outside of any transaction, so no connection is held while BCrypt runs
+	 * @param username
+	 * 		{@code username} to look up
+	 * @return
+	 * 		{@code UserCredentials} of the {@code User} with {@code username}, if any
+	 */
+	@Transactional(readOnly = true)
+	@Query("select u.id as id, u.passwordd as password from User u where u.username = ?1")
+	public Optional<UserCredentials> findCredentialsByUsername(String username);
+	
+	/**
+	 * Checks if a {@code User} with a matching {@code username} exists. Served by the unique {@code username} index on the Users table,
+	 * and only asked when the {@code UsernameFilter} reports {@code username} as possibly taken.
+	 * Runs in a read-only transaction of its own
+	 * @param username
+	 * 		{@code username} to check
+	 * @return
+	 * 		{@code true} if a {@code User} has {@code username}, {@code false} otherwise
+	 */
+	@Transactional(readOnly = true)
+	public boolean existsByUsername(String username);
+	
+	/**
+	 * Gets the leaderboard columns of every {@code User} in a {@code Session}
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @return
+	 * 		{@code UserStanding} of each {@code User} in the {@code Session}
+	 */
+	@Query("select u.id as id, u.username as username, u.kills as kills, u.deaths as deaths, u.levell as level from Session s join s.users u where s.token.authenticator = ?1")
+	public List<UserStanding> findStandingsBySession(String authenticator);
+	
+	/**
+	 * Gets the leaderboard columns of every {@code User}
+	 * @return
+	 * 		{@code UserStanding} of each {@code User}
+	 */
+	@Query("select u.id as id, u.username as username, u.kills as kills, u.deaths as deaths, u.levell as level from User u")
+	public List<UserStanding> findAllStandings();
+	
+	/**
+	 * Gets the {@code id} and {@code Location} of every {@code User} in a {@code Session}
+	 * @param authenticator
+	 * 		{@code authenticator} of the {@code Session}'s {@code Token}
+	 * @return
+	 * 		{@code UserPosition} of each {@code User} in the {@code Session}
+	 */
+	@Query("select u.id as id, u.location.latitude as latitude, u.location.longitude as longitude from Session s join s.users u where s.token.authenticator = ?1")
+	public List<UserPosition> findPositionsBySession(String authenticator);
+	
+	/**
+	 * Gets every {@code User} in a {@code Session} with their {@code items} in one query. {@code User}s already loaded in the
+	 * persistence context get their {@code items} filled in
+	 * @param id
+	 * 		{@code id} of the {@code Session}
+	 * @return
+	 * 		{@code User}s in the {@code Session}
+	 */
+	@Query("select distinct u from Session s join s.users u left join fetch u.items where s.id = ?1")
+	public List<User> findWithItemsBySession(int id);
 }
@@ -0,0 +1,55 @@
+package application.users;
+
+/**
+ * Projection of the columns a leaderboard needs from a {@code User}
+ * 
+ * @author Sean Griffen
+ */
+public interface UserStanding {
+	
+	/**
+	 * Get {@code id} of the {@code User}
+	 * @return
+	 * 		{@code id}
+	 */
+	public int getId();
+	
+	/**
+	 * Get {@code username} of the {@code User}
+	 * @return
+	 * 		{@code username}
+	 */
+	public String getUsername();
+	
+	/**
+	 * Get {@code kills} of the {@code User}
+	 * @return
+	 * 		{@code kills}
+	 */
+	public int getKills();
+	
+	/**
+	 * Get {@code deaths} of the {@code User}
+	 * @return
+	 * 		{@code deaths}
+	 */
+	public int getDeaths();
+	
+	/**
+	 * Get {@code level} of the {@code User}
+	 * @return
+	 * 		{@code level}
+	 */
+	public int getLevel();
+	
+	/**
+	 * Get kill/death ratio of the {@code User}
+	 * @return
+	 * 		{@code kills} over {@code deaths}, or {@code kills} if there are no {@code deaths}
+	 */
+	public default double getKDRatio() {
+		
+		if (getDeaths() == 0) { return getKills(); }
+		return (double) getKills() / getDeaths();
+	}
+}
@@ -0,0 +1,188 @@
+package application.users;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filter of every {@code username} in use, so most checks for a free {@code username} are answered without the database.
+ * {@code mightExist} never misses a {@code username} that was added, and wrongly reports a free one at most about 1% of the time
+ * while fewer than {@code knockout.users.expected} are in it. It is filled from the database when the application is ready and
+ * reports every {@code username} as possibly taken until then. {@code username}s are compared ignoring case, as the unique index
+ * does under MySQL's default collation. Deleted and renamed {@code username}s stay in it and only cost a query.
+ * The unique index on {@code username} is the final word when two {@code User}s take the same one at once
+ *
+ * @author Sean Griffen
+ */
+@Component
+public class UsernameFilter {
+	
+	/************************************************************** START VARIABLE DECLARATIONS **************************************************************/
+	
+	/**
+	 * Reads every {@code username}
+	 */
+	private static final String LOAD = "SELECT username FROM users";
+	
+	/**
+	 * Bits per expected {@code username} and bits set per {@code username}, for about a 1% false positive rate
+	 */
+	private static final int BITS_PER_NAME = 10;
+	private static final int HASHES = 7;
+	
+	/**
+	 * Bits of the filter, 64 per {@code long}
+	 */
+	private final AtomicLongArray bits;
+	
+	/**
+	 * Number of bits in {@code bits}
+	 */
+	private final long size;
+	
+	/**
+	 * Reads the {@code username}s in use, {@code null} to start empty
+	 */
+	private final JdbcTemplate jdbc;
+	
+	/**
+	 * {@code false} until every {@code username} in the database has been added
+	 */
+	private volatile boolean loaded;
+	
+	/*************************************************************** END VARIABLE DECLARATIONS ***************************************************************/
+	
+	/****************************************************************** START CONSTRUCTORS *******************************************************************/
+	
+	/**
+	 * Constructs an empty {@code UsernameFilter}
+	 * @param jdbc
+	 * 		{@code JdbcTemplate} of the database it is filled from, {@code null} to start empty and ready
+	 * @param expected
+	 * 		Number of {@code username}s it is sized for. More still work, with more false positives
+	 */
+	public UsernameFilter(JdbcTemplate jdbc, @Value("${knockout.users.expected:100000}") int expected) {
+		
+		this.jdbc = jdbc;
+		this.bits = new AtomicLongArray((int) ((Math.max(1, (long) expected) * BITS_PER_NAME + 63) / 64));
+		this.size = bits.length() * 64L;
+		this.loaded = jdbc == null;
+	}
+	
+	/******************************************************************* END CONSTRUCTORS ********************************************************************/
+	
+	/****************************************************************** START MISC METHODS *******************************************************************/
+	
+	/**
+	 * Adds every {@code username} already in the database
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		
+		if (jdbc == null) { return; }
+		jdbc.query(LOAD, rs -> { add(rs.getString(1)); });
+		loaded = true;
+	}
+	
+	/**
+	 * Adds a {@code username} that was taken
+	 * @param username
+	 * 		{@code username} to add
+	 */
+	public void add(String username) {
+		
+		if (username == null) { return; }
+		
+		long[] hashes = hash(username);
+		for (int i = 0; i < HASHES; i++) {
+			
+			long bit = index(hashes, i);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			
+			long current;
+			do {
+				current = bits.get(word);
+			} while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+		}
+	}
+	
+	/**
+	 * Checks if a {@code username} might be taken
+	 * @param username
+	 * 		{@code username} to check
+	 * @return
+	 * 		{@code false} only if it is certainly free. {@code true} if it was added, rarely if it was not, and always until {@code load} is done
+	 */
+	public boolean mightExist(String username) {
+		
+		if (!loaded || username == null) { return true; }
+		
+		long[] hashes = hash(username);
+		for (int i = 0; i < HASHES; i++) {
+			
+			long bit = index(hashes, i);
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) { return false; }
+		}
+		return true;
+	}
+	
+	/******************************************************************* END MISC METHODS ********************************************************************/
+	
+	/***************************************************************** START PRIVATE METHODS *****************************************************************/
+	
+	/**
+	 * Computes two independent 64 bit hashes of a {@code username} ignoring case, which every bit index is made from
+	 * @param username
+	 * 		{@code username} to hash
+	 * @return
+	 * 		The two hashes, the second odd so every step of {@code index} moves
+	 */
+	private static long[] hash(String username) {
+		
+		byte[] bytes = username.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+		long h1 = 0xcbf29ce484222325L;
+		long h2 = 0x84222325cbf29ce4L;
+		for (byte b : bytes) {
+			
+			h1 = (h1 ^ (b & 0xff)) * 0x100000001b3L;
+			h2 = (h2 + (b & 0xff)) * 0x9e3779b97f4a7c15L;
+		}
+		return new long[] { mix(h1), mix(h2) | 1 };
+	}
+	
+	/**
+	 * Computes the bit index of the {@code i}th hash, by double hashing
+	 * @param hashes
+	 * 		Hashes from {@code hash}
+	 * @param i
+	 * 		Which of the {@code HASHES} bits
+	 * @return
+	 * 		Bit index in {@code bits}
+	 */
+	private long index(long[] hashes, int i) { return Math.floorMod(hashes[0] + i * hashes[1], size); }
+	
+	/**
+	 * Spreads the bits of a hash, the finalizer of MurmurHash3
+	 * @param h
+	 * 		Hash to spread
+	 * @return
+	 * 		Spread hash
+	 */
+	private static long mix(long h) {
+		
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb93fe1a85ec3L;
+		return h ^ (h >>> 33);
+	}
+	
+	/****************************************************************** END PRIVATE METHODS ******************************************************************/
+}
@@ -0,0 +1,236 @@
+package application.webSocket;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import application.tools.embeddables.Token;
+
+/**
+ * One open websocket with its own bounded outbound queue.
+ * Messages are written with the async remote one at a time, so a slow client only backs up its own queue and never the thread sending to it.
+ * When the queue is full the oldest message is dropped, and a message sent with a coalesce key replaces the queued message with the same key
+ *
+ * @author Theodore Davis
+ */
+public class Connection {
+	
+	/**
+	 * Logger object
+	 */
+	private static final Logger log = LoggerFactory.getLogger(Connection.class);
+	
+	/**
+	 * Websocket session written to
+	 */
+	private final Session session;
+	
+	/**
+	 * {@code Token} of the user on this connection
+	 */
+	private final Token user;
+	
+	/**
+	 * Name of the user, kept for logging so it is never read from the database per message
+	 */
+	private final String username;
+	
+	/**
+	 * {@code id} of the user
+	 */
+	private final int userId;
+	
+	/**
+	 * Most messages waiting to be sent before the oldest is dropped
+	 */
+	private final int capacity;
+	
+	/**
+	 * Messages waiting to be sent, oldest first. Guarded by {@code this}
+	 */
+	private final ArrayDeque<Pending> queue;
+	
+	/**
+	 * Sends the next message once the previous one is written
+	 */
+	private final SendHandler onSent;
+	
+	/**
+	 * {@code true} while a message is being written. Guarded by {@code this}
+	 */
+	private boolean sending;
+	
+	/**
+	 * {@code true} once the connection has failed or closed. Guarded by {@code this}
+	 */
+	private boolean closed;
+	
+	/**
+	 * Number of messages dropped because the queue was full. Guarded by {@code this}
+	 */
+	private long dropped;
+	
+	/**
+	 * {@code Token} of the game {@code Session} this connection is subscribed to, {@code null} if none. Written by {@code ConnectionRegistry}
+	 */
+	private volatile Token game;
+	
+	/**
+	 * Constructs a {@code Connection}
+	 * @param session websocket session to write to
+	 * @param user token of the user on the connection
+	 * @param username name of the user
+	 * @param userId id of the user
+	 * @param capacity most messages to queue before dropping the oldest
+	 * @param sendTimeout milliseconds a single write may take before the connection is dropped
+	 */
+	public Connection(Session session, Token user, String username, int userId, int capacity, long sendTimeout) {
+		
+		this.session = session;
+		this.user = user;
+		this.username = username;
+		this.userId = userId;
+		this.capacity = capacity;
+		this.queue = new ArrayDeque<>(capacity);
+		this.onSent = this::sent;
+		
+		session.getAsyncRemote().setSendTimeout(sendTimeout);
+	}
+	
+	public Session getSession() { return session; }
+	
+	public Token getUser() { return user; }
+	
+	public String getUsername() { return username; }
+	
+	public int getUserId() { return userId; }
+	
+	public Token getGame() { return game; }
+	void setGame(Token game) { this.game = game; }
+	
+	public synchronized long getDropped() { return dropped; }
+	
+	public synchronized int getQueued() { return queue.size(); }
+	
+	/**
+	 * Queues a message. Never blocks on the network
+	 * @param message text to send
+	 */
+	public void send(String message) { send(message, null); }
+	
+	/**
+	 * Queues a message, replacing a queued message with the same {@code key}. Never blocks on the network
+	 * @param message text to send
+	 * @param key coalesce key, {@code null} to never coalesce
+	 */
+	public void send(String message, String key) {
+		
+		synchronized (this) {
+			
+			if (closed) { return; }
+			
+			if (key != null) {
+				
+				for (Pending p : queue) {
+					
+					if (key.equals(p.key)) {
+						
+						p.message = message;
+						return;
+					}
+				}
+			}
+			
+			if (queue.size() >= capacity) {
+				
+				queue.pollFirst();
+				dropped++;
+			}
+			queue.addLast(new Pending(key, message));
+			
+			if (sending) { return; }
+			sending = true;
+		}
+		sendNext();
+	}
+	
+	/**
+	 * Stops sending and discards everything queued
+	 */
+	public synchronized void close() {
+		
+		closed = true;
+		sending = false;
+		queue.clear();
+	}
+	
+	/**
+	 * Writes the oldest queued message, or goes idle if there is none
+	 */
+	private void sendNext() {
+		
+		Pending next;
+		synchronized (this) {
+			
+			next = closed ? null : queue.pollFirst();
+			if (next == null) {
+				
+				sending = false;
+				return;
+			}
+		}
+		
+		try {
+			session.getAsyncRemote().sendText(next.message, onSent);
+		} catch (RuntimeException e) {
+			fail(e);
+		}
+	}
+	
+	/**
+	 * Called by the container when a write finishes
+	 * @param result outcome of the write
+	 */
+	private void sent(SendResult result) {
+		
+		if (result.isOK()) { sendNext(); }
+		else { fail(result.getException()); }
+	}
+	
+	/**
+	 * Drops a connection whose write failed or timed out. The container then runs the endpoint's close handler
+	 * @param t cause of the failure
+	 */
+	private void fail(Throwable t) {
+		
+		log.info("Error:  send to websocket " + session.getId() + " failed: " + (t == null ? "unknown" : t.getMessage()));
+		close();
+		
+		try {
+			if (session.isOpen()) { session.close(); }
+		} catch (IOException e) {
+			log.info("Error:  " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Queued message with its coalesce key
+	 */
+	private static class Pending {
+		
+		private final String key;
+		private String message;
+		
+		private Pending(String key, String message) {
+			
+			this.key = key;
+			this.message = message;
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package application.webSocket;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.websocket.Session;
+
+import org.springframework.stereotype.Component;
+
+import application.tools.embeddables.Token;
+
+/**
+ * Thread-safe index of open websocket {@code Connection}s, by websocket session, by user and by game session.
+ * Every lookup, join and leave is a constant-time operation on a {@code ConcurrentHashMap}, and the connections of one game are kept
+ * in their own set so a broadcast never scans the connections of other games.
+ * Users and games are keyed by the {@code authenticator} of their {@code Token}, since {@code Token} has no value equality
+ *
+ * @author Theodore Davis
+ */
+@Component
+public class ConnectionRegistry {
+	
+	/**
+	 * Connections by websocket session {@code id}
+	 */
+	private final Map<String, Connection> bySocket = new ConcurrentHashMap<>();
+	
+	/**
+	 * Latest connection of each user by user token {@code authenticator}
+	 */
+	private final Map<String, Connection> byUser = new ConcurrentHashMap<>();
+	
+	/**
+	 * Connections joined to each game by session token {@code authenticator}. Empty sets are removed
+	 */
+	private final Map<String, Set<Connection>> byGame = new ConcurrentHashMap<>();
+	
+	/**
+	 * Registers a newly opened websocket. Replaces the user's previous connection in the user index
+	 * @param socket websocket session that opened
+	 * @param user token of the user on the websocket
+	 * @param username name of the user
+	 * @param userId id of the user
+	 * @param capacity most messages to queue before dropping the oldest
+	 * @param sendTimeout milliseconds a single write may take before the connection is dropped
+	 * @return the new {@code Connection}
+	 */
+	public Connection open(Session socket, Token user, String username, int userId, int capacity, long sendTimeout) {
+		
+		Connection connection = new Connection(socket, user, username, userId, capacity, sendTimeout);
+		
+		bySocket.put(socket.getId(), connection);
+		byUser.put(user.getAuthenticator(), connection);
+		return connection;
+	}
+	
+	/**
+	 * Unregisters a websocket, leaving its game and discarding its queued messages
+	 * @param socket websocket session that closed
+	 * @return the removed {@code Connection}, or {@code null} if it was not registered
+	 */
+	public Connection close(Session socket) {
+		
+		Connection connection = bySocket.remove(socket.getId());
+		if (connection == null) { return null; }
+		
+		//Only unindex the user if they have not reconnected on another websocket
+		byUser.remove(connection.getUser().getAuthenticator(), connection);
+		leave(connection);
+		connection.close();
+		
+		return connection;
+	}
+	
+	/**
+	 * Gets the connection of a websocket session
+	 * @param socket websocket session
+	 * @return {@code Connection}, or {@code null} if not registered
+	 */
+	public Connection get(Session socket) { return bySocket.get(socket.getId()); }
+	
+	/**
+	 * Gets the latest connection of a user
+	 * @param user token of the user
+	 * @return {@code Connection}, or {@code null} if the user has no open websocket
+	 */
+	public Connection getByUser(Token user) { return user == null ? null : getByAuthenticator(user.getAuthenticator()); }
+	
+	/**
+	 * Gets the latest connection of a user
+	 * @param authenticator {@code authenticator} of the user's token
+	 * @return {@code Connection}, or {@code null} if the user has no open websocket
+	 */
+	public Connection getByAuthenticator(String authenticator) { return authenticator == null ? null : byUser.get(authenticator); }
+	
+	/**
+	 * Joins a connection to a game, leaving any game it was in
+	 * @param connection connection joining
+	 * @param game token of the game session
+	 */
+	public void join(Connection connection, Token game) {
+		
+		leave(connection);
+		connection.setGame(game);
+		byGame.compute(game.getAuthenticator(), (k, connections) -> {
+			
+			if (connections == null) { connections = ConcurrentHashMap.newKeySet(); }
+			connections.add(connection);
+			return connections;
+		});
+	}
+	
+	/**
+	 * Removes a connection from its game
+	 * @param connection connection leaving
+	 */
+	public void leave(Connection connection) {
+		
+		Token game = connection.getGame();
+		if (game == null) { return; }
+		
+		connection.setGame(null);
+		byGame.computeIfPresent(game.getAuthenticator(), (k, connections) -> {
+			
+			connections.remove(connection);
+			return connections.isEmpty() ? null : connections;
+		});
+	}
+	
+	/**
+	 * Gets every connection joined to a game
+	 * @param game token of the game session
+	 * @return read-only live view of the game's connections, empty if none
+	 */
+	public Set<Connection> inGame(Token game) {
+		
+		Set<Connection> connections = game == null ? null : byGame.get(game.getAuthenticator());
+		return connections == null ? Collections.emptySet() : Collections.unmodifiableSet(connections);
+	}
+	
+	/**
+	 * Number of open connections
+	 * @return connection count
+	 */
+	public int size() { return bySocket.size(); }
+	
+	/**
+	 * Number of messages queued on open connections and not yet sent
+	 * @return queued message count
+	 */
+	public int queuedMessages() {
+		
+		int queued = 0;
+		for (Connection c : bySocket.values())
+			queued += c.getQueued();
+		return queued;
+	}
+}
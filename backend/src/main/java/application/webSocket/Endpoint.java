@@ -2,59 +2,89 @@ package application.webSocket;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import javax.transaction.Transactional;
 import javax.websocket.OnClose;
 import javax.websocket.OnError;
 import javax.websocket.OnMessage;
 import javax.websocket.OnOpen;
-import javax.websocket.RemoteEndpoint.Basic;
 import javax.websocket.Session;
 import javax.websocket.server.PathParam;
 import javax.websocket.server.ServerEndpoint;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
-import application.controllers.MainController;
-import application.exceptions.BackendException;
 import application.exceptions.InvalidListException;
 import application.exceptions.InvalidSessionException;
 import application.exceptions.InvalidTokenException;
 import application.exceptions.InvalidUserException;
 import application.items.ItemInterface;
-import application.sessions.SessionInterface;
 import application.tools.embeddables.ItemLocationWrapper;
 import application.tools.embeddables.Location;
 import application.tools.embeddables.Token;
+import application.tools.security.SignedToken;
 import application.tools.services.SessionService;
 import application.tools.services.UserService;
 import application.tools.wrappers.ListMapReturnWrapper;
-import application.tools.wrappers.LocationUpdateWrapper;
 import application.tools.wrappers.MultiListReturnWrapper;
 import application.users.UserInterface;
+import application.users.UserStanding;
+import application.webSocket.messages.LeaderboardMessage;
+import application.webSocket.messages.MessageWriter;
+import application.webSocket.messages.NoticeMessage;
+import application.webSocket.messages.PlayersInRadiusMessage;
+import application.webSocket.messages.SessionPlayersMessage;
 
 @ServerEndpoint(value = "/websocket/{tokenString}", configurator = CustomConfigurator.class)
 @Component
 public class Endpoint {
 	
-	// Store all socket session and their corresponding user    
-	private static Map<Session, Token> sessionUsertokenMap = new HashMap<>();
-    private static Map<Token, Session> usertokenSessionMap = new HashMap<>();
-    private static Map<Token, Token>  usertokenSeshtokenMap   = new HashMap<>();
-//    private static Map<User, Token>  usernameUsertokenMap   = new HashMap<>();
+	// Store all socket sessions with their corresponding user and game session
+	private final ConnectionRegistry connections;
+    
+    /**
+     * Most messages queued per connection before the oldest is dropped
+     */
+    @Value("${knockout.websocket.send-queue-capacity:64}")
+    private int sendQueueCapacity;
+    
+    /**
+     * Milliseconds a single write may take before a connection is dropped
+     */
+    @Value("${knockout.websocket.send-timeout:10000}")
+    private long sendTimeout;
     
     private ObjectMapper objectMapper;
     
+    /**
+     * Name of the intent timers, tagged with the intent and whether it succeeded
+     */
+    public static final String INTENT_TIMER = "knockout.websocket.intent";
+    
+    // Serializes outbound messages
+    private MessageWriter messages;
+    
+    // Reader for 201 location updates, resolved once instead of per message
+    private ObjectReader locationReader;
+    
+    // Times each intent as knockout.websocket.intent
+    private final MeterRegistry registry;
+    
+    // Picks which messages of each intent are logged
+    private final IntentSampler sampler;
+    
     @Autowired
     UserService uService;
     @Autowired
@@ -63,19 +93,27 @@ public class Endpoint {
 	/**
 	 * Logger object
 	 */
-	private final Logger log = LoggerFactory.getLogger(MainController.class);
+	private final Logger log = LoggerFactory.getLogger(Endpoint.class);
 	
 	/**
 	 * Constructs websocket class
 	 * @param uService service for storing/ retreaving users
 	 * @param seshService service for accessing sessions
+	 * @param connections registry of open websockets
+	 * @param registry registry the intent timers are kept in
+	 * @param sampler picks which messages of each intent are logged
 	 */
-	public Endpoint(UserService uService, SessionService seshService) { 
+	public Endpoint(UserService uService, SessionService seshService, ConnectionRegistry connections, MeterRegistry registry, IntentSampler sampler) { 
 		objectMapper = new ObjectMapper();
 		this.uService = uService;
 		this.seshService = seshService;
+		this.connections = connections;
+		this.registry = registry;
+		this.sampler = sampler;
 		
 		objectMapper.configure(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES, false);//some objects don't need every variable
+		messages = new MessageWriter(objectMapper.getFactory());
+		locationReader = objectMapper.readerFor(Location.class);
 	}
 	
 	/**
@@ -90,8 +128,7 @@ public class Endpoint {
     		  Session session,
     	      @PathParam("tokenString") String tokenString) throws IOException, InvalidTokenException {
        
-		log.info("System: new client entered @OnOpen");
-		log.info("System: new client sent: " + tokenString);
+		log.debug("System: new client sent: {}", tokenString);
 		if (tokenString == null) {
 			
 			log.info("Token String was null"); 
@@ -108,20 +145,19 @@ public class Endpoint {
 		token.setAuthenticator(tokenString.substring(0, parse));//set string
 		token.setExpiration(Long.parseLong(tokenString.substring(parse + 1, tokenString.length())));//set long
 		
-		UserInterface user;
+		//a signed token still tracked for its user is answered from its claims, anything else by the user's row
+		SignedToken user;
 		try {
-			user = uService.getUser(token); //passes token to service to get user data back
+			user = uService.identify(token); //passes token to service to get user data back
 		} catch (InvalidTokenException e) {
-			e.printStackTrace();
-			log.info("Error:  " + e.getMessage());
+			log.warn("Error:  could not open endpoint: {}", e.getMessage(), e);
 			throw new InvalidTokenException("Could not find user for given token");
 		}
 		
-		log.info("System: " + user.getUsername() + " Opened endpoint" + getTime());
+		log.info("System: {} opened endpoint", user.getUsername());
 		
-		//store data into maps for future use
-		sessionUsertokenMap.put(session, user.getToken());
-		usertokenSessionMap.put(user.getToken(), session);
+		//store data into maps for future use, with the user's name and id so logging and 202s never read the database
+		connections.open(session, token, user.getUsername(), user.getUserId(), sendQueueCapacity, sendTimeout);
 		}
 	
 	/**
@@ -132,30 +168,29 @@ public class Endpoint {
 	 */
 	@OnMessage
     public void onMessage(Session session, String message) throws IOException {
-		//log message
-    	try {
-			log.info("Input:  " + uService.getUser(sessionUsertokenMap.get(session)).getUsername()+ ": " + message + getTime());
-		} catch (BackendException e) {
-			e.printStackTrace();
+		Connection connection = connections.get(session);
+		if (connection == null) {
+			log.info("Error:  message from unregistered websocket {}", session.getId());
+			return;
 		}
-    	
-    	//parse for intent
-    	getIntent(message, sessionUsertokenMap.get(session));
+		
+    	//parse for intent, tagging every line logged on the way with the user
+    	MDC.put("user", connection.getUsername());
+    	try {
+    		getIntent(message, connection);
+    	} finally {
+    		MDC.clear();
+    	}
     }
 	
 	@OnClose
 	public void close(Session session) throws IOException {
     	
-    	UserInterface user = null;
-		try {
-			user = uService.getUser(sessionUsertokenMap.get(session));
-		} catch (BackendException e) {
-			e.printStackTrace();
-		}
-    	log.info("System: " + user.getUsername() + " entered @OnClose" + getTime());
+    	Connection connection = connections.close(session);
+    	if (connection == null)
+    		return;
     	
-    	sessionUsertokenMap.remove(session);
-    	usertokenSessionMap.remove(user.getToken());
+    	log.info("System: {} closed endpoint", connection.getUsername());
 	}
 	
 	/**
@@ -164,59 +199,60 @@ public class Endpoint {
 	 */
 	@OnError
 	public void onError(Throwable t) {
-        log.info("Error:  " + t.getMessage());
+        log.info("Error:  {}", t.getMessage());
     }
 	
 	//send to everyone in session
-	private void broadcastBuffer(String message, Token sesh) {
-		log.info("Output: to all \"" + message + "\"");
-		broadcast(message, sesh);
+	private void broadcastBuffer(String message, Token sesh, String key) {
+		log.debug("Output: to all \"{}\"", message);
+		broadcast(message, sesh, key);
 	}
 	
-	private static void broadcast(String message, Token sesh) {	
-		for (Token u : sessionUsertokenMap.values()) {
-			if (usertokenSeshtokenMap.get(u) != null)
-				if (usertokenSeshtokenMap.get(u).getAuthenticator().equals(sesh.getAuthenticator())) {
-					try {
-						usertokenSessionMap.get(u).getBasicRemote().sendText(message);
-					} catch (Exception e) {
-						e.printStackTrace();
-					}
-				}
-		}
+	/**
+	 * Queues a message on every connection subscribed to a game session. Only touches that session's subscribers and never waits on a client
+	 * @param message text to send
+	 * @param sesh token of the game session
+	 * @param key coalesce key, {@code null} to never coalesce
+	 */
+	private void broadcast(String message, Token sesh, String key) {
+		for (Connection c : connections.inGame(sesh))
+			c.send(message, key);
 	}
 	
 	private void whisperBuffer(String message, Token user) {
-		try {
-			log.info("Output: to " + uService.getUser(user).getUsername() + " \"" + message + "\"");
-		} catch (BackendException e) {
-			e.printStackTrace();
-		}
-		int ret = whisper(message, user);
-        log.info("returned: " + ret + " map size: " + 
-                usertokenSessionMap.size());
+		whisperBuffer(message, user, null);
 	}
 	
-	private static int whisper(String message, Token user){
-		int ret = 0;
-            try {
-            	if(usertokenSessionMap.containsKey(user)) ret += 10;
-				Session u = usertokenSessionMap.get(user);
-				ret++;
-				Basic x = u.getBasicRemote();
-				ret++;
-				x.sendText(message);
-				ret++;
-			} catch (Exception e) {
-				e.printStackTrace();
-				return ret;
-			}
-			return ret;
+	private void whisperBuffer(String message, Token user, String key) {
+		if (!whisper(message, user, key))
+			log.info("Error:  no connection to whisper to, open connections: {}", connections.size());
+	}
+	
+	/**
+	 * Queues a message on one user's connection. Never waits on the client
+	 * @param message text to send
+	 * @param user token of the user
+	 * @param key coalesce key, {@code null} to never coalesce
+	 * @return {@code true} if queued, {@code false} if the user has no connection
+	 */
+	private boolean whisper(String message, Token user, String key) {
+		Connection connection = connections.getByUser(user);
+		if (connection == null)
+			return false;
+		
+		log.debug("Output: to {} \"{}\"", connection.getUsername(), message);
+		connection.send(message, key);
+		return true;
 	}
 	
-	private static String getTime() {
-		return String.format("@ Date: %d/%d, Time: %d:%d",
-				Calendar.MONTH+1, Calendar.DAY_OF_MONTH+1, Calendar.HOUR_OF_DAY, Calendar.MINUTE);
+	/**
+	 * Gets the game session a user's connection has joined
+	 * @param userToken token of the user
+	 * @return token of the game session, or {@code null} if the user has no connection or has not joined
+	 */
+	private Token getSeshToken(Token userToken) {
+		Connection connection = connections.getByUser(userToken);
+		return connection == null ? null : connection.getGame();
 	}
 	
 /*******************************************************************************************************************************************************************
@@ -228,44 +264,62 @@ Start of intent methods
 	/**
 	 * 
 	 * @param JSon String starting with a three digit intent and ends with a Json object
-	 * @param user user session calling this method
+	 * @param connection connection of the user calling this method
 	 * @return whether method has run successfully or not
 	 */
-	private boolean getIntent(String jSon, Token userToken) {
+	private boolean getIntent(String jSon, Connection connection) {
 		//create string to hold error message if there is one
 		String errorMsg = new String();
+		Token userToken = connection.getUser();
 		
 		//grab the integer from front of string
 		int intent;
 		try {
 			intent = Integer.parseInt(jSon.substring(0, 3));
 		} catch (NumberFormatException e) {
-			e.printStackTrace();
-			log.info("Error:  " + e.getLocalizedMessage());
-			whisperBuffer(String.format("{\"intent\":400, \"reason\":\"error on intent N/A: %s\",\"object\":{}}", e.getLocalizedMessage()), userToken);
+			log.info("Error:  {}", e.getLocalizedMessage());
+			registry.counter(INTENT_TIMER + ".invalid").increment();
+			whisperBuffer(messages.write(NoticeMessage.error("error on intent N/A: " + e.getLocalizedMessage())), userToken);
 			return false;
 		}
+		
+		//only every nth message of a frequent intent is logged, errors always are
+		MDC.put("intent", jSon.substring(0, 3));
+		boolean sampled = log.isInfoEnabled() && sampler.sample(intent);
+		if (sampled)
+			log.info("Input:  {}", jSon);
 		jSon = jSon.substring(3);//removes the intent from the front
 		
-		log.info("Token recieved: " + userToken.toString());
-		
-		switch(intent) {
-			case 200: errorMsg = addSessionToken(userToken);
-				break;
-			case 201: errorMsg = updateLocation(jSon, userToken);
-				break;
-			case 202: errorMsg = findPlayersInRadius(userToken);
-				break;
-			case 203: errorMsg = "";
-				break;
-			case 207: errorMsg = getLeaderboard(userToken);
+		//timed in finally so an intent that throws is still counted, as an error
+		Timer.Sample sample = Timer.start(registry);
+		boolean completed = false;
+		try {
+			switch(intent) {
+				case 200: errorMsg = addSessionToken(userToken);
+					break;
+				case 201: errorMsg = updateLocation(jSon, userToken);
+					break;
+				case 202: errorMsg = findPlayersInRadius(userToken);
+					break;
+				case 203: errorMsg = "";
+					break;
+				case 207: errorMsg = getLeaderboard(userToken);
+			}
+			completed = true;
+		} finally {
+			//unknown intents share one tag so clients cannot create a timer per number
+			boolean known = intent == 200 || intent == 201 || intent == 202 || intent == 203 || intent == 207;
+			sample.stop(registry.timer(INTENT_TIMER,
+					"intent", known ? String.valueOf(intent) : "other",
+					"outcome", completed && errorMsg != null && errorMsg.isEmpty() ? "success" : "error"));
 		}
 		
 		if(errorMsg.isEmpty()) {
-			log.info(String.format("System: intent %d was successful", intent));
+			if (sampled)
+				log.info("System: intent {} was successful", intent);
 		} else {
-			log.info("Error:  " + errorMsg);
-			whisperBuffer(String.format("{\"intent\":400, \"reason\":\"error on intent %d: %s\",\"object\":{}}", intent, errorMsg), userToken);
+			log.info("Error:  {}", errorMsg);
+			whisperBuffer(messages.write(NoticeMessage.error("error on intent " + intent + ": " + errorMsg)), userToken);
 			return false;
 		}
 		
@@ -281,29 +335,21 @@ Start of intent methods
 	private String addSessionToken(Token userToken) {
 		
 		Token seshToken = null;
-		UserInterface user = null;
-		try {
-			user = uService.getUser(userToken);
-		} catch (BackendException e1) {
-			e1.printStackTrace();
-		}
-		log.info("user: '" + user.getUsername() + "'");
 		//get session token off of user
 		try {
-			log.info("Getting session from user");
+			log.debug("Getting session from user");
 			List<Token> tokens = new ArrayList<>();
 			
-			for(Token t : user.getSession()) { tokens.add(t); }
+			for(Token t : uService.getSessionToken(userToken)) { tokens.add(t); }
 			
 			if (tokens.isEmpty()) {
 				log.info("no tokens");
 				return null;
 			}
 			seshToken = tokens.get(0);
-			log.info("200: Got Session Token from user '" + user.getUsername() + "'");
+			log.debug("200: Got Session Token from user");
 		} catch (Exception e) {
-			log.info(e.getStackTrace().toString());
-			e.printStackTrace();
+			log.warn("Error:  200 could not get the session token: {}", e.getLocalizedMessage(), e);
 			return e.getLocalizedMessage();
 		}
 		
@@ -311,58 +357,39 @@ Start of intent methods
 		application.sessions.Session curr;
 		try {
 			curr = (application.sessions.Session) seshService.getSession(seshToken);
-			log.info("200: Got Session from session token");
+			log.debug("200: Got Session from session token");
 		} catch (InvalidTokenException | InvalidSessionException e) {
-			log.info(e.getStackTrace().toString());
-			e.printStackTrace();
+			log.warn("Error:  200 could not get the session: {}", e.getLocalizedMessage(), e);
 			return e.getLocalizedMessage();
 		}
 		
-		if(usertokenSeshtokenMap.get(userToken) != null)
+		Connection connection = connections.getByUser(userToken);
+		if(connection == null)
+			return "No open connection for user";
+		if(connection.getGame() != null)
 			return addSessionTokenWhisper(userToken, curr);
 		
 		//store session token into map
-		usertokenSeshtokenMap.put(userToken, seshToken);
+		connections.join(connection, seshToken);
 		
 		//get list of all players in same session
 		List<UserInterface> userList = curr.getUsers();
 		
 		//broadcast new list of users to everyone in session
-		String s = new String("{\"intent\":100, \"reason\":\"Players in your session\",\"object\":{\"users\": [") ;
-		for(UserInterface u : userList) {
-			s += String.format("{\"username\": \"%s\"},", u.getUsername());
-			}
-		s = s.substring(0, s.length()-1);
-		s += String.format("]}, \"passcode\":%d}", curr.getPasscode());
-		
-		broadcastBuffer(s, seshToken);
+		broadcastBuffer(messages.write(new SessionPlayersMessage(userList, curr.getPasscode())), seshToken, "100");
 		
 		return "";
 }
 	private String addSessionTokenWhisper(Token userToken, application.sessions.Session curr) {
 		
-		UserInterface user = null;
-		try {
-			user = uService.getUser(userToken);
-		} catch (InvalidTokenException e) {
-			e.printStackTrace();
-		}
-		
-		log.info("200: sending whisper to user '" + user.getUsername() + "'");
+		log.debug("200: sending whisper to user");
 		
 		// get list of all players in same session
 		List<UserInterface> userList = new ArrayList<>();
 
 		userList = curr.getUsers();
 		
-		String s = new String("{\"intent\":100, \"reason\":\"Players in your session\",\"object\":{\"users\": [") ;
-		for(UserInterface u : userList) {
-			s += String.format("{\"username\": \"%s\"},", u.getUsername());
-			}
-		s = s.substring(0, s.length()-1);
-		s += String.format("]}, \"passcode\":%d}", curr.getPasscode());
-		
-		whisperBuffer(s, userToken);
+		whisperBuffer(messages.write(new SessionPlayersMessage(userList, curr.getPasscode())), userToken, "100");
 		
 		return "";
 	}
@@ -376,23 +403,17 @@ Start of intent methods
 		Location l;
 		
 		try {
-			l = objectMapper.readValue(jSon, Location.class);
+			l = locationReader.readValue(jSon);
 		} catch (Exception e) {
-			e.printStackTrace();
+			log.warn("Error:  201 could not read the location: {}", e.getLocalizedMessage(), e);
 			return e.getLocalizedMessage();
 		}
 		
-		LocationUpdateWrapper luw = new LocationUpdateWrapper();
-		luw.setNewLocation(l);
-		
-		luw.setToUpdate(userToken);
-		
 		try {
-			uService.updateUserLocation(luw);
-			uService.setTimeUpdated(userToken, System.currentTimeMillis());
-			//user.setLocation(uService.getUser(usernameUsertokenMap.get(user)).getLocation());
-		} catch (InvalidUserException | InvalidTokenException e) {
-			e.printStackTrace();
+			//Held in memory and written to the database in batches
+			uService.reportLocation(userToken, l, System.currentTimeMillis());
+		} catch (InvalidTokenException e) {
+			log.warn("Error:  201 could not report the location: {}", e.getLocalizedMessage(), e);
 			return e.getLocalizedMessage();
 		}
 		
@@ -400,137 +421,53 @@ Start of intent methods
 	}
 	
 	/**102
-	 * @param user
-	 * @return
+	 * Sends a player a full snapshot of the players and items in their view radius. Changes after that are pushed as 104s by
+	 * {@code ProximityPublisher}, so this no longer asks every player in the session for their location
+	 * @param userToken token of the requesting player
+	 * @return error message if there was one
 	 */
-private String findPlayersInRadius(Token userToken) {
+	private String findPlayersInRadius(Token userToken) {
+		
+		Connection connection = connections.getByUser(userToken);
+		Token seshToken = connection == null ? null : connection.getGame();
+		if (seshToken == null)
+			return "Not in a session";
 		
-		ListMapReturnWrapper<UserInterface, Location, ItemInterface> wrapper = null;
 		List<Token> list = new ArrayList<>();
-		list.add(usertokenSeshtokenMap.get(userToken));
+		list.add(seshToken);
 		list.add(userToken);
 		
-//		List<Token> userTokens = new ArrayList<>();
-//		List<Token> haveSessions = new ArrayList<>();
-//		for (Token t : sessionUsertokenMap.values()) { haveSessions.add(t); }
-		
-		for(Token t : sessionUsertokenMap.values()) {
-			//check if in same game session
-			if(usertokenSeshtokenMap.get(t) != null)
-				if(usertokenSeshtokenMap.get(t).getAuthenticator().equals(usertokenSeshtokenMap.get(userToken).getAuthenticator()))
-					whisperBuffer("{\"intent\":101, \"reason\":\"Need your location\",\"object\":{\"Message\":\"Need your location\"}}",t);
-		}
-		
-//		long startTime = System.currentTimeMillis();
-//		long timeout = startTime + 10000;
-//		while (System.currentTimeMillis() < timeout || !haveSessions.isEmpty()) {
-//			for (Token t : haveSessions) {
-//				try {
-//					if (uService.getTimeUpdated(t) > startTime) {
-//							
-//						userTokens.add(t);
-//						haveSessions.remove(t);
-//						log.info("Reply from: " + uService.getUser(t));
-//					}
-//				} catch (InvalidTokenException e1) {
-//					e1.printStackTrace();
-//				}
-//			}
-//		}
-		
-		log.info("442: %d", 15000 - System.currentTimeMillis());
-		
-		try {
-			SessionInterface sesh = seshService.getSession(list.get(0));
-			UserInterface user = uService.getUser(list.get(1));
-			
-			log.info("Session Getting from: " + sesh.getId());
-			log.info("User Getting around: " + user.getUsername());
-		} catch (InvalidTokenException | InvalidSessionException e1) {
-			e1.printStackTrace();
-		}
-		
+		ListMapReturnWrapper<UserInterface, Location, ItemInterface> wrapper;
 		try {
 			wrapper = seshService.getOnTap(list);
-			wrapper.getList().remove(uService.getUser(userToken));
-//			userTokens.remove(userToken);
-			wrapper.getList().remove(uService.getUser(userToken));
+			int id = connection.getUserId();
+			wrapper.getList().removeIf(u -> u.getId() == id);
 		} catch (InvalidListException | InvalidTokenException | InvalidSessionException | InvalidUserException e) {
-			e.printStackTrace();
-		}
-		
-		log.info("462");
-		
-		if(/*userTokens.isEmpty()*/ wrapper.getList().isEmpty()) {//if empty return an empty array
-			log.info("465: wrapper list empty");
-			whisperBuffer("{\"intent\":102, \"reason\":\"Players in your radius\",\"object\":{\"users\": [], \"items\"[]}}", userToken);
-			return "";
-		}
-		
-//		List<UserInterface> users = new ArrayList<>();
-//		for(Token t : userTokens) { 
-//			try {
-//				users.add(uService.getUser(t));
-//			} catch (InvalidTokenException e1) {
-//				e1.printStackTrace();
-//			} 
-//		}
-		
-		//populate string with user info
-		String s = new String("{\"intent\":102, \"reason\":\"Players in your radius\",\"object\":{\"users\": [") ;
-		
-		for(UserInterface u : /*users*/ wrapper.getList()) {
-			s += String.format("{\"username\": \"%s\", \"Location\": { \"latitude\":%f,\"longitude\":%f}},",
-								u.getUsername(), u.getLocation().getLatitude(), u.getLocation().getLongitude());
-			//tell user they've been spotted
-			whisperBuffer("{\"intent\":103, \"reason\":\"You've been spotted\",\"object\":{\"Message\":\"You've been spotted\"}", u.getToken());
+			log.warn("Error:  202 could not find players in radius: {}", e.getLocalizedMessage(), e);
+			return e.getLocalizedMessage();
 		}
 		
-		log.info("487");
-		
-		//remove ',' off of end of string
-		s = s.substring(0, s.length()-1);
-		s += "], \"items\": [";
-		
-		if (!wrapper.getMap().isEmpty()) {
-			
-			for (Entry<Location, ItemInterface> e : wrapper.getMap().entrySet()) {
-				
-				s += String.format("{\"name\": \"%s\", \"Location\": { \"latitude\":%f,\"longitude\":%f}},", e.getValue().getName(),
-						e.getKey().getLatitude(), e.getKey().getLongitude());
-			}
-			
-			s = s.substring(0, s.length()-1);
-		}
-		s += "]}}";
-		whisperBuffer(s, userToken);
+		//Not coalesced, so it stays ordered with the 104 deltas around it
+		whisperBuffer(messages.write(new PlayersInRadiusMessage(wrapper.getList(), wrapper.getMap())), userToken);
 		
 		return "";
 	}
 	
 	//207
 	private String getLeaderboard(Token userToken) {
-		List<UserInterface> userList  = new ArrayList<>();
+		List<? extends UserStanding> userList  = new ArrayList<>();
 
 		try {
-			userList = seshService.getAllUsers(usertokenSeshtokenMap.get(userToken));//get all users in sesh
+			userList = seshService.getStandings(getSeshToken(userToken));//get standings of all users in sesh
 		} catch (InvalidTokenException | InvalidSessionException e) {
-			e.printStackTrace();
+			log.warn("Error:  207 could not get the standings: {}", e.getLocalizedMessage(), e);
 			return e.getLocalizedMessage();
 		}
 		
-		// populate string with user info
-		String s = new String("{\"intent\":107, \"reason\":\"Player leaderboard\",\"object\":{\"users\": [");
-		for (UserInterface u : userList) {
-			s += String.format("{\"username\": \"%s\", \"KD Ratio\":%f},",
-					u.getUsername(), u.getKDRatio());
-		}
-
-		// remove ',' off of end of string
-		if(!userList.isEmpty())
-			s = s.substring(0, s.length() - 1);
-		s += "]}}";
-		whisperBuffer(s, userToken);
+		if (userList == null)
+			userList = new ArrayList<>();
+		
+		whisperBuffer(messages.write(new LeaderboardMessage(userList)), userToken, "107");
 		
 		return "";
 	}
@@ -0,0 +1,72 @@
+package application.webSocket;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which websocket messages are logged, per intent. An intent with a rate of {@code n} has every {@code n}th message logged,
+ * so frequent intents like 201 location updates do not fill the log while rare ones are always logged.
+ * Rates are read from {@code knockout.logging.intent-sample-rates} as comma separated {@code intent:rate} pairs, intents without one use a rate of 1
+ *
+ * @author Theodore Davis
+ */
+@Component
+public class IntentSampler {
+	
+	/**
+	 * Lowest intent that can be sampled, intents are three digits
+	 */
+	private static final int FIRST = 100;
+	
+	/**
+	 * Rate of each intent, indexed from {@code FIRST}
+	 */
+	private final int[] rates = new int[900];
+	
+	/**
+	 * Messages seen of each intent, indexed from {@code FIRST}
+	 */
+	private final AtomicLongArray seen = new AtomicLongArray(900);
+	
+	/**
+	 * Constructs an {@code IntentSampler}
+	 * @param rates comma separated {@code intent:rate} pairs, such as {@code "201:100,202:10"}
+	 * @throws IllegalArgumentException if a pair is malformed or its intent is not three digits
+	 */
+	public IntentSampler(@Value("${knockout.logging.intent-sample-rates:}") String rates) {
+		
+		Arrays.fill(this.rates, 1);
+		for (String pair : rates.split(",")) {
+			
+			if (pair.trim().isEmpty())
+				continue;
+			
+			String[] parts = pair.split(":");
+			if (parts.length != 2)
+				throw new IllegalArgumentException("Intent sample rate must be intent:rate, was " + pair);
+			
+			int intent = Integer.parseInt(parts[0].trim());
+			if (intent < FIRST || intent >= FIRST + this.rates.length)
+				throw new IllegalArgumentException("Intent must be three digits, was " + intent);
+			
+			this.rates[intent - FIRST] = Math.max(1, Integer.parseInt(parts[1].trim()));
+		}
+	}
+	
+	/**
+	 * Counts a message and decides if it is logged
+	 * @param intent intent of the message
+	 * @return {@code true} for the first message of an intent and every {@code rate}th after it
+	 */
+	public boolean sample(int intent) {
+		
+		if (intent < FIRST || intent >= FIRST + rates.length)
+			return true;
+		
+		int rate = rates[intent - FIRST];
+		return rate == 1 || seen.getAndIncrement(intent - FIRST) % rate == 0;
+	}
+}
@@ -0,0 +1,76 @@
+package application.webSocket;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import application.games.GameEngine;
+import application.games.GameState;
+import application.games.Leaderboard;
+import application.games.LeaderboardListener;
+import application.games.PlayerState;
+import application.games.Standing;
+import application.webSocket.messages.LeaderboardMessage;
+import application.webSocket.messages.MessageWriter;
+
+/**
+ * Pushes a 107 with the new ranking of a running game to every player connected to it whenever the ranking changes.
+ * Queued 107s are coalesced, so a client only ever receives the latest ranking
+ *
+ * @author Theodore Davis
+ */
+@Component
+public class LeaderboardPublisher implements LeaderboardListener {
+	
+	/**
+	 * Open websockets
+	 */
+	private final ConnectionRegistry connections;
+	
+	/**
+	 * Engine of the running games, which knows their players
+	 */
+	private final GameEngine engine;
+	
+	/**
+	 * Serializes the messages
+	 */
+	private final MessageWriter messages;
+	
+	/**
+	 * Constructs a {@code LeaderboardPublisher}
+	 * @param connections registry of open websockets
+	 * @param engine engine of the running games to publish
+	 * @param leaderboard rankings to publish
+	 */
+	public LeaderboardPublisher(ConnectionRegistry connections, GameEngine engine, Leaderboard leaderboard) {
+		
+		this.connections = connections;
+		this.engine = engine;
+		this.messages = new MessageWriter(new JsonFactory());
+		
+		leaderboard.addListener(this);
+	}
+	
+	@Override
+	public void ranksChanged(String session, List<Standing> standings) {
+		
+		GameState game = engine.find(session);
+		if (game == null)
+			return;
+		
+		String text = null;
+		for (PlayerState p : game.getPlayers()) {
+			
+			Connection connection = connections.getByAuthenticator(p.getAuthenticator());
+			if (connection == null)
+				continue;
+				
+			if (text == null)
+				text = messages.write(new LeaderboardMessage(standings));
+			connection.send(text, "107");
+		}
+	}
+}
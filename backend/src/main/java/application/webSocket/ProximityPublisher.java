@@ -0,0 +1,70 @@
+package application.webSocket;
+
+import java.util.Collection;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import application.games.GameEngine;
+import application.games.ProximityListener;
+import application.games.VisibilityDelta;
+import application.webSocket.messages.MessageWriter;
+import application.webSocket.messages.NoticeMessage;
+import application.webSocket.messages.VisibilityMessage;
+
+/**
+ * Pushes the visibility changes of running games to the players' websockets:
+ * a 104 with the players that entered or left view, and a 103 when a player is newly seen by someone.
+ * Deltas are never coalesced. A client that falls behind (its queue dropped messages) can resync with a 202
+ *
+ * @author Theodore Davis
+ */
+@Component
+public class ProximityPublisher implements ProximityListener {
+	
+	/**
+	 * Open websockets
+	 */
+	private final ConnectionRegistry connections;
+	
+	/**
+	 * Serializes the messages
+	 */
+	private final MessageWriter messages;
+	
+	/**
+	 * 103 text, the same for every player
+	 */
+	private final String spotted;
+	
+	/**
+	 * Constructs a {@code ProximityPublisher}
+	 * @param connections registry of open websockets
+	 * @param engine engine of the running games to publish
+	 */
+	public ProximityPublisher(ConnectionRegistry connections, GameEngine engine) {
+		
+		this.connections = connections;
+		this.messages = new MessageWriter(new JsonFactory());
+		this.spotted = messages.write(new NoticeMessage(103, "You've been spotted", "You've been spotted"));
+		
+		engine.addProximityListener(this);
+	}
+	
+	@Override
+	public void visibilityChanged(Collection<VisibilityDelta> deltas) {
+		
+		for (VisibilityDelta d : deltas) {
+			
+			Connection connection = connections.getByAuthenticator(d.getAuthenticator());
+			if (connection == null)
+				continue;
+			
+			if (!d.getEntered().isEmpty() || !d.getLeft().isEmpty())
+				connection.send(messages.write(new VisibilityMessage(d)));
+			if (d.isSpotted())
+				connection.send(spotted, "103");
+		}
+	}
+}
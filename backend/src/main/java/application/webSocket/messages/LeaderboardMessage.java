@@ -0,0 +1,45 @@
+package application.webSocket.messages;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import application.users.UserStanding;
+
+/**
+ * 107: the players of a game session with their kill/death ratios
+ *
+ * @author Theodore Davis
+ */
+public class LeaderboardMessage extends OutboundMessage {
+	
+	/**
+	 * Players on the leaderboard, in order
+	 */
+	private final List<? extends UserStanding> users;
+	
+	/**
+	 * Constructs a 107 message
+	 * @param users players on the leaderboard, in order
+	 */
+	public LeaderboardMessage(List<? extends UserStanding> users) {
+		
+		super(107, "Player leaderboard");
+		this.users = users;
+	}
+	
+	@Override
+	protected void writeObject(JsonGenerator g) throws IOException {
+		
+		g.writeArrayFieldStart("users");
+		for (UserStanding u : users) {
+			
+			g.writeStartObject();
+			g.writeStringField("username", u.getUsername());
+			g.writeNumberField("KD Ratio", u.getKDRatio());
+			g.writeEndObject();
+		}
+		g.writeEndArray();
+	}
+}
@@ -0,0 +1,129 @@
+package application.webSocket.messages;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Serializes {@code OutboundMessage}s to JSON text.
+ * Each thread keeps one {@code JsonGenerator} over one growable character buffer and reuses both for every message it writes,
+ * so building a message is a single linear pass with no intermediate strings
+ *
+ * @author Theodore Davis
+ */
+public class MessageWriter {
+	
+	/**
+	 * Buffers larger than this many characters are not kept after use
+	 */
+	private static final int MAX_RETAINED = 64 * 1024;
+	
+	/**
+	 * Creates the generators
+	 */
+	private final JsonFactory factory;
+	
+	/**
+	 * Generator and buffer of each thread
+	 */
+	private final ThreadLocal<Slot> slots;
+	
+	/**
+	 * Constructs a {@code MessageWriter}
+	 * @param factory factory to create the generators with
+	 */
+	public MessageWriter(JsonFactory factory) {
+		
+		this.factory = factory;
+		this.slots = ThreadLocal.withInitial(this::newSlot);
+	}
+	
+	/**
+	 * Serializes a message
+	 * @param message message to serialize
+	 * @return JSON text of the message
+	 */
+	public String write(OutboundMessage message) {
+		
+		Slot slot = slots.get();
+		try {
+			message.write(slot.generator);
+			slot.generator.flush();
+			
+			String json = slot.buffer.toString();
+			slot.buffer.reset();
+			
+			//Do not pin a buffer grown by one huge message
+			if (slot.buffer.capacity() > MAX_RETAINED) { slots.remove(); }
+			return json;
+		} catch (IOException | RuntimeException e) {
+			
+			//The generator may be left mid-object, start over on the next message
+			slots.remove();
+			throw new IllegalStateException("Could not write intent " + message.getIntent() + ": " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Creates a generator and buffer for the calling thread
+	 */
+	private Slot newSlot() {
+		
+		CharBuffer buffer = new CharBuffer();
+		try {
+			JsonGenerator generator = factory.createGenerator(buffer);
+			//Messages are separate documents, never joined by the generator's root separator
+			generator.setRootValueSeparator(null);
+			return new Slot(buffer, generator);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Generator with the buffer it writes to
+	 */
+	private static class Slot {
+		
+		private final CharBuffer buffer;
+		private final JsonGenerator generator;
+		
+		private Slot(CharBuffer buffer, JsonGenerator generator) {
+			
+			this.buffer = buffer;
+			this.generator = generator;
+		}
+	}
+	
+	/**
+	 * Unsynchronized, resettable {@code Writer} over a {@code StringBuilder}
+	 */
+	private static class CharBuffer extends Writer {
+		
+		private final StringBuilder chars = new StringBuilder(1024);
+		
+		@Override
+		public void write(char[] cbuf, int off, int len) { chars.append(cbuf, off, len); }
+		
+		@Override
+		public void write(String str, int off, int len) { chars.append(str, off, off + len); }
+		
+		@Override
+		public void write(int c) { chars.append((char) c); }
+		
+		@Override
+		public void flush() { }
+		
+		@Override
+		public void close() { }
+		
+		private int capacity() { return chars.capacity(); }
+		
+		private void reset() { chars.setLength(0); }
+		
+		@Override
+		public String toString() { return chars.toString(); }
+	}
+}
@@ -0,0 +1,43 @@
+package application.webSocket.messages;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Message carrying only a text notice, or nothing at all. Used for 101 location requests, 103 spotted notices and 400 errors
+ *
+ * @author Theodore Davis
+ */
+public class NoticeMessage extends OutboundMessage {
+	
+	/**
+	 * Text written as "Message" inside "object", {@code null} for an empty object
+	 */
+	private final String message;
+	
+	/**
+	 * Constructs a notice
+	 * @param intent intent code of the message
+	 * @param reason human readable reason for the message
+	 * @param message text written as "Message" inside "object", {@code null} for an empty object
+	 */
+	public NoticeMessage(int intent, String reason, String message) {
+		
+		super(intent, reason);
+		this.message = message;
+	}
+	
+	/**
+	 * Constructs a 400 error
+	 * @param reason what went wrong
+	 * @return error message with an empty "object"
+	 */
+	public static NoticeMessage error(String reason) { return new NoticeMessage(400, reason, null); }
+	
+	@Override
+	protected void writeObject(JsonGenerator g) throws IOException {
+		
+		if (message != null) { g.writeStringField("Message", message); }
+	}
+}
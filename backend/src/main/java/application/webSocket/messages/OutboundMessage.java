@@ -0,0 +1,86 @@
+package application.webSocket.messages;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A message sent to clients over the websocket, in the form {"intent":..., "reason":..., "object":{...}}
+ *
+ * @author Theodore Davis
+ */
+public abstract class OutboundMessage {
+	
+	/**
+	 * Intent code of the message
+	 */
+	private final int intent;
+	
+	/**
+	 * Human readable reason for the message
+	 */
+	private final String reason;
+	
+	/**
+	 * Constructs a message
+	 * @param intent intent code of the message
+	 * @param reason human readable reason for the message
+	 */
+	protected OutboundMessage(int intent, String reason) {
+		
+		this.intent = intent;
+		this.reason = reason;
+	}
+	
+	public int getIntent() { return intent; }
+	
+	public String getReason() { return reason; }
+	
+	/**
+	 * Writes the whole message as one JSON object
+	 * @param g generator to write to
+	 * @throws IOException if the generator fails
+	 */
+	public void write(JsonGenerator g) throws IOException {
+		
+		g.writeStartObject();
+		g.writeNumberField("intent", intent);
+		g.writeStringField("reason", reason);
+		g.writeFieldName("object");
+		g.writeStartObject();
+		writeObject(g);
+		g.writeEndObject();
+		writeExtraFields(g);
+		g.writeEndObject();
+	}
+	
+	/**
+	 * Writes the fields inside "object"
+	 * @param g generator to write to
+	 * @throws IOException if the generator fails
+	 */
+	protected abstract void writeObject(JsonGenerator g) throws IOException;
+	
+	/**
+	 * Writes fields after "object" at the top level. None by default
+	 * @param g generator to write to
+	 * @throws IOException if the generator fails
+	 */
+	protected void writeExtraFields(JsonGenerator g) throws IOException { }
+	
+	/**
+	 * Writes a {"latitude":..., "longitude":...} object field
+	 * @param g generator to write to
+	 * @param name name of the field
+	 * @param latitude latitude to write
+	 * @param longitude longitude to write
+	 * @throws IOException if the generator fails
+	 */
+	protected static void writeLocation(JsonGenerator g, String name, double latitude, double longitude) throws IOException {
+		
+		g.writeObjectFieldStart(name);
+		g.writeNumberField("latitude", latitude);
+		g.writeNumberField("longitude", longitude);
+		g.writeEndObject();
+	}
+}
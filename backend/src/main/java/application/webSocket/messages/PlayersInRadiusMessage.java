@@ -0,0 +1,67 @@
+package application.webSocket.messages;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import application.items.ItemInterface;
+import application.tools.embeddables.Location;
+import application.users.UserInterface;
+
+/**
+ * 102: the players and items inside a player's view radius
+ *
+ * @author Theodore Davis
+ */
+public class PlayersInRadiusMessage extends OutboundMessage {
+	
+	/**
+	 * Players in view
+	 */
+	private final List<UserInterface> users;
+	
+	/**
+	 * Items in view by location
+	 */
+	private final Map<Location, ItemInterface> items;
+	
+	/**
+	 * Constructs a 102 message
+	 * @param users players in view, {@code null} for none
+	 * @param items items in view by location, {@code null} for none
+	 */
+	public PlayersInRadiusMessage(List<UserInterface> users, Map<Location, ItemInterface> items) {
+		
+		super(102, "Players in your radius");
+		this.users = users == null ? Collections.emptyList() : users;
+		this.items = items == null ? Collections.emptyMap() : items;
+	}
+	
+	@Override
+	protected void writeObject(JsonGenerator g) throws IOException {
+		
+		g.writeArrayFieldStart("users");
+		for (UserInterface u : users) {
+			
+			g.writeStartObject();
+			g.writeStringField("username", u.getUsername());
+			writeLocation(g, "Location", u.getLocation().getLatitude(), u.getLocation().getLongitude());
+			g.writeEndObject();
+		}
+		g.writeEndArray();
+		
+		g.writeArrayFieldStart("items");
+		for (Entry<Location, ItemInterface> e : items.entrySet()) {
+			
+			g.writeStartObject();
+			g.writeStringField("name", e.getValue().getName());
+			writeLocation(g, "Location", e.getKey().getLatitude(), e.getKey().getLongitude());
+			g.writeEndObject();
+		}
+		g.writeEndArray();
+	}
+}
@@ -0,0 +1,54 @@
+package application.webSocket.messages;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import application.users.UserInterface;
+
+/**
+ * 100: the players in a game session and its passcode
+ *
+ * @author Theodore Davis
+ */
+public class SessionPlayersMessage extends OutboundMessage {
+	
+	/**
+	 * Players in the session
+	 */
+	private final List<UserInterface> users;
+	
+	/**
+	 * Passcode of the session
+	 */
+	private final int passcode;
+	
+	/**
+	 * Constructs a 100 message
+	 * @param users players in the session
+	 * @param passcode passcode of the session
+	 */
+	public SessionPlayersMessage(List<UserInterface> users, int passcode) {
+		
+		super(100, "Players in your session");
+		this.users = users;
+		this.passcode = passcode;
+	}
+	
+	@Override
+	protected void writeObject(JsonGenerator g) throws IOException {
+		
+		g.writeArrayFieldStart("users");
+		for (UserInterface u : users) {
+			
+			g.writeStartObject();
+			g.writeStringField("username", u.getUsername());
+			g.writeEndObject();
+		}
+		g.writeEndArray();
+	}
+	
+	@Override
+	protected void writeExtraFields(JsonGenerator g) throws IOException { g.writeNumberField("passcode", passcode); }
+}
@@ -0,0 +1,54 @@
+package application.webSocket.messages;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import application.games.VisibilityDelta;
+import application.games.VisibilityDelta.Sighting;
+
+/**
+ * 104: the players that came into or left a player's view since the last 104 or 102
+ *
+ * @author Theodore Davis
+ */
+public class VisibilityMessage extends OutboundMessage {
+	
+	/**
+	 * Change to write
+	 */
+	private final VisibilityDelta delta;
+	
+	/**
+	 * Constructs a 104 message
+	 * @param delta change in what the player can see
+	 */
+	public VisibilityMessage(VisibilityDelta delta) {
+		
+		super(104, "Players in your radius changed");
+		this.delta = delta;
+	}
+	
+	@Override
+	protected void writeObject(JsonGenerator g) throws IOException {
+		
+		g.writeArrayFieldStart("entered");
+		for (Sighting s : delta.getEntered()) {
+			
+			g.writeStartObject();
+			g.writeStringField("username", s.getUsername());
+			writeLocation(g, "Location", s.getLatitude(), s.getLongitude());
+			g.writeEndObject();
+		}
+		g.writeEndArray();
+		
+		g.writeArrayFieldStart("left");
+		for (String username : delta.getLeft()) {
+			
+			g.writeStartObject();
+			g.writeStringField("username", username);
+			g.writeEndObject();
+		}
+		g.writeEndArray();
+	}
+}
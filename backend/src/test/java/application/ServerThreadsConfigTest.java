@@ -0,0 +1,54 @@
+package application;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.junit.Test;
+
+public class ServerThreadsConfigTest {
+	
+	/**
+	 * Tests if the connector gets the configured request executor, and if it turns tasks away once its workers and queue are full
+	 */
+	@Test
+	public void testRequestThreadsBounded() throws Exception {
+		
+		ServerThreadsConfig config = new ServerThreadsConfig(2, 4);
+		Connector connector = new Connector("HTTP/1.1");
+		config.connectorThreads().customize(connector);
+		ThreadPoolExecutor handed = (ThreadPoolExecutor) connector.getProtocolHandler().getExecutor();
+		assertEquals(2, handed.getMaximumPoolSize());
+		assertEquals(4, handed.getQueue().remainingCapacity());
+		config.shutdown();
+		assertTrue(handed.isShutdown());
+		
+		ThreadPoolExecutor pool = ServerThreadsConfig.requestThreads(1, 1);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		pool.execute(() -> {
+			
+			running.countDown();
+			try { release.await(); }
+			catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+		});
+		assertTrue(running.await(5, TimeUnit.SECONDS));
+		
+		CountDownLatch queued = new CountDownLatch(1);
+		pool.execute(queued::countDown);
+		try {
+			pool.execute(() -> {});
+			fail();
+		} catch (RejectedExecutionException e) {
+			//Worker and queue are both taken
+		}
+		
+		release.countDown();
+		assertTrue(queued.await(5, TimeUnit.SECONDS));
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,82 @@
+package application.games;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+import application.exceptions.InvalidUserException;
+import application.sessions.Session;
+import application.tools.embeddables.Location;
+import application.users.User;
+import application.users.UserRepository;
+
+public class GameEngineTest {
+	
+	/**
+	 * Tests if a tap in a running game eliminates the tapper's target and ends the game
+	 */
+	@Test
+	public void testGameEngineTap() throws Exception {
+		
+		User tapper = new User("sicko", "mode", 0, new Location(41.6123374111, -95.5190119746, 5));
+		User tapped = new User("mo", "bamba", 0, new Location(41.6123474111, -95.5190119746, 5));
+		tapper.setId(1);
+		tapped.setId(2);
+		tapper.getTargets().add(tapped);
+		tapped.getTargets().add(tapper);
+		
+		Session sesh = new Session("MinecraftChristianServer", new Location(41.6123374111, -95.5190119746, 0), 100);
+		sesh.getToken().setAuthenticator("sesh");
+		sesh.addUser(tapper);
+		sesh.addUser(tapped);
+		
+		GameEngine engine = new GameEngine(new GameExecutors(1, 1), new Leaderboard(mock(UserRepository.class)));
+		GameState game = engine.start(sesh);
+		
+		assertEquals(1, engine.getOnTap(game, tapper.getToken().getAuthenticator()).getList().size());
+		assertEquals(1, engine.tap(game, tapper.getToken().getAuthenticator(), tapped.getLocation()));
+		assertEquals(1, game.getPlayer(1).getKills());
+		assertEquals(1, game.getPlayer(2).getDeaths());
+		assertEquals(1, engine.getPlayers(game).size());
+	}
+	
+	/**
+	 * Tests if the engine only lets a player act with their current, unexpired token, so running games need no other authentication
+	 */
+	@Test
+	public void testGameEngineAuthenticates() throws Exception {
+		
+		User tapper = new User("sicko", "mode", 0, new Location(41.6123374111, -95.5190119746, 5));
+		User tapped = new User("mo", "bamba", 0, new Location(41.6123474111, -95.5190119746, 5));
+		tapper.setId(1);
+		tapped.setId(2);
+		tapper.getTargets().add(tapped);
+		tapped.getTargets().add(tapper);
+		
+		Session sesh = new Session("MinecraftChristianServer", new Location(41.6123374111, -95.5190119746, 0), 100);
+		sesh.getToken().setAuthenticator("sesh");
+		sesh.addUser(tapper);
+		sesh.addUser(tapped);
+		
+		GameEngine engine = new GameEngine(new GameExecutors(1, 1), new Leaderboard(mock(UserRepository.class)));
+		GameState game = engine.start(sesh);
+		String old = tapper.getToken().getAuthenticator();
+		
+		//Logging in again replaces the Token the engine accepts
+		engine.updateToken(1, "new", System.currentTimeMillis() + 60000);
+		assertNull(engine.updateLocation(old, tapper.getLocation()));
+		assertEquals("sicko", engine.updateLocation("new", tapper.getLocation()));
+		
+		//An expired Token is refused until the next login
+		engine.updateToken(1, "expired", System.currentTimeMillis() - 1);
+		assertFalse(engine.touch("expired", 0));
+		try {
+			engine.tap(game, "expired", tapped.getLocation());
+			fail();
+		} catch (InvalidUserException e) {
+			assertEquals("User does not exist in Session #" + game.getSessionId(), e.getMessage());
+		}
+		assertEquals(2, engine.getPlayers(game).size());
+	}
+}
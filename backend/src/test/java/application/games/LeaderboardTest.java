@@ -0,0 +1,43 @@
+package application.games;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import application.users.UserRepository;
+
+public class LeaderboardTest {
+	
+	/**
+	 * Tests if session and global leaderboard ranks follow kills and are pushed to listeners
+	 */
+	@Test
+	public void testLeaderboardRanks() {
+		
+		Leaderboard board = new Leaderboard(mock(UserRepository.class));
+		List<List<Standing>> pushed = new ArrayList<>();
+		board.addListener((session, standings) -> pushed.add(standings));
+		
+		List<Standing> players = new ArrayList<>();
+		players.add(new Standing(1, "a", 1, 1, 0));
+		players.add(new Standing(2, "b", 2, 1, 0));
+		board.track("game", players);
+		assertEquals(0, board.rank("game", 2));
+		
+		//1 taps 2
+		board.update(new Standing(1, "a", 2, 1, 0));
+		board.update(new Standing(2, "b", 2, 2, 0));
+		assertEquals(0, board.rank("game", 1));
+		assertEquals(1, board.rank("game", 2));
+		assertEquals(1, board.top("game", 1).get(0).getId());
+		assertEquals(0, board.globalRank(1));
+		assertEquals(3, pushed.size());
+		
+		board.forget("game");
+		assertNull(board.top("game", 1));
+	}
+}
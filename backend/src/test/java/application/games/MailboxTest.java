@@ -0,0 +1,94 @@
+package application.games;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import application.exceptions.InvalidUserException;
+
+public class MailboxTest {
+	
+	/**
+	 * Tests if a mailbox runs concurrent tasks one at a time and in order, passes checked exceptions back, and lets tasks call it again
+	 */
+	@Test
+	public void testMailboxSerializes() throws Exception {
+		
+		ExecutorService workers = Executors.newFixedThreadPool(4);
+		Mailbox mailbox = new Mailbox(workers);
+		
+		//Unsynchronized counter: lost updates would show if two tasks ever overlapped
+		int[] count = { 0 };
+		List<Integer> order = new ArrayList<>();
+		List<Future<?>> callers = new ArrayList<>();
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		for (int t = 0; t < 8; t++) {
+			
+			callers.add(threads.submit(() -> {
+				
+				for (int i = 0; i < 1000; i++) { mailbox.call(() -> ++count[0]); }
+				return null;
+			}));
+		}
+		for (Future<?> f : callers) { f.get(); }
+		assertEquals(8000, count[0]);
+		
+		for (int i = 0; i < 200; i++) {
+			
+			int n = i;
+			mailbox.execute(() -> order.add(n));
+		}
+		assertEquals(200, (int) mailbox.call(() -> order.size()));
+		for (int i = 0; i < 200; i++) { assertEquals(i, (int) order.get(i)); }
+		
+		assertEquals(2, (int) mailbox.call(() -> mailbox.call(() -> 2)));
+		try {
+			mailbox.call(() -> { throw new InvalidUserException("busy"); });
+			fail();
+		} catch (InvalidUserException e) {
+			assertEquals("busy", e.getMessage());
+		}
+		
+		threads.shutdown();
+		workers.shutdown();
+	}
+	
+	/**
+	 * Tests if a roster task stalled on one Session, as on a slow database call, leaves another Session's roster running
+	 */
+	@Test
+	public void testRostersIndependent() throws Exception {
+		
+		GameExecutors executors = new GameExecutors(1, 2);
+		CountDownLatch stalled = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService threads = Executors.newFixedThreadPool(2);
+		Future<Integer> slow = threads.submit(() -> executors.roster(1).call(() -> {
+			
+			stalled.countDown();
+			release.await();
+			return 1;
+		}));
+		assertTrue(stalled.await(5, TimeUnit.SECONDS));
+		
+		//Runs while Session 1's roster is still stalled, and Session 1's next task waits its turn
+		Future<Integer> queued = threads.submit(() -> executors.roster(1).call(() -> 3));
+		assertEquals(2, (int) executors.roster(2).call(() -> 2));
+		assertFalse(slow.isDone());
+		
+		release.countDown();
+		assertEquals(1, (int) slow.get(5, TimeUnit.SECONDS));
+		assertEquals(3, (int) queued.get(5, TimeUnit.SECONDS));
+		
+		threads.shutdown();
+		executors.shutdown();
+	}
+}
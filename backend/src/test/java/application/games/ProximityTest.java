@@ -0,0 +1,58 @@
+package application.games;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import application.sessions.Session;
+import application.tools.embeddables.Location;
+import application.users.User;
+import application.users.UserRepository;
+
+public class ProximityTest {
+	
+	/**
+	 * Tests if moving into and out of another player's view radius pushes only the enter and leave changes
+	 */
+	@Test
+	public void testProximityDeltas() {
+		
+		User watcher = new User("sicko", "mode", 0, new Location(41.6123374111, -95.5190119746, 5));
+		User walker = new User("mo", "bamba", 0, new Location(41.6323374111, -95.5190119746, 5));
+		watcher.setId(1);
+		walker.setId(2);
+		
+		Session sesh = new Session("MinecraftChristianServer", new Location(41.6123374111, -95.5190119746, 0), 5000);
+		sesh.getToken().setAuthenticator("sesh");
+		sesh.addUser(watcher);
+		sesh.addUser(walker);
+		
+		List<VisibilityDelta> pushed = new ArrayList<>();
+		GameEngine engine = new GameEngine(new GameExecutors(1, 1), new Leaderboard(mock(UserRepository.class)));
+		engine.addProximityListener(pushed::addAll);
+		engine.start(sesh);
+		
+		//Walks next to the watcher: both see each other, and each is told they were spotted
+		engine.updateLocation(walker.getToken().getAuthenticator(), new Location(41.6123474111, -95.5190119746, 5));
+		assertEquals(2, pushed.size());
+		for (VisibilityDelta d : pushed) {
+			
+			assertEquals(1, d.getEntered().size());
+			assertTrue(d.isSpotted());
+		}
+		
+		//Moving within view changes nothing
+		pushed.clear();
+		engine.updateLocation(walker.getToken().getAuthenticator(), new Location(41.6123574111, -95.5190119746, 5));
+		assertTrue(pushed.isEmpty());
+		
+		//Walks away again: both lose sight
+		engine.updateLocation(walker.getToken().getAuthenticator(), new Location(41.6323374111, -95.5190119746, 5));
+		assertEquals(2, pushed.size());
+		for (VisibilityDelta d : pushed) { assertEquals(1, d.getLeft().size()); }
+	}
+}
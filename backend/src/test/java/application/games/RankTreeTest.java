@@ -0,0 +1,39 @@
+package application.games;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RankTreeTest {
+	
+	/**
+	 * Tests if the ranks of a {@code RankTree} agree with a sorted list as entries are added and removed
+	 */
+	@Test
+	public void testRankTreeRanks() {
+		
+		Random random = new Random(19);
+		RankTree<Standing> tree = new RankTree<>(Standing.ORDER);
+		List<Standing> sorted = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			
+			Standing s = new Standing(i, "user" + i, random.nextInt(20), random.nextInt(20), random.nextInt(5));
+			tree.add(s);
+			sorted.add(s);
+		}
+		for (int i = 0; i < 100; i++) { assertTrue(tree.remove(sorted.remove(random.nextInt(sorted.size())))); }
+		sorted.sort(Standing.ORDER);
+		
+		assertEquals(sorted.size(), tree.size());
+		assertEquals(sorted.subList(0, 10), tree.first(10));
+		for (int i = 0; i < sorted.size(); i++) {
+			
+			assertEquals(i, tree.rank(sorted.get(i)));
+			assertSame(sorted.get(i), tree.get(i));
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package application.games;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import application.tools.embeddables.Location;
+
+public class SpatialGridTest {
+	
+	/**
+	 * Tests if a radius query on a {@code SpatialGrid} finds entries near the center and skips far ones, and follows moves
+	 */
+	@Test
+	public void testSpatialGridNear() {
+		
+		Location center = new Location(41.6123374111, -95.5190119746, 0);
+		SpatialGrid<String> grid = new SpatialGrid<>(center, 25.0);
+		
+		grid.put("near", 41.6123474111, -95.5190119746);
+		grid.put("far", 41.6223374111, -95.5190119746);
+		
+		assertEquals(1, grid.near(center.getLatitude(), center.getLongitude(), 30).size());
+		assertEquals("near", grid.near(center.getLatitude(), center.getLongitude(), 30).get(0));
+		
+		grid.put("far", 41.6123374111, -95.5190219746);
+		assertEquals(2, grid.near(center.getLatitude(), center.getLongitude(), 30).size());
+		
+		grid.remove("near");
+		assertEquals(1, grid.size());
+	}
+}
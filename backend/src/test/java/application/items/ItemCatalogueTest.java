@@ -0,0 +1,37 @@
+package application.items;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+public class ItemCatalogueTest {
+	
+	/**
+	 * Tests if the item catalogue reads the table once, and again only after it is invalidated
+	 */
+	@Test
+	public void testItemCatalogueReadsOnce() {
+		
+		ItemRepository iRepo = mock(ItemRepository.class);
+		List<Item> stored = new ArrayList<>();
+		stored.add(new Item("Sword", null, "Kill range", 10, -1, 0, 1, 1.0));
+		Mockito.when(iRepo.findAll()).thenReturn(stored);
+		
+		ItemCatalogue catalogue = new ItemCatalogue(iRepo);
+		Random rand = new Random(3);
+		for (int i = 0; i < 50; i++) { assertEquals("Sword", catalogue.random(rand).getName()); }
+		Mockito.verify(iRepo, Mockito.times(1)).findAll();
+		
+		catalogue.invalidate();
+		Mockito.when(iRepo.findAll()).thenReturn(new ArrayList<>());
+		assertNull(catalogue.random(rand));
+		Mockito.verify(iRepo, Mockito.times(2)).findAll();
+	}
+}
@@ -0,0 +1,70 @@
+package application.items;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+
+import application.users.User;
+
+public class ItemEffectsTest {
+	
+	@After
+	public void tearDown() {
+		
+		ItemEffects.reset();
+	}
+	
+	/**
+	 * Tests if item buffs are kept up to date as a User's inventory changes
+	 */
+	@Test
+	public void testItemEffects() {
+		
+		User user = new User("effects", "password");
+		user.addItem(new Item("Binoculars", null, "View range", 5, -1, 0, 0, 10.0));
+		assertEquals(40.0, user.getViewRadius(), 1e-9);
+		assertEquals(1.0, user.getKillRadius(), 1e-9);
+		
+		//Incremental, and map entities like Cameras do not buff
+		user.addItem(new Item("Sword", null, "Kill range", 10, -1, 0, 1, 1.0));
+		user.addItem(new Item("Camera", null, "Target finder", 20, -1, 1, 0, 20.0));
+		assertEquals(40.0, user.getViewRadius(), 1e-9);
+		assertEquals(2.0, user.getKillRadius(), 1e-9);
+		
+		//A new kind of Item plugs in without touching User
+		ItemEffects.register(7, 0, (stats, item) -> stats.withKillBuff(stats.getKillBuff() * item.getEffect()));
+		Set<ItemInterface> items = new HashSet<>(user.getItems());
+		items.add(new Item("Scope", null, "Doubles kill range", 30, -1, 7, 0, 2.0));
+		user.setItems(items);
+		assertEquals(ItemEffects.of(items).getKillBuff(), user.getKillRadius() - 1.0, 1e-9);
+		assertEquals(40.0, user.getViewRadius(), 1e-9);
+	}
+	
+	/**
+	 * Tests if kinds of items with large or negative effect types never share a modifier, and if reset drops registered ones
+	 */
+	@Test
+	public void testItemEffectsKeys() {
+		
+		ItemEffects.register(0, 65536, (stats, item) -> stats.withViewBuff(1.0));
+		ItemEffects.register(0, -1, (stats, item) -> stats.withViewBuff(2.0));
+		
+		Item camera = new Item("Camera", null, "Target finder", 20, -1, 1, 0, 20.0);
+		Item large = new Item("Large", null, "Effect type past 16 bits", 20, -1, 0, 65536, 0.0);
+		Item negative = new Item("Negative", null, "Negative effect type", 20, -1, 0, -1, 0.0);
+		Item other = new Item("Other", null, "Effect type -1 of type -1", 20, -1, -1, -1, 0.0);
+		
+		assertSame(ItemEffects.NONE, ItemEffects.NONE.plus(camera));
+		assertEquals(1.0, ItemEffects.NONE.plus(large).getViewBuff(), 0.0);
+		assertEquals(2.0, ItemEffects.NONE.plus(negative).getViewBuff(), 0.0);
+		assertSame(ItemEffects.NONE, ItemEffects.NONE.plus(other));
+		
+		ItemEffects.reset();
+		assertSame(ItemEffects.NONE, ItemEffects.NONE.plus(large));
+		assertEquals(3.0, ItemEffects.NONE.plus(new Item("Sword", null, "Kill range", 10, -1, 0, 1, 3.0)).getKillBuff(), 0.0);
+	}
+}
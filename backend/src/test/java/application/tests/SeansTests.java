@@ -161,4 +161,5 @@ public class SeansTests {
 		assertEquals(user.getUsername(), u.getUsername());
 		assertEquals(user.getPassword(), u.getPassword());
 	}
+	
 }
@@ -0,0 +1,50 @@
+package application.tools.embeddables;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import application.tools.geometry.PackedLocations;
+
+public class LocationTest {
+	
+	/**
+	 * Tests if the fast distance paths agree with the haversine formula, follow a moved location, and match across the batch API
+	 */
+	@Test
+	public void testFastDistance() {
+		
+		Location a = new Location(42.0267, -93.6465, 5);
+		Location b = new Location(42.0300, -93.6400, 5);
+		
+		//Haversine as Location computed it before the fast path
+		double dLat = Math.toRadians(b.getLatitude() - a.getLatitude());
+		double dLon = Math.toRadians(b.getLongitude() - a.getLongitude());
+		double h = Math.pow(Math.sin(dLat / 2), 2) + Math.cos(Math.toRadians(a.getLatitude())) * Math.cos(Math.toRadians(b.getLatitude())) * Math.pow(Math.sin(dLon / 2), 2);
+		double expected = 6371000 * 2 * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h));
+		
+		assertEquals(expected, a.getDistance(b), 0.001);
+		assertTrue(a.isWithin(b, expected + 0.01));
+		assertFalse(a.isWithin(b, expected - 0.01));
+		
+		//Cached radians follow a moved location
+		b.setLatitude(a.getLatitude());
+		b.setLongitude(a.getLongitude());
+		assertEquals(0.0, a.getDistance(b), 0.0);
+		
+		//Past the fast path limit
+		assertEquals(1000.0 * 1000, Location.getDistance(0, 0, 0, 8.993216), 100);
+		
+		PackedLocations packed = new PackedLocations(new double[] { 42.0300, -93.6400, 42.0267, -93.6465, 42.5, -93.6465 });
+		double[] out = new double[packed.size()];
+		packed.distancesFrom(a.getLatitude(), a.getLongitude(), out);
+		assertEquals(expected, out[0], 0.001);
+		assertEquals(0.0, out[1], 0.0);
+		assertEquals(Location.getDistance(42.0267, -93.6465, 42.5, -93.6465), out[2], 0.001);
+		
+		int[] found = new int[packed.size()];
+		assertEquals(2, packed.within(a.getLatitude(), a.getLongitude(), 1000, found));
+		assertEquals(0, found[0]);
+		assertEquals(1, found[1]);
+	}
+}
@@ -0,0 +1,50 @@
+package application.tools.metrics;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import application.exceptions.BackendException;
+import application.items.ItemCatalogue;
+import application.items.ItemRepository;
+import application.tools.security.TokenSigner;
+import application.tools.services.ItemService;
+import application.users.TokenSweeper;
+import application.users.UserRepository;
+
+public class ServiceMetricsTest {
+	
+	/**
+	 * Tests if service calls are timed and tagged with the exception they threw
+	 */
+	@Test
+	public void testServiceMetricsTimesCalls() {
+		
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AspectJProxyFactory factory = new AspectJProxyFactory(new ItemService(mock(ItemRepository.class), mock(UserRepository.class), mock(ItemCatalogue.class), mock(TokenSigner.class), mock(TokenSweeper.class)));
+		factory.setProxyTargetClass(true);
+		factory.addAspect(new ServiceMetrics(registry));
+		ItemService proxy = factory.getProxy();
+		
+		for (int i = 0; i < 3; i++) {
+			try {
+				proxy.getItems(null);
+				fail();
+			} catch (BackendException e) {
+				//expected, a null Token is rejected
+			}
+		}
+		
+		Timer timer = registry.find(ServiceMetrics.TIMER)
+				.tags("service", "ItemService", "method", "getItems", "exception", "InvalidTokenException")
+				.timer();
+		assertNotNull(timer);
+		assertEquals(3, timer.count());
+	}
+}
@@ -0,0 +1,38 @@
+package application.tools.security;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import application.tools.embeddables.Token;
+
+public class AuthenticatorsTest {
+	
+	/**
+	 * Tests if authenticators are unique, URL-safe and round trip through their binary form
+	 */
+	@Test
+	public void testAuthenticators() {
+		
+		Set<String> seen = new HashSet<>();
+		for (int i = 0; i < 10000; i++) {
+			
+			String a = new Token(new String[] { "user", "password" }, 1).getAuthenticator();
+			assertEquals(Authenticators.LENGTH, a.length());
+			assertTrue(a, a.matches("[A-Za-z0-9_-]+"));
+			assertTrue(seen.add(a));
+			
+			AuthenticatorKey key = AuthenticatorKey.of(a);
+			assertEquals(a, key.toString());
+			assertEquals(key, AuthenticatorKey.of(new String(a)));
+			assertEquals(key.hashCode(), AuthenticatorKey.of(a).hashCode());
+		}
+		
+		//Authenticators from the old generator have no binary form
+		assertNull(AuthenticatorKey.of("a!b$c^d&e*f(g)h+i=j."));
+		assertNull(AuthenticatorKey.of("short"));
+	}
+}
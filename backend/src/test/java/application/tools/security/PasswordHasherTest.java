@@ -0,0 +1,66 @@
+package application.tools.security;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import application.exceptions.InvalidUserException;
+
+public class PasswordHasherTest {
+	
+	/**
+	 * Tests if passwords are checked against their hash, recent logins skip BCrypt, and a burst beyond the queue is turned away
+	 */
+	@Test
+	public void testPasswordHasher() throws Exception {
+		
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		PasswordHasher hasher = new PasswordHasher(registry, 1, 1, 4, 5000, 60000);
+		
+		String hash = hasher.hash("secret");
+		assertTrue(hasher.isHashed(hash));
+		assertFalse(hasher.isHashed("secret"));
+		assertFalse(hasher.verify("sean", "wrong", hash));
+		assertTrue(hasher.verify("sean", "secret", hash));
+		assertTrue(hasher.verify("sean", "secret", hash));
+		assertEquals(1, registry.get("knockout.passwords.cached").counter().count(), 0);
+		assertFalse(hasher.verify("sean", "wrong", hash));
+		
+		hasher.forget("sean");
+		assertTrue(hasher.verify("sean", "secret", hash));
+		assertEquals(1, registry.get("knockout.passwords.cached").counter().count(), 0);
+		
+		//Plaintext from before hashing
+		assertTrue(hasher.verify("old", "plain", "plain"));
+		assertFalse(hasher.verify("old", "other", "plain"));
+		
+		//One running and one queued, the rest are turned away
+		PasswordHasher slow = new PasswordHasher(registry, 1, 1, 12, 60000, 60000);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		List<Future<String>> hashes = new ArrayList<>();
+		for (int i = 0; i < 4; i++) { hashes.add(pool.submit(() -> slow.hash("secret"))); }
+		int turnedAway = 0;
+		for (Future<String> f : hashes) {
+			try {
+				f.get();
+			} catch (java.util.concurrent.ExecutionException e) {
+				
+				assertTrue(e.getCause() instanceof InvalidUserException);
+				turnedAway++;
+			}
+		}
+		pool.shutdown();
+		slow.shutdown();
+		hasher.shutdown();
+		assertTrue(turnedAway >= 2);
+		assertEquals(turnedAway, registry.get("knockout.passwords.rejected").counter().count(), 0);
+	}
+}
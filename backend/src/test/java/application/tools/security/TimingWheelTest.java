@@ -0,0 +1,46 @@
+package application.tools.security;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TimingWheelTest {
+	
+	/**
+	 * Tests if the timing wheel hands back every element once, in order, no earlier than its deadline and at most a tick late
+	 */
+	@Test
+	public void testTimingWheel() {
+		
+		Random random = new Random(23);
+		long start = 1_000_000;
+		TimingWheel<Long> wheel = new TimingWheel<>(1000, start);
+		
+		//Deadlines from the past to beyond the top level, which reaches 64^4 seconds
+		List<Long> deadlines = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) { deadlines.add(start - 5000 + (long) (random.nextDouble() * random.nextDouble() * 40_000_000_000L)); }
+		for (long d : deadlines) { wheel.schedule(d, d); }
+		assertEquals(deadlines.size(), wheel.size());
+		deadlines.sort(null);
+		
+		//An element is due once the tick it falls in has passed
+		List<Long> fired = new ArrayList<>();
+		for (long now = start; wheel.size() > 0; ) {
+			
+			long at = now += random.nextInt(100_000_000);
+			wheel.advance(at, d -> {
+				
+				assertTrue(d <= at);
+				fired.add(d);
+			});
+			
+			long due = deadlines.stream().filter(d -> (d + 999) / 1000 <= at / 1000).count();
+			assertEquals(due, fired.size());
+		}
+		assertEquals(deadlines, fired);
+	}
+}
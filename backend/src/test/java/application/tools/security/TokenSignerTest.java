@@ -0,0 +1,43 @@
+package application.tools.security;
+
+import static org.junit.Assert.*;
+
+import java.util.Base64;
+
+import org.junit.Test;
+
+public class TokenSignerTest {
+	
+	/**
+	 * Tests if signed tokens name their User, and are rejected once tampered with, expired, revoked or signed with another key
+	 */
+	@Test
+	public void testTokenSigner() {
+		
+		String secret = Base64.getEncoder().encodeToString(new byte[32]);
+		TokenSigner signer = new TokenSigner(secret);
+		long expiration = System.currentTimeMillis() + 60000;
+		
+		String a = signer.sign(42, "sean", expiration);
+		assertTrue(a, a.matches("[A-Za-z0-9_-]+"));
+		SignedToken claims = signer.verify(a);
+		assertEquals(42, claims.getUserId());
+		assertEquals("sean", claims.getUsername());
+		assertEquals(expiration, claims.getExpiration());
+		
+		//Same claims, different authenticator
+		assertNotEquals(a, signer.sign(42, "sean", expiration));
+		
+		char[] tampered = a.toCharArray();
+		tampered[3] = tampered[3] == 'A' ? 'B' : 'A';
+		assertNull(signer.verify(new String(tampered)));
+		assertNull(signer.verify(signer.sign(42, "sean", System.currentTimeMillis() - 1)));
+		assertNull(new TokenSigner("").verify(a));
+		assertNull(signer.verify(Authenticators.next()));
+		assertNull(signer.verify("a!b$c^d&e*f(g)h+i=j."));
+		
+		signer.revoke(a);
+		assertNull(signer.verify(a));
+		assertNotNull(new TokenSigner(secret).verify(a));
+	}
+}
@@ -0,0 +1,47 @@
+package application.tools.services;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class AfterCommitTest {
+	
+	@After
+	public void tearDown() {
+		
+		if (TransactionSynchronizationManager.isSynchronizationActive()) { TransactionSynchronizationManager.clearSynchronization(); }
+	}
+	
+	/**
+	 * Tests if updates wait for the commit, are dropped on rollback, and run right away outside of a transaction
+	 */
+	@Test
+	public void testAfterCommit() {
+		
+		List<String> ran = new ArrayList<>();
+		AfterCommit.run(() -> ran.add("outside"));
+		assertEquals(1, ran.size());
+		
+		//Committed
+		TransactionSynchronizationManager.initSynchronization();
+		AfterCommit.run(() -> ran.add("committed"));
+		assertEquals(1, ran.size());
+		for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) { s.afterCommit(); }
+		TransactionSynchronizationManager.clearSynchronization();
+		assertEquals("committed", ran.get(1));
+		
+		//Rolled back
+		TransactionSynchronizationManager.initSynchronization();
+		AfterCommit.run(() -> ran.add("rolled back"));
+		for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) { s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK); }
+		TransactionSynchronizationManager.clearSynchronization();
+		assertEquals(2, ran.size());
+	}
+}
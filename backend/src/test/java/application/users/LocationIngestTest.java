@@ -0,0 +1,63 @@
+package application.users;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import application.tools.embeddables.Location;
+
+public class LocationIngestTest {
+	
+	/**
+	 * Tests if a burst of location updates from one user is coalesced into one row of one batch, and read back before the flush
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testLocationIngestCoalesces() {
+		
+		JdbcTemplate jdbc = mock(JdbcTemplate.class);
+		LocationIngest ingest = new LocationIngest(jdbc, null);
+		
+		ingest.record(1, new Location(41.0, -95.0, 5), 10);
+		ingest.record(1, new Location(42.0, -96.0, 6), 20);
+		assertEquals(1, ingest.pendingCount());
+		
+		User user = new User("sicko", "mode", 0, new Location(0, 0, 0));
+		user.setId(1);
+		assertEquals(42.0, ingest.apply(user).getLocation().getLatitude(), 0.0);
+		
+		assertEquals(1, ingest.flush());
+		assertEquals(0, ingest.pendingCount());
+		
+		ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(jdbc, Mockito.times(1)).batchUpdate(Mockito.anyString(), rows.capture());
+		assertEquals(1, rows.getValue().size());
+		assertEquals(20L, rows.getValue().get(0)[3]);
+	}
+	
+	/**
+	 * Tests if flushing locations evicts the written users from the second-level cache, since the flush bypasses Hibernate
+	 */
+	@Test
+	public void testLocationIngestEvictsCache() {
+		
+		javax.persistence.EntityManagerFactory emf = mock(javax.persistence.EntityManagerFactory.class);
+		javax.persistence.Cache cache = mock(javax.persistence.Cache.class);
+		Mockito.when(emf.getCache()).thenReturn(cache);
+		
+		LocationIngest ingest = new LocationIngest(mock(JdbcTemplate.class), emf);
+		ingest.record(7, new Location(41.0, -95.0, 5), 10);
+		
+		Mockito.verify(cache, Mockito.never()).evict(User.class, 7);
+		assertEquals(1, ingest.flush());
+		Mockito.verify(cache, Mockito.times(1)).evict(User.class, 7);
+	}
+}
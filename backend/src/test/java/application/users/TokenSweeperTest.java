@@ -0,0 +1,78 @@
+package application.users;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class TokenSweeperTest {
+	
+	/**
+	 * Tests if expired tokens are reported, and live ones name their user, without the database, and if expired ones are cleared in one batch
+	 */
+	@Test
+	public void testTokenSweeper() {
+		
+		JdbcTemplate jdbc = mock(JdbcTemplate.class);
+		TokenSweeper sweeper = new TokenSweeper(jdbc, null);
+		long now = System.currentTimeMillis();
+		
+		sweeper.track(1, "expired", now - 1000);
+		sweeper.track(2, "live", now + 60000);
+		sweeper.track(3, "forgotten", now - 1000);
+		sweeper.forget("forgotten");
+		
+		assertTrue(sweeper.isExpired("expired"));
+		assertFalse(sweeper.isExpired("live"));
+		assertFalse(sweeper.isExpired("unknown"));
+		
+		//Only live Tokens name their User
+		assertEquals(Integer.valueOf(2), sweeper.holder("live"));
+		assertNull(sweeper.holder("expired"));
+		assertNull(sweeper.holder("forgotten"));
+		assertNull(sweeper.holder("unknown"));
+		
+		assertEquals(1, sweeper.sweep());
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(jdbc).batchUpdate(Mockito.anyString(), rows.capture());
+		assertEquals(1, rows.getValue().size());
+		assertArrayEquals(new Object[] { 1, "expired" }, rows.getValue().get(0));
+		
+		assertEquals(1, sweeper.trackedCount());
+		assertEquals(0, sweeper.sweep());
+	}
+	
+	/**
+	 * Tests if a sweep evicts only the swept users and the cached authenticator lookups
+	 */
+	@Test
+	public void testTokenSweeperEvicts() {
+		
+		EntityManagerFactory emf = mock(EntityManagerFactory.class);
+		Cache cache = mock(Cache.class);
+		org.hibernate.Cache regions = mock(org.hibernate.Cache.class);
+		Mockito.when(emf.getCache()).thenReturn(cache);
+		Mockito.when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(regions);
+		
+		TokenSweeper sweeper = new TokenSweeper(mock(JdbcTemplate.class), emf);
+		sweeper.track(7, "expired", System.currentTimeMillis() - 1000);
+		sweeper.track(8, "live", System.currentTimeMillis() + 60000);
+		assertEquals(1, sweeper.sweep());
+		
+		Mockito.verify(cache).evict(User.class, 7);
+		Mockito.verify(cache, Mockito.never()).evict(User.class, 8);
+		Mockito.verify(regions).evictQueryRegion(UserRepository.TOKENS_REGION);
+		Mockito.verify(regions, Mockito.never()).evictQueryRegions();
+	}
+}
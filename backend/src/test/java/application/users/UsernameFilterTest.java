@@ -0,0 +1,34 @@
+package application.users;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class UsernameFilterTest {
+	
+	/**
+	 * Tests if the username filter never misses an added name, ignores case, and rarely reports a free one as taken
+	 */
+	@Test
+	public void testUsernameFilter() {
+		
+		UsernameFilter filter = new UsernameFilter(null, 1000);
+		for (int i = 0; i < 1000; i++) { filter.add("player" + i); }
+		
+		for (int i = 0; i < 1000; i++) { assertTrue(filter.mightExist("player" + i)); }
+		assertTrue(filter.mightExist("PLAYER7"));
+		
+		int falsePositives = 0;
+		for (int i = 0; i < 10000; i++) { if (filter.mightExist("free" + i)) { falsePositives++; } }
+		assertTrue("False positives: " + falsePositives, falsePositives < 300);
+		
+		//Nothing is free until the database was read
+		UsernameFilter loading = new UsernameFilter(mock(JdbcTemplate.class), 1000);
+		assertTrue(loading.mightExist("anyone"));
+		loading.load();
+		assertFalse(loading.mightExist("anyone"));
+	}
+}
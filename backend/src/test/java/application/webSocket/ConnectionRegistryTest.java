@@ -0,0 +1,50 @@
+package application.webSocket;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import javax.websocket.RemoteEndpoint;
+
+import application.tools.embeddables.Token;
+
+public class ConnectionRegistryTest {
+	
+	/**
+	 * Tests if the connection registry finds connections by websocket, user and game, and forgets them on close
+	 */
+	@Test
+	public void testConnectionRegistry() {
+		
+		javax.websocket.Session socket = mock(javax.websocket.Session.class);
+		Mockito.when(socket.getId()).thenReturn("0");
+		Mockito.when(socket.getAsyncRemote()).thenReturn(mock(RemoteEndpoint.Async.class));
+		
+		Token user = new Token();
+		user.setAuthenticator("mo");
+		Token game = new Token();
+		game.setAuthenticator("sesh");
+		
+		//Lookups use fresh Token objects, as they come from different database reads
+		Token sameUser = new Token();
+		sameUser.setAuthenticator("mo");
+		Token sameGame = new Token();
+		sameGame.setAuthenticator("sesh");
+		
+		ConnectionRegistry registry = new ConnectionRegistry();
+		Connection c = registry.open(socket, user, "mo", 1, 2, 1000);
+		registry.join(c, game);
+		
+		assertSame(c, registry.get(socket));
+		assertSame(c, registry.getByUser(sameUser));
+		assertTrue(registry.inGame(sameGame).contains(c));
+		
+		registry.close(socket);
+		assertEquals(0, registry.size());
+		assertNull(registry.getByUser(sameUser));
+		assertTrue(registry.inGame(sameGame).isEmpty());
+	}
+}
@@ -0,0 +1,40 @@
+package application.webSocket;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import javax.websocket.RemoteEndpoint;
+
+import application.tools.embeddables.Token;
+
+public class ConnectionTest {
+	
+	/**
+	 * Tests if a connection with a stalled client queues without blocking, coalesces by key and drops the oldest message when full
+	 */
+	@Test
+	public void testConnectionBackpressure() {
+		
+		javax.websocket.Session socket = mock(javax.websocket.Session.class);
+		RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+		Mockito.when(socket.getAsyncRemote()).thenReturn(remote);
+		
+		//The client never acknowledges, so only the first message is ever in flight
+		Connection c = new Connection(socket, new Token(), "mo", 1, 2, 1000);
+		c.send("first");
+		c.send("102 old", "102");
+		c.send("102 new", "102");
+		assertEquals(1, c.getQueued());
+		
+		c.send("second");
+		c.send("third");
+		assertEquals(2, c.getQueued());
+		assertEquals(1, c.getDropped());
+		
+		Mockito.verify(remote, Mockito.times(1)).sendText(Mockito.anyString(), Mockito.any());
+	}
+}
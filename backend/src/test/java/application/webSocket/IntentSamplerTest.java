@@ -0,0 +1,32 @@
+package application.webSocket;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class IntentSamplerTest {
+	
+	/**
+	 * Tests if frequent intents are logged once per rate and intents without a rate always are
+	 */
+	@Test
+	public void testIntentSampler() {
+		
+		IntentSampler sampler = new IntentSampler("201:100, 202:10");
+		
+		int logged = 0;
+		for (int i = 0; i < 1000; i++) { if (sampler.sample(201)) { logged++; } }
+		assertEquals(10, logged);
+		
+		assertTrue(sampler.sample(202));
+		assertFalse(sampler.sample(202));
+		for (int i = 0; i < 5; i++) { assertTrue(sampler.sample(207)); }
+		
+		try {
+			new IntentSampler("201");
+			fail();
+		} catch (IllegalArgumentException e) {
+			//expected, a rate needs an intent and a value
+		}
+	}
+}
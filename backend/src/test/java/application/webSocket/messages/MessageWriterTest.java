@@ -0,0 +1,43 @@
+package application.webSocket.messages;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import application.tools.embeddables.Location;
+import application.users.User;
+import application.users.UserInterface;
+
+public class MessageWriterTest {
+	
+	/**
+	 * Tests if outbound messages are valid JSON, including the empty 102 and the 103 notice, and if the writer can be reused
+	 */
+	@Test
+	public void testMessageWriter() throws Exception {
+		
+		ObjectMapper mapper = new ObjectMapper();
+		MessageWriter writer = new MessageWriter(mapper.getFactory());
+		
+		JsonNode empty = mapper.readTree(writer.write(new PlayersInRadiusMessage(null, null)));
+		assertEquals(102, empty.get("intent").asInt());
+		assertEquals(0, empty.get("object").get("items").size());
+		
+		User user = new User("sicko", "mode", 0, new Location(41.6123374111, -95.5190119746, 5));
+		List<UserInterface> users = new ArrayList<>();
+		users.add(user);
+		
+		JsonNode full = mapper.readTree(writer.write(new PlayersInRadiusMessage(users, null)));
+		assertEquals("sicko", full.get("object").get("users").get(0).get("username").asText());
+		assertEquals(41.6123374111, full.get("object").get("users").get(0).get("Location").get("latitude").asDouble(), 0.0);
+		
+		JsonNode spotted = mapper.readTree(writer.write(new NoticeMessage(103, "You've been spotted", "\"quoted\"")));
+		assertEquals("\"quoted\"", spotted.get("object").get("Message").asText());
+	}
+}